@@ -0,0 +1,79 @@
+package de.flammenfuchs.injections.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A {@link Field} compiled once into {@link MethodHandle method handles} to set and get its value
+ */
+public final class FieldAccessor {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle setter;
+    private final MethodHandle getter;
+
+    private FieldAccessor(Field field, MethodHandle setter, MethodHandle getter) {
+        this.field = field;
+        this.setter = setter;
+        this.getter = getter;
+    }
+
+    /**
+     * Compile a field
+     *
+     * @param field the {@link Field} to be compiled
+     * @return the new {@link FieldAccessor}
+     */
+    public static FieldAccessor of(Field field) {
+        field.setAccessible(true);
+        try {
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new FieldAccessor(field, setter.asType(SETTER_TYPE), getter.asType(GETTER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getName() + " in "
+                    + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Set the value of the field
+     *
+     * @param owner the owner of the field
+     * @param value the new value
+     * @throws Throwable if the value cannot be set
+     */
+    public void set(Object owner, Object value) throws Throwable {
+        this.setter.invokeExact(owner, value);
+    }
+
+    /**
+     * Get the value of the field
+     *
+     * @param owner the owner of the field
+     * @return the current value
+     * @throws Throwable if the value cannot be read
+     */
+    public Object get(Object owner) throws Throwable {
+        return (Object) this.getter.invokeExact(owner);
+    }
+
+    /**
+     * Get the compiled field
+     *
+     * @return the {@link Field}
+     */
+    public Field getField() {
+        return field;
+    }
+}
@@ -0,0 +1,65 @@
+package de.flammenfuchs.injections.accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * A {@link Method} compiled once into a {@link MethodHandle}, which takes the owner and an argument array
+ */
+public final class MethodAccessor {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle handle;
+
+    private MethodAccessor(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+    }
+
+    /**
+     * Compile a method
+     *
+     * @param method the {@link Method} to be compiled
+     * @return the new {@link MethodAccessor}
+     */
+    public static MethodAccessor of(Method method) {
+        method.setAccessible(true);
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+            return new MethodAccessor(method, handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access method " + method.getName() + "() in "
+                    + method.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Invoke the method
+     *
+     * @param owner the owner of the method
+     * @param arguments the arguments with the length of the parameter count
+     * @return the return value or null for void methods
+     * @throws Throwable everything thrown by the method
+     */
+    public Object invoke(Object owner, Object[] arguments) throws Throwable {
+        return (Object) this.handle.invokeExact(owner, arguments);
+    }
+
+    /**
+     * Get the compiled method
+     *
+     * @return the {@link Method}
+     */
+    public Method getMethod() {
+        return method;
+    }
+}
@@ -0,0 +1,33 @@
+package de.flammenfuchs.injections.accessor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A compiled {@link MethodAccessor} with precomputed {@link ParameterResolver resolvers} for all of its parameters
+ */
+@RequiredArgsConstructor
+public class MethodInvoker {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final MethodAccessor accessor;
+    private final ParameterResolver[] resolvers;
+
+    /**
+     * Invoke the method with the resolved parameters
+     *
+     * @param instance the object holding the method
+     * @throws Throwable everything thrown by the method
+     */
+    public void invoke(Object instance) throws Throwable {
+        if (this.resolvers.length == 0) {
+            this.accessor.invoke(instance, NO_ARGUMENTS);
+            return;
+        }
+        Object[] arguments = new Object[this.resolvers.length];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = this.resolvers[i].resolve();
+        }
+        this.accessor.invoke(instance, arguments);
+    }
+}
@@ -0,0 +1,15 @@
+package de.flammenfuchs.injections.accessor;
+
+/**
+ * Resolves the value of a method parameter. Resolvers are created once per parameter.
+ */
+@FunctionalInterface
+public interface ParameterResolver {
+
+    /**
+     * Resolve the current value of the parameter
+     *
+     * @return the value or null if it could not be resolved
+     */
+    Object resolve();
+}
@@ -20,7 +20,8 @@ public @interface ConfigProperty {
     String value();
 
     /**
-     * Should the value be saved to the configuration file on shutdown?
+     * Should the value be saved to the configuration file?<br>
+     * Changed values are saved periodically and on shutdown.
      *
      * @return true if the value should be saved, false otherwise
      */
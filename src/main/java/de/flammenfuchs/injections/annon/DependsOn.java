@@ -0,0 +1,26 @@
+package de.flammenfuchs.injections.annon;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Methods annotated with {@link Startup} and @DependsOn are invoked after all {@link Startup} methods
+ * of the given classes completed.<br>
+ * Startup methods without a dependency between them can be invoked in parallel, see
+ * {@link de.flammenfuchs.injections.manager.InjectionsBuilder#parallelStartup(java.util.concurrent.Executor)}.<br>
+ * On a {@link Shutdown} method, the order is reversed: the method is invoked before the {@link Shutdown} methods
+ * of the given classes.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DependsOn {
+
+    /**
+     * Sets the classes whose {@link Startup} methods have to complete first
+     *
+     * @return the classes
+     */
+    Class<?>[] value();
+}
@@ -7,9 +7,11 @@ import java.lang.annotation.Target;
 
 /**
  * The {@link de.flammenfuchs.injections.annotationProcessor.AnnotationProcessorHandler} will try to resolve all fields
- * with this annotation. If no instance could be found, the field value is set to null
+ * with this annotation. If no instance could be found, the field value is set to null<br>
+ * A constructor with this annotation is used to instantiate a scoped class. Its parameters are resolved the same way.
+ * Only one constructor of a class can have this annotation.
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.CONSTRUCTOR})
 public @interface Inject {
 }
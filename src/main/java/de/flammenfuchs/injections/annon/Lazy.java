@@ -0,0 +1,17 @@
+package de.flammenfuchs.injections.annon;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classes annotated with @Lazy and a class annotation like {@link Scoped} are not instantiated on startup.<br>
+ * They are instantiated and processed when they are resolved from the
+ * {@link de.flammenfuchs.injections.registry.DependencyRegistry} or injected for the first time.
+ * Use a {@link de.flammenfuchs.injections.registry.Provider} to inject them without creating them.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Lazy {
+}
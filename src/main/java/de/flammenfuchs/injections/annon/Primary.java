@@ -0,0 +1,17 @@
+package de.flammenfuchs.injections.annon;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classes annotated with @Primary are preferred, if several registered types are assignable to a resolved
+ * supertype or interface.<br>
+ * Without a single primary candidate, resolving the supertype throws an
+ * {@link de.flammenfuchs.injections.registry.AmbiguousDependencyException}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Primary {
+}
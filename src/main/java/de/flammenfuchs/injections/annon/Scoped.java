@@ -7,7 +7,7 @@ import java.lang.annotation.Target;
 
 /**
  * All classes annotated with @Scoped are marked to be processed.<br>
- * These classes need an empty constructor.
+ * These classes need an empty constructor or a constructor annotated with {@link Inject}.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
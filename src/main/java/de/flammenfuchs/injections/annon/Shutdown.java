@@ -6,7 +6,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Methods annotated with @Shutdown are invoked as a shutdown hook.<br>
+ * Methods annotated with @Shutdown are invoked when the manager is stopped, either by
+ * {@link de.flammenfuchs.injections.manager.InjectionsManager#stop()} or by its JVM shutdown hook.<br>
+ * The method of an object is invoked before the methods of the objects it depends on.<br>
  * These methods are allowed to have parameters. The {@link de.flammenfuchs.injections.annotationProcessor.AnnotationProcessorHandler}
  * will try to resolve it from its known dependencies. When a parameter value is not found, it will be null.
  */
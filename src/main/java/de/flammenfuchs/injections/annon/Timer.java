@@ -6,7 +6,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Methods annotated with @Timer are invoked as a java timer.<br>
+ * Methods annotated with @Timer are invoked by the shared {@link de.flammenfuchs.injections.timer.TimerScheduler}.<br>
  * These methods are allowed to have parameters. The {@link de.flammenfuchs.injections.annotationProcessor.AnnotationProcessorHandler}
  * will try to resolve it from its known dependencies. When a parameter value is not found, it will be null.
  */
@@ -29,4 +29,20 @@ public @interface Timer {
      * @return the period in milliseconds
      */
     long period() default -1;
+
+    /**
+     * Sets if the method is repeated at a fixed rate. By default, the period is the delay between the end
+     * of an invocation and the start of the next one.
+     *
+     * @return true to repeat the method at a fixed rate
+     */
+    boolean fixedRate() default false;
+
+    /**
+     * Sets if an invocation is skipped while the previous invocation is still running.
+     * Only fixed rate timers can overlap.
+     *
+     * @return true to skip overlapping invocations
+     */
+    boolean skipIfRunning() default false;
 }
@@ -1,21 +1,37 @@
 package de.flammenfuchs.injections.annotationProcessor;
 
+import de.flammenfuchs.injections.accessor.FieldAccessor;
 import de.flammenfuchs.injections.annon.AlternativeTypeDef;
-import de.flammenfuchs.injections.discovery.DiscoveryResult;
+import de.flammenfuchs.injections.annon.DependsOn;
+import de.flammenfuchs.injections.annon.Inject;
+import de.flammenfuchs.injections.annon.Lazy;
+import de.flammenfuchs.injections.annon.Startup;
+import de.flammenfuchs.injections.discovery.InjectionPlan;
+import de.flammenfuchs.injections.graph.DependencyGraph;
+import de.flammenfuchs.injections.injector.Injector;
+import de.flammenfuchs.injections.injector.Injectors;
+import de.flammenfuchs.injections.instrumentation.InjectionsEvent;
+import de.flammenfuchs.injections.instrumentation.Instrumentation;
+import de.flammenfuchs.injections.registry.AmbiguousDependencyException;
 import de.flammenfuchs.injections.registry.DependencyRegistry;
 import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import de.flammenfuchs.injections.registry.TypeHierarchy;
 import de.flammenfuchs.javalib.logging.LogLevel;
 import de.flammenfuchs.javalib.logging.Logger;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Class to handle all processors
@@ -23,49 +39,389 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AnnotationProcessorHandler {
 
-    private final List<Class<?>> classes;
-    private final Map<Field, FieldAnnotationProcessor> fields;
-    private final Map<Method, MethodAnnotationProcessor> methods;
-    private final Map<Method, MethodAnnotationProcessor> lateMethods;
     private final Logger logger;
     private final DependencyRegistry dependencyRegistry;
     private final TypeConsumerRegistry typeConsumerRegistry;
+    private final long deliveryTimeoutMillis;
+    private final boolean useInjectors;
+    private final Executor instantiationExecutor;
+    private final Executor startupExecutor;
+    private final Function<Class<?>, InjectionPlan> planProvider;
+    private final Instrumentation instrumentation;
 
     private final List<Object> toConsume = new ArrayList<>();
+    private final Map<Class<?>, List<Class<?>>> ambiguousTypes = new HashMap<>();
+    private List<Class<?>> eagerClasses = List.of();
+    private Set<Class<?>> lazyClasses = Set.of();
 
     /**
-     * Handle all processors
+     * Handle all processors of the discovered classes and members<br>
+     * The discovered classes and members are not retained after this method returned.
+     *
+     * @param classes the discovered classes
+     * @param fields the discovered fields with their processors
+     * @param methods the discovered methods with their processors
+     * @param lateMethods the discovered late methods with their processors
+     */
+    public void handleProcessors(List<Class<?>> classes, Map<Field, FieldAnnotationProcessor> fields,
+                                 Map<Method, MethodAnnotationProcessor> methods,
+                                 Map<Method, MethodAnnotationProcessor> lateMethods) {
+        handleProcessors(classes, fields, methods);
+        handleLateProcessors(lateMethods);
+    }
+
+    /**
+     * Handle the processors of the discovered classes, fields and methods, but not of the late methods<br>
+     * After this method returned, all eager objects are instantiated, injected, started and consumed.
+     * The late methods are handled by {@link #handleLateProcessors(Map)}. Methods handled by a generated
+     * {@link Injector} are invoked at their position in the discovered methods, so startup methods run in the same
+     * order with and without injectors.
+     *
+     * @param classes the discovered classes
+     * @param fields the discovered fields with their processors
+     * @param methods the discovered methods with their processors
      */
     @SneakyThrows
-    public void handleProcessors() {
-        for (var clazz : classes) {
-            Object instance = clazz.getDeclaredConstructor().newInstance();
-            this.logger.info(LogLevel.EXTENDED, "Process " + clazz.getName());
-            this.dependencyRegistry.register(instance);
-            List<Class<?>> alternativeTypes = discoverAlternativeTypes(clazz);
-            for (Class<?> alternativeType : alternativeTypes) {
-                this.dependencyRegistry.register(instance, (Class<? super Object>) alternativeType);
-                this.logger.info(LogLevel.EXTENDED, "Register %s as alternative type for %s"
-                        .formatted(alternativeType.getName(), instance.getClass().getName()));
-            }
-            this.toConsume.add(instance);
-        }
-        this.fields.forEach((field, processor) -> {
-            Object owner = this.dependencyRegistry.resolve(field.getDeclaringClass());
-            processField(field, processor, owner);
+    public void handleProcessors(List<Class<?>> classes, Map<Field, FieldAnnotationProcessor> fields,
+                                 Map<Method, MethodAnnotationProcessor> methods) {
+        Map<Class<?>, Class<?>> providers = findProviders(classes);
+        Set<Class<?>> lazyClasses = findLazyClasses(classes, providers);
+        List<Class<?>> eagerClasses = classes.stream().filter(clazz -> !lazyClasses.contains(clazz)).toList();
+
+        Map<Class<?>, Object> instances = instantiate(eagerClasses, providers);
+        this.dependencyRegistry.registerAll(registrations -> {
+            for (var clazz : eagerClasses) {
+                Object instance = instances.get(clazz);
+                this.logger.info(LogLevel.EXTENDED, "Process " + clazz.getName());
+                registrations.register(instance);
+                List<Class<?>> alternativeTypes = discoverAlternativeTypes(clazz);
+                for (Class<?> alternativeType : alternativeTypes) {
+                    registrations.register(instance, (Class<? super Object>) alternativeType);
+                    this.logger.info(LogLevel.EXTENDED, "Register %s as alternative type for %s"
+                            .formatted(alternativeType.getName(), instance.getClass().getName()));
+                }
+                this.toConsume.add(instance);
+            }
+            for (var clazz : lazyClasses) {
+                registerLazy(registrations, (Class<Object>) clazz);
+            }
         });
-        this.methods.forEach((method, processor) -> {
-            Object owner = this.dependencyRegistry.resolve(method.getDeclaringClass());
-            processMethod(method, processor, owner);
+
+        forEachInjector(InjectionsEvent.Kind.FIELD_INJECTION, eagerClasses,
+                (injector, owner) -> injector.injectFields(owner, this.dependencyRegistry));
+        fields.forEach((field, processor) -> {
+            if (!lazyClasses.contains(field.getDeclaringClass())) {
+                Object owner = this.dependencyRegistry.resolve(field.getDeclaringClass());
+                processField(field, processor, owner);
+            }
+        });
+        invokeStartupMethods(methods, lazyClasses);
+        methods.forEach((method, processor) -> {
+            if (!lazyClasses.contains(method.getDeclaringClass()) && !method.isAnnotationPresent(Startup.class)) {
+                Object owner = this.dependencyRegistry.resolve(method.getDeclaringClass());
+                processMethod(method, processor, owner);
+            }
         });
-        this.toConsume.forEach(typeConsumerRegistry::consume);
+        this.toConsume.forEach(this::consume);
         this.toConsume.clear();
-        this.lateMethods.forEach((method, processor) -> {
-            Object owner = this.dependencyRegistry.resolve(method.getDeclaringClass());
-            processMethod(method, processor, owner);
+        this.ambiguousTypes.clear();
+        if (this.typeConsumerRegistry.getPendingDeliveries() > 0) {
+            this.logger.info(LogLevel.EXTENDED, "Wait for " + this.typeConsumerRegistry.getPendingDeliveries()
+                    + " asynchronous deliveries");
+        }
+        if (!this.typeConsumerRegistry.awaitDeliveries(this.deliveryTimeoutMillis)) {
+            this.logger.warn("Asynchronous deliveries did not finish within " + this.deliveryTimeoutMillis
+                    + "ms, continue without them. Pending consumers: "
+                    + String.join(", ", this.typeConsumerRegistry.getPendingConsumers()));
+        }
+        this.eagerClasses = eagerClasses;
+        this.lazyClasses = lazyClasses;
+    }
+
+    /**
+     * Handle the processors of the discovered late methods of the eager classes, which were handled by the
+     * last call of {@link #handleProcessors(List, Map, Map)}
+     *
+     * @param lateMethods the discovered late methods with their processors
+     */
+    public void handleLateProcessors(Map<Method, MethodAnnotationProcessor> lateMethods) {
+        List<Class<?>> eagerClasses = this.eagerClasses;
+        Set<Class<?>> lazyClasses = this.lazyClasses;
+        this.eagerClasses = List.of();
+        this.lazyClasses = Set.of();
+        lateMethods.forEach((method, processor) -> {
+            if (!lazyClasses.contains(method.getDeclaringClass())) {
+                Object owner = this.dependencyRegistry.resolve(method.getDeclaringClass());
+                processMethod(method, processor, owner);
+            }
         });
     }
 
+    /**
+     * Invoke the {@link Startup} methods of the eager classes in the order of their {@link DependsOn} declarations<br>
+     * Independent methods are invoked in parallel, if an {@link Executor} is set. If a method fails,
+     * the methods depending on it and all methods, which did not start yet, are skipped and the failure is rethrown
+     * without waiting for the running methods.
+     *
+     * @param methods the discovered methods with their processors
+     * @param lazyClasses the lazy classes, which are not processed yet
+     * @throws de.flammenfuchs.injections.graph.DependencyCycleException if the methods depend on each other in a cycle
+     */
+    private void invokeStartupMethods(Map<Method, MethodAnnotationProcessor> methods, Set<Class<?>> lazyClasses) {
+        DependencyGraph<Method> graph = new DependencyGraph<>();
+        Map<Class<?>, List<Method>> byClass = new HashMap<>();
+        methods.keySet().stream()
+                .filter(method -> method.isAnnotationPresent(Startup.class))
+                .filter(method -> !lazyClasses.contains(method.getDeclaringClass()))
+                .forEach(method -> {
+                    graph.addNode(method);
+                    byClass.computeIfAbsent(method.getDeclaringClass(), key -> new ArrayList<>()).add(method);
+                });
+        for (Method method : graph.getNodes()) {
+            DependsOn dependsOn = method.getAnnotation(DependsOn.class);
+            if (dependsOn == null) {
+                continue;
+            }
+            for (Class<?> dependency : dependsOn.value()) {
+                for (Method required : byClass.getOrDefault(dependency, List.of())) {
+                    if (required != method) {
+                        graph.addDependency(method, required);
+                    }
+                }
+            }
+        }
+        graph.execute(method -> processMethod(method, methods.get(method),
+                this.dependencyRegistry.resolve(method.getDeclaringClass())), this.startupExecutor);
+    }
+
+    /**
+     * Find the discovered class providing each type, including the alternative types and supertypes<br>
+     * Supertypes implemented by several classes are provided by the {@link de.flammenfuchs.injections.annon.Primary}
+     * class. Without a single primary class, they are stored in {@link #ambiguousTypes}.
+     *
+     * @param classes the discovered classes
+     * @return a {@link Map} with the type as key and the providing class as value
+     */
+    private Map<Class<?>, Class<?>> findProviders(List<Class<?>> classes) {
+        Map<Class<?>, Class<?>> providers = new HashMap<>();
+        for (var clazz : classes) {
+            providers.put(clazz, clazz);
+        }
+        for (var clazz : classes) {
+            for (Class<?> alternativeType : discoverAlternativeTypes(clazz)) {
+                providers.putIfAbsent(alternativeType, clazz);
+            }
+        }
+        Map<Class<?>, List<Class<?>>> candidates = new LinkedHashMap<>();
+        for (var clazz : classes) {
+            for (Class<?> supertype : TypeHierarchy.supertypes(clazz)) {
+                if (!providers.containsKey(supertype)) {
+                    candidates.computeIfAbsent(supertype, key -> new ArrayList<>()).add(clazz);
+                }
+            }
+        }
+        candidates.forEach((supertype, implementations) -> {
+            Class<?> provider = TypeHierarchy.selectPrimary(implementations, Function.identity());
+            if (provider != null) {
+                providers.put(supertype, provider);
+            } else {
+                this.ambiguousTypes.put(supertype, implementations);
+            }
+        });
+        return providers;
+    }
+
+    /**
+     * Find the discovered class providing a type
+     *
+     * @param providers the discovered class providing each type
+     * @param type the type
+     * @return the providing class or null if no discovered class provides the type
+     * @throws AmbiguousDependencyException if several discovered classes provide the type
+     */
+    private Class<?> findProvider(Map<Class<?>, Class<?>> providers, Class<?> type) {
+        List<Class<?>> candidates = this.ambiguousTypes.get(type);
+        if (candidates != null) {
+            throw new AmbiguousDependencyException(type, candidates);
+        }
+        return providers.get(type);
+    }
+
+    /**
+     * Find all classes annotated with {@link Lazy}<br>
+     * Lazy classes required by the {@link Inject} constructor of an eager class are instantiated eagerly.
+     *
+     * @param classes the discovered classes
+     * @param providers the discovered class providing each type
+     * @return a {@link Set} with all lazy classes
+     */
+    private Set<Class<?>> findLazyClasses(List<Class<?>> classes, Map<Class<?>, Class<?>> providers) {
+        Set<Class<?>> lazyClasses = new LinkedHashSet<>();
+        Deque<Class<?>> eagerClasses = new ArrayDeque<>();
+        for (var clazz : classes) {
+            if (clazz.isAnnotationPresent(Lazy.class)) {
+                lazyClasses.add(clazz);
+            } else {
+                eagerClasses.add(clazz);
+            }
+        }
+        while (!lazyClasses.isEmpty() && !eagerClasses.isEmpty()) {
+            Class<?> clazz = eagerClasses.poll();
+            Constructor<?> constructor = findInjectConstructor(clazz);
+            if (constructor == null) {
+                continue;
+            }
+            for (Class<?> parameterType : constructor.getParameterTypes()) {
+                Class<?> provider = findProvider(providers, parameterType);
+                if (provider != null && lazyClasses.remove(provider)) {
+                    this.logger.info(LogLevel.EXTENDED, "Instantiate lazy %s eagerly, because it is required by %s"
+                            .formatted(provider.getName(), clazz.getName()));
+                    eagerClasses.add(provider);
+                }
+            }
+        }
+        return lazyClasses;
+    }
+
+    /**
+     * Register a lazy class, which is instantiated and processed on its first resolve
+     *
+     * @param registrations the registrations of the current write
+     * @param clazz the lazy class
+     */
+    private void registerLazy(DependencyRegistry.Registrations registrations, Class<Object> clazz) {
+        Constructor<?> constructor = findInjectConstructor(clazz);
+        registrations.registerLazy(clazz,
+                () -> {
+                    this.logger.info(LogLevel.EXTENDED, "Process lazy " + clazz.getName());
+                    return newInstance(clazz, constructor, Map.of(), Map.of());
+                },
+                instance -> handleObject(instance, this.planProvider.apply(clazz)),
+                discoverAlternativeTypes(clazz));
+        this.logger.info(LogLevel.EXTENDED, "Register lazy " + clazz.getName());
+    }
+
+    /**
+     * Create the instances of the given classes<br>
+     * The parameters of {@link Inject} constructors are resolved from the other classes or the
+     * {@link DependencyRegistry}, so the classes are instantiated in the order of their dependencies.
+     * Independent classes are instantiated in parallel, if an {@link Executor} is set.
+     *
+     * @param classes the classes to be instantiated
+     * @param providers the discovered class providing each type
+     * @return a {@link Map} with the class as key and its instance as value
+     * @throws de.flammenfuchs.injections.graph.DependencyCycleException if constructors depend on each other in a cycle
+     */
+    private Map<Class<?>, Object> instantiate(List<Class<?>> classes, Map<Class<?>, Class<?>> providers) {
+        DependencyGraph<Class<?>> graph = new DependencyGraph<>();
+        Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+        for (var clazz : classes) {
+            graph.addNode(clazz);
+            Constructor<?> constructor = findInjectConstructor(clazz);
+            if (constructor == null) {
+                continue;
+            }
+            constructors.put(clazz, constructor);
+            for (Class<?> parameterType : constructor.getParameterTypes()) {
+                Class<?> provider = findProvider(providers, parameterType);
+                if (provider != null) {
+                    graph.addDependency(clazz, provider);
+                }
+            }
+        }
+
+        Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
+        graph.execute(clazz -> instances.put(clazz, newInstance(clazz, constructors.get(clazz), providers, instances)),
+                this.instantiationExecutor);
+        return instances;
+    }
+
+    /**
+     * Create the instance of a class
+     *
+     * @param clazz the class
+     * @param constructor the {@link Inject} constructor or null to use the empty constructor
+     * @param providers the discovered class providing each type
+     * @param instances the instances which were already created
+     * @return the new instance
+     */
+    private Object newInstance(Class<?> clazz, Constructor<?> constructor, Map<Class<?>, Class<?>> providers,
+                               Map<Class<?>, Object> instances) {
+        return this.instrumentation.measure(InjectionsEvent.Kind.INSTANTIATION, clazz,
+                () -> createInstance(clazz, constructor, providers, instances));
+    }
+
+    @SneakyThrows
+    private Object createInstance(Class<?> clazz, Constructor<?> constructor, Map<Class<?>, Class<?>> providers,
+                                  Map<Class<?>, Object> instances) {
+        if (constructor == null) {
+            Injector<?> injector = findInjector(clazz);
+            return injector != null ? injector.newInstance() : clazz.getDeclaredConstructor().newInstance();
+        }
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Type[] genericParameterTypes = constructor.getGenericParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> provider = providers.get(parameterTypes[i]);
+            arguments[i] = provider != null ? instances.get(provider)
+                    : this.dependencyRegistry.resolve(parameterTypes[i], genericParameterTypes.length == parameterTypes.length
+                    ? genericParameterTypes[i] : parameterTypes[i]);
+        }
+        this.logger.info(LogLevel.EXTENDED, "Instantiate " + clazz.getName() + " with @Inject constructor");
+        try {
+            return constructor.newInstance(arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Find the constructor of a class annotated with {@link Inject}
+     *
+     * @param clazz the class
+     * @return the constructor or null if the class has no {@link Inject} constructor
+     */
+    private static Constructor<?> findInjectConstructor(Class<?> clazz) {
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                constructor.setAccessible(true);
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the generated {@link Injector} of a class
+     *
+     * @param clazz the class
+     * @return the {@link Injector} or null if it does not exist or injectors are disabled
+     */
+    @SuppressWarnings("unchecked")
+    private Injector<Object> findInjector(Class<?> clazz) {
+        return this.useInjectors ? (Injector<Object>) Injectors.find(clazz) : null;
+    }
+
+    /**
+     * Run an action for all given classes with a generated {@link Injector}
+     *
+     * @param kind the kind of the step measured for each class
+     * @param classes the classes
+     * @param action the action with the injector and the registered instance of the class
+     */
+    private void forEachInjector(InjectionsEvent.Kind kind, List<Class<?>> classes,
+                                 BiConsumer<Injector<Object>, Object> action) {
+        for (var clazz : classes) {
+            Injector<Object> injector = findInjector(clazz);
+            if (injector != null) {
+                this.logger.info(LogLevel.EXTENDED, "Process " + clazz.getName() + " with generated injector");
+                Object owner = this.dependencyRegistry.resolve(clazz);
+                this.instrumentation.run(kind, clazz, () -> action.accept(injector, owner));
+            }
+        }
+    }
+
+
     private List<Class<?>> discoverAlternativeTypes(Class<?> clazz) {
         for (Annotation annotation : clazz.getAnnotations()) {
             AlternativeTypeDef typeDef = annotation.annotationType().getAnnotation(AlternativeTypeDef.class);
@@ -93,42 +449,117 @@ public class AnnotationProcessorHandler {
      * Handle a single object
      *
      * @param object the object to be handled
-     * @param result the result of the discovery
+     * @param plan the {@link InjectionPlan} of the object's class
+     */
+    public void handleObject(Object object, InjectionPlan plan) {
+        Injector<Object> injector = plan.getInjector();
+        if (injector != null) {
+            this.instrumentation.run(InjectionsEvent.Kind.FIELD_INJECTION, object.getClass(),
+                    () -> injector.injectFields(object, this.dependencyRegistry));
+        }
+        for (InjectionPlan.FieldStep step : plan.getFields()) {
+            processField(step, object);
+        }
+        for (InjectionPlan.MethodStep step : plan.getMethods()) {
+            processMethod(step, injector, object);
+        }
+        for (InjectionPlan.MethodStep step : plan.getLateMethods()) {
+            processMethod(step, injector, object);
+        }
+        consume(object);
+    }
+
+    /**
+     * Deliver an object to the type consumers
+     *
+     * @param object the object
      */
-    public void handleObject(Object object, DiscoveryResult result) {
-        result.getFields().forEach((field, processor) -> this.processField(field, processor, object));
-        result.getMethods().forEach((method, processor) -> this.processMethod(method, processor, object));
-        result.getLateMethods().forEach((method, processor) -> this.processMethod(method, processor, object));
-        this.typeConsumerRegistry.consume(object);
+    private void consume(Object object) {
+        this.instrumentation.run(InjectionsEvent.Kind.CONSUMER_DELIVERY, object.getClass(),
+                () -> this.typeConsumerRegistry.consume(object));
     }
 
     /**
-     * Process a field
+     * Process a field with the accessor compiled by the plan of its owner
      *
      * @param field     the field to be processed
      * @param processor the processor of the field
      * @param owner     the owner of the field
      */
-    @SneakyThrows
     private void processField(Field field, FieldAnnotationProcessor processor, Object owner) {
-        field.setAccessible(true);
-        field.set(owner, processor.processField(field, owner));
+        FieldAccessor planned = owner == null ? null : this.planProvider.apply(owner.getClass()).getAccessor(field);
+        FieldAccessor accessor = planned == null ? FieldAccessor.of(field) : planned;
+        this.instrumentation.run(InjectionsEvent.Kind.FIELD_INJECTION, field,
+                () -> setField(accessor, field, processor, owner));
         this.logger.info(LogLevel.EXTENDED, "Process " + field.getName() + " in "
                 + field.getDeclaringClass().getName());
     }
 
     /**
-     * Process a method
+     * Process a method<br>
+     * A method handled by the generated {@link Injector} of its class is invoked through the injector.
      *
      * @param method    the method to be processed
      * @param processor the processor of the method
      * @param owner     the owner of the method
      */
-    @SneakyThrows
     private void processMethod(Method method, MethodAnnotationProcessor processor, Object owner) {
         this.logger.info(LogLevel.EXTENDED, "Process " + method.getName() + "() in "
                 + method.getDeclaringClass().getName());
-        processor.processMethod(method, owner);
+        Injector<Object> injector = findInjector(method.getDeclaringClass());
+        String key = injector == null ? null : Injector.methodKey(method);
+        if (key != null && injector.getInvokedMethods().contains(key)) {
+            this.instrumentation.run(InjectionsEvent.Kind.METHOD_INVOCATION, method,
+                    () -> injector.invokeMethod(owner, key, this.dependencyRegistry));
+        } else {
+            this.instrumentation.run(InjectionsEvent.Kind.METHOD_INVOCATION, method,
+                    () -> processor.processMethod(method, owner));
+        }
+    }
+
+    /**
+     * Process a field of a plan
+     *
+     * @param step  the step of the field
+     * @param owner the owner of the field
+     */
+    private void processField(InjectionPlan.FieldStep step, Object owner) {
+        this.instrumentation.run(InjectionsEvent.Kind.FIELD_INJECTION, step.getField(),
+                () -> setField(step.getAccessor(), step.getField(), step.getProcessor(), owner));
+        this.logger.info(LogLevel.EXTENDED, step.getDescription());
+    }
+
+    /**
+     * Process a method of a plan
+     *
+     * @param step     the step of the method
+     * @param injector the {@link Injector} of the plan
+     * @param owner    the owner of the method
+     */
+    private void processMethod(InjectionPlan.MethodStep step, Injector<Object> injector, Object owner) {
+        this.logger.info(LogLevel.EXTENDED, step.getDescription());
+        if (step.getInjectorKey() != null) {
+            this.instrumentation.run(InjectionsEvent.Kind.METHOD_INVOCATION, step.getMethod(),
+                    () -> injector.invokeMethod(owner, step.getInjectorKey(), this.dependencyRegistry));
+        } else {
+            this.instrumentation.run(InjectionsEvent.Kind.METHOD_INVOCATION, step.getMethod(),
+                    () -> step.getProcessor().processMethod(step.getMethod(), owner));
+        }
+    }
+
+    /**
+     * Set a field to the value of its processor, unless the processor set the field itself
+     *
+     * @param accessor the accessor of the field
+     * @param field the field
+     * @param processor the processor of the field
+     * @param owner the owner of the field
+     */
+    @SneakyThrows
+    private static void setField(FieldAccessor accessor, Field field, FieldAnnotationProcessor processor, Object owner) {
+        if (!processor.injectField(field, owner)) {
+            accessor.set(owner, processor.processField(field, owner));
+        }
     }
 
 }
@@ -15,4 +15,16 @@ public interface FieldAnnotationProcessor {
      * @return the object which is set as value for the {@link Field} of the instance
      */
     Object processField(Field field, Object instance);
+
+    /**
+     * Process a field and set its value directly, e.g. to set a primitive field without boxing<br>
+     * By default, nothing is set and the value of {@link #processField(Field, Object)} is set by the caller.
+     *
+     * @param field the {@link Field} to be processed
+     * @param instance an instance containing the {@link Field}
+     * @return true if the field was set, false if the value of {@link #processField(Field, Object)} has to be set
+     */
+    default boolean injectField(Field field, Object instance) {
+        return false;
+    }
 }
@@ -0,0 +1,20 @@
+package de.flammenfuchs.injections.annotationProcessor;
+
+import de.flammenfuchs.injections.accessor.ParameterResolver;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * A processor for a {@link java.lang.annotation.Annotation} for a {@link Parameter} of an invoked method
+ */
+public interface ParameterAnnotationProcessor {
+
+    /**
+     * Create the resolver of a parameter. It is called once per parameter, the resolver is reused
+     * for every invocation of the method.
+     *
+     * @param parameter the {@link Parameter} to be resolved
+     * @return the {@link ParameterResolver} for the parameter
+     */
+    ParameterResolver createResolver(Parameter parameter);
+}
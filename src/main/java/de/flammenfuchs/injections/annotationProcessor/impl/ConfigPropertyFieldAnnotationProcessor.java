@@ -1,32 +1,86 @@
 package de.flammenfuchs.injections.annotationProcessor.impl;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.TypeAdapter;
+import de.flammenfuchs.injections.accessor.ParameterResolver;
 import de.flammenfuchs.injections.annon.ConfigProperty;
 import de.flammenfuchs.injections.annotationProcessor.FieldAnnotationProcessor;
+import de.flammenfuchs.injections.annotationProcessor.ParameterAnnotationProcessor;
+import de.flammenfuchs.injections.config.ConfigChangeListener;
+import de.flammenfuchs.injections.config.ConfigFieldBinder;
+import de.flammenfuchs.injections.config.ConfigValueConverter;
 import de.flammenfuchs.javalib.config.v2.FileHandler;
 import de.flammenfuchs.javalib.config.v2.JsonFileHandler;
 import de.flammenfuchs.javalib.lang.tuple.Tuple;
+import de.flammenfuchs.javalib.logging.LogLevel;
 import de.flammenfuchs.javalib.logging.Logger;
+import lombok.NonNull;
 import lombok.SneakyThrows;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-public class ConfigPropertyFieldAnnotationProcessor implements FieldAnnotationProcessor {
+/**
+ * Injects the values of a local config file into fields and method parameters annotated with {@link ConfigProperty}<br>
+ * Every injected field is indexed by its key, so {@link #reload()} re-injects only the fields of changed properties.
+ * Final fields are only injected once and a warning is logged, because writing them later is unsafe.
+ * Fields with {@link ConfigProperty#save()} are written back by {@link #flush()} only when a property changed.<br>
+ * Properties are kept as JSON values and converted by a {@link ConfigFieldBinder}, which is compiled once per field.
+ */
+public class ConfigPropertyFieldAnnotationProcessor implements FieldAnnotationProcessor, ParameterAnnotationProcessor {
 
     private final Logger logger;
     private final FileHandler fileHandler;
     private final Wrapper wrapper;
+    private final String fileName;
+    private final Gson gson;
 
-    private final List<Tuple<Field, Object>> toSave = new ArrayList<>();
+    private final Path file;
+    private final Map<String, Set<Binding>> bindings = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+    private final Map<String, JsonElement> persisted = new HashMap<>();
+    private final ClassValue<Map<Field, ConfigFieldBinder>> binders = new ClassValue<>() {
+        @Override
+        protected Map<Field, ConfigFieldBinder> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final ClassValue<Map<Field, ConfigValueConverter>> finalFields = new ClassValue<>() {
+        @Override
+        protected Map<Field, ConfigValueConverter> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final Map<String, List<ParameterBinding>> parameterBindings = new ConcurrentHashMap<>();
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flusher;
+    private String fileStamp;
 
     public ConfigPropertyFieldAnnotationProcessor(Logger logger, String path, String fileName, List<Tuple<Type, TypeAdapter<?>>> typeAdapters) {
         this.logger = logger;
+        this.fileName = fileName;
 
         GsonBuilder gsonBuilder = new GsonBuilder();
         for (Tuple<Type, TypeAdapter<?>> typeAdapter : typeAdapters) {
@@ -34,82 +88,502 @@ public class ConfigPropertyFieldAnnotationProcessor implements FieldAnnotationPr
         }
         gsonBuilder.setPrettyPrinting().disableHtmlEscaping();
 
-
-        this.fileHandler = new JsonFileHandler(path, gsonBuilder.create());
+        this.gson = gsonBuilder.create();
+        this.fileHandler = new JsonFileHandler(path, gson);
         this.wrapper = fileHandler.loadFile(fileName, Wrapper.class);
+        this.file = Path.of(path, fileName);
+        this.fileStamp = readStamp();
+        this.persisted.putAll(this.wrapper.properties);
+    }
+
+    /**
+     * Write the values of all fields with {@link ConfigProperty#save()} to the config file, if a property changed
+     * since the file was written or read the last time<br>
+     * If the file was modified by someone else since then, it is reloaded first, so the modification is not
+     * overwritten. The file is written to a temporary file first, which replaces the config file with an atomic move.
+     * Only the content is created while the properties are locked, injections don't wait for the file to be written.
+     *
+     * @return true if the file was written
+     */
+    @SneakyThrows
+    public boolean flush() {
+        synchronized (this.flushLock) {
+            if (isModifiedExternally()) {
+                logger.info(LogLevel.EXTENDED, "Config file " + fileName + " was modified, reload it before saving");
+                reload();
+            }
+            String content;
+            Map<String, JsonElement> written;
+            synchronized (this) {
+                this.bindings.forEach((key, keyBindings) -> {
+                    for (Binding binding : keyBindings) {
+                        Object owner = binding.get();
+                        if (binding.binder.isSave() && (owner != null || binding.isStatic)) {
+                            wrapper.properties.put(key, binding.binder.toJson(owner));
+                        }
+                    }
+                });
+                boolean dirty = false;
+                for (Map.Entry<String, JsonElement> entry : wrapper.properties.entrySet()) {
+                    dirty |= !entry.getValue().equals(this.persisted.get(entry.getKey()));
+                }
+                if (!dirty) {
+                    return false;
+                }
+                content = gson.toJson(wrapper);
+                written = new HashMap<>(wrapper.properties);
+            }
+            writeAtomically(content);
+            String stamp = readStamp();
+            synchronized (this) {
+                this.fileStamp = stamp;
+                this.persisted.clear();
+                this.persisted.putAll(written);
+            }
+            logger.info(LogLevel.EXTENDED, "Saved config property file");
+            return true;
+        }
+    }
+
+    /**
+     * Flush the changed properties periodically on a daemon thread named {@code injections-config-flush}<br>
+     * Changes are coalesced, so the file is written at most once per interval.
+     *
+     * @param intervalMillis the interval in milliseconds
+     */
+    public synchronized void startFlushing(long intervalMillis) {
+        if (this.flusher != null) {
+            return;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "injections-config-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                logger.err("Could not save config property file: " + e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic flushing and flush the changed properties a last time
+     *
+     * @return true if the file was written
+     */
+    public boolean close() {
+        ScheduledExecutorService flusher;
+        synchronized (this) {
+            flusher = this.flusher;
+        }
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        return flush();
+    }
+
+    /**
+     * Write the config file with a temporary file and an atomic move, so the file is never written partially<br>
+     * The permissions of the existing file are copied to the temporary file, because it is created with restricted
+     * permissions.
+     *
+     * @param content the content of the file
+     * @throws IOException if the file could not be written
+     */
+    private void writeAtomically(String content) throws IOException {
+        Path directory = this.file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+        try {
+            copyAttributes(this.file, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            for (Tuple<Field, Object> tuple : toSave) {
-                String key = tuple.a().getAnnotation(ConfigProperty.class).value();
-                Object instance = tuple.b();
+    /**
+     * Copy the permissions, the owner and the group of a file to another file, as far as the file system supports
+     * them. An owner or group, which cannot be set by the current user, is skipped.
+     *
+     * @param source the file to copy the attributes from
+     * @param target the file to copy the attributes to
+     * @throws IOException if the permissions could not be copied
+     */
+    private void copyAttributes(Path source, Path target) throws IOException {
+        if (!Files.exists(source)) {
+            return;
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (view != null) {
+            PosixFileAttributes attributes = view.readAttributes();
+            Files.setPosixFilePermissions(target, attributes.permissions());
+            PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+            try {
+                targetView.setGroup(attributes.group());
+                targetView.setOwner(attributes.owner());
+            } catch (IOException | SecurityException e) {
+                logger.info(LogLevel.EXTENDED, "Could not keep the owner of config file " + fileName + ": " + e);
+            }
+            return;
+        }
+        DosFileAttributeView dosView = Files.getFileAttributeView(source, DosFileAttributeView.class);
+        if (dosView != null) {
+            DosFileAttributes attributes = dosView.readAttributes();
+            DosFileAttributeView targetView = Files.getFileAttributeView(target, DosFileAttributeView.class);
+            targetView.setHidden(attributes.isHidden());
+            targetView.setArchive(attributes.isArchive());
+        }
+    }
+
+    /**
+     * Check if the config file was modified since it was read or written the last time
+     *
+     * @return true if its modification time or size changed
+     */
+    private synchronized boolean isModifiedExternally() {
+        return !Objects.equals(this.fileStamp, readStamp());
+    }
+
+    /**
+     * Read the stamp of the config file, which changes when the file is modified
+     *
+     * @return the modification time and the size of the file or null if it does not exist
+     */
+    private String readStamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(this.file, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Register a listener, which is notified after the fields of a changed property were re-injected
+     *
+     * @param listener the listener
+     */
+    public void addListener(@NonNull ConfigChangeListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Read the config file again and re-inject the fields of all changed properties<br>
+     * Properties are compared by their JSON values. Properties removed from the file keep their value.
+     * Final fields are not re-injected. Fields read by other threads should be volatile to see the new values.
+     *
+     * @return the keys of the changed properties
+     */
+    public Set<String> reload() {
+        List<Object[]> changes = new ArrayList<>();
+        synchronized (this) {
+            Wrapper loaded;
+            try {
+                this.fileStamp = readStamp();
+                loaded = fileHandler.loadFile(fileName, Wrapper.class);
+            } catch (RuntimeException e) {
+                logger.err("Could not reload config file " + fileName + ": " + e.getMessage());
+                return Set.of();
+            }
+            if (loaded == null || loaded.properties == null) {
+                return Set.of();
+            }
+            for (Map.Entry<String, JsonElement> entry : loaded.properties.entrySet()) {
+                String key = entry.getKey();
+                JsonElement value = entry.getValue();
+                JsonElement oldValue = wrapper.properties.get(key);
+                if (value == null || value.isJsonNull() || value.equals(oldValue)) {
+                    continue;
+                }
+                wrapper.properties.put(key, value);
+                persisted.put(key, value);
+                reinject(key, value);
+                changes.add(new Object[]{key, toObject(oldValue), toObject(value)});
+            }
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (Object[] change : changes) {
+            changed.add((String) change[0]);
+            for (ConfigChangeListener listener : this.listeners) {
                 try {
-                    Object value = tuple.a().get(instance);
-                    wrapper.properties.put(key, value);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
+                    listener.onChange((String) change[0], change[1], change[2]);
+                } catch (RuntimeException e) {
+                    logger.err("Error in config change listener for key " + change[0] + ": " + e);
                 }
             }
-            fileHandler.saveFile(fileName, wrapper);
-            logger.info("Saved config property file");
-        }));
+        }
+        if (!changed.isEmpty()) {
+            logger.info("Reloaded config properties " + changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Get the number of injected fields of a property, whose objects are still reachable
+     *
+     * @param key the key of the property
+     * @return the number of fields
+     */
+    public int getBindings(String key) {
+        Set<Binding> keyBindings = this.bindings.get(key);
+        return keyBindings == null ? 0 : (int) keyBindings.stream().filter(Binding::isAlive).count();
     }
 
-    @SneakyThrows
     @Override
     public Object processField(Field field, Object instance) {
-        ConfigProperty annotation = field.getAnnotation(ConfigProperty.class);
-        String key = annotation.value();
-        Class<?> type = field.getType();
-
-        if (annotation.save()) {
-            toSave.add(Tuple.finalTuple(field, instance));
-        }
-
-        Object value;
-        if (wrapper.properties.containsKey(key)) {
-            Object wrapperValue = wrapper.properties.get(key);
-            if (type.isAssignableFrom(wrapperValue.getClass())) {
-                value = wrapperValue;
-            } else {
-                if (isNumber(type) && isNumber(wrapperValue.getClass())) {
-                    value = fixNumberValue(type, wrapperValue);
-                } else {
-                    logger.err("Type mismatch for key: " + key + ". Expected: " + type.getName() + ", but got: " + wrapperValue.getClass().getName() + ". Used already set value.");
-                    value = field.get(instance);
+        Object owner = Modifier.isStatic(field.getModifiers()) ? null : instance;
+        if (Modifier.isFinal(field.getModifiers())) {
+            ConfigValueConverter converter = this.finalFields.get(field.getDeclaringClass())
+                    .computeIfAbsent(field, this::createFinalConverter);
+            synchronized (this) {
+                return inject(converter, () -> readField(field, owner));
+            }
+        }
+        ConfigFieldBinder binder = getBinder(field);
+
+        synchronized (this) {
+            bind(binder, owner);
+            return inject(binder.getConverter(), () -> binder.get(owner));
+        }
+    }
+
+    /**
+     * Inject a non-final field with its {@link ConfigFieldBinder}, which sets primitive fields without boxing<br>
+     * Final fields are injected with the value of {@link #processField(Field, Object)}.
+     *
+     * @param field the {@link Field} to be processed
+     * @param instance an instance containing the {@link Field}
+     * @return false if the field is final, true otherwise
+     */
+    @Override
+    public boolean injectField(Field field, Object instance) {
+        if (Modifier.isFinal(field.getModifiers())) {
+            return false;
+        }
+        Object owner = Modifier.isStatic(field.getModifiers()) ? null : instance;
+        ConfigFieldBinder binder = getBinder(field);
+
+        synchronized (this) {
+            bind(binder, owner);
+            JsonElement element = wrapper.properties.get(binder.getKey());
+            if (element == null) {
+                Object value = binder.get(owner);
+                if (value != null) {
+                    wrapper.properties.put(binder.getKey(), binder.serialize(value));
                 }
+                return true;
             }
-        } else {
-            value = field.get(instance);
-            if (value != null) {
-                wrapper.properties.put(key, value);
+            try {
+                binder.write(owner, element);
+            } catch (IllegalArgumentException e) {
+                logger.err(e.getMessage() + ". Used already set value.");
             }
+            return true;
+        }
+    }
+
+    private ConfigFieldBinder getBinder(Field field) {
+        return this.binders.get(field.getDeclaringClass()).computeIfAbsent(field, f -> ConfigFieldBinder.of(f, gson));
+    }
+
+    /**
+     * Get the value to be injected into a field<br>
+     * If the property is missing, the current value of the field is kept and added to the properties.
+     *
+     * @param converter the {@link ConfigValueConverter} of the field
+     * @param current the supplier of the current value of the field
+     * @return the value
+     */
+    private Object inject(ConfigValueConverter converter, Supplier<Object> current) {
+        JsonElement element = wrapper.properties.get(converter.getKey());
+        if (element != null) {
+            try {
+                return converter.convert(element);
+            } catch (IllegalArgumentException e) {
+                logger.err(e.getMessage() + ". Used already set value.");
+                return current.get();
+            }
+        }
+        Object value = current.get();
+        if (value != null) {
+            wrapper.properties.put(converter.getKey(), converter.serialize(value));
         }
         return value;
     }
 
-    private boolean isNumber(Class<?> type) {
-        return Number.class.isAssignableFrom(type) || type.isPrimitive() && (type.equals(int.class) || type.equals(long.class) || type.equals(float.class) || type.equals(double.class) || type.equals(short.class) || type.equals(byte.class));
+    /**
+     * Create the converter of a final field, which is injected once but never re-injected on {@link #reload()}
+     *
+     * @param field the final field
+     * @return the {@link ConfigValueConverter}
+     */
+    private ConfigValueConverter createFinalConverter(Field field) {
+        logger.warn("Config property field " + field.getName() + " in " + field.getDeclaringClass().getName()
+                + " is final and will not be reloaded");
+        field.setAccessible(true);
+        return ConfigValueConverter.of(field.getAnnotation(ConfigProperty.class).value(), field.getType(),
+                field.getGenericType(), gson);
     }
 
-    private Object fixNumberValue(Class<?> type, Object value) {
-        if (type.equals(int.class) || type.equals(Integer.class)) {
-            return ((Number) value).intValue();
-        } else if (type.equals(long.class) || type.equals(Long.class)) {
-            return ((Number) value).longValue();
-        } else if (type.equals(float.class) || type.equals(Float.class)) {
-            return ((Number) value).floatValue();
-        } else if (type.equals(double.class) || type.equals(Double.class)) {
-            return ((Number) value).doubleValue();
-        } else if (type.equals(short.class) || type.equals(Short.class)) {
-            return ((Number) value).shortValue();
-        } else if (type.equals(byte.class) || type.equals(Byte.class)) {
-            return ((Number) value).byteValue();
+    @SneakyThrows
+    private static Object readField(Field field, Object owner) {
+        return field.get(owner);
+    }
+
+    /**
+     * Create the resolver of a method parameter<br>
+     * The resolver holds the converted value and is updated by {@link #reload()}, so resolving it does no
+     * conversion. If the property is missing, it resolves null or the default value of a primitive type.
+     * {@link ConfigProperty#save()} is ignored for parameters.
+     *
+     * @param parameter the parameter annotated with {@link ConfigProperty}
+     * @return the {@link ParameterResolver}
+     */
+    @Override
+    public ParameterResolver createResolver(Parameter parameter) {
+        ConfigValueConverter converter = ConfigValueConverter.of(parameter.getAnnotation(ConfigProperty.class).value(),
+                parameter.getType(), parameter.getParameterizedType(), gson);
+        ParameterBinding binding = new ParameterBinding(converter);
+        synchronized (this) {
+            JsonElement element = wrapper.properties.get(converter.getKey());
+            if (element != null) {
+                try {
+                    binding.value = converter.convert(element);
+                } catch (IllegalArgumentException e) {
+                    logger.err(e.getMessage() + ". Used default value.");
+                }
+            }
+            this.parameterBindings.computeIfAbsent(converter.getKey(), k -> new CopyOnWriteArrayList<>()).add(binding);
         }
-        logger.warn("Tried to fix number value for type: " + type.getName() + ", but failed for value: " + value);
-        return null;
+        return binding;
+    }
+
+    /**
+     * Index an injected field by its key<br>
+     * The bindings of collected objects are removed first.
+     *
+     * @param binder the {@link ConfigFieldBinder} of the field
+     * @param owner the object holding the field or null for a static field
+     */
+    private void bind(ConfigFieldBinder binder, Object owner) {
+        removeCollectedBindings();
+        this.bindings.computeIfAbsent(binder.getKey(), k -> ConcurrentHashMap.newKeySet())
+                .add(new Binding(binder, owner, this.collectedOwners));
+    }
+
+    /**
+     * Remove the bindings, whose objects were collected
+     */
+    private void removeCollectedBindings() {
+        for (Reference<?> reference = this.collectedOwners.poll(); reference != null;
+             reference = this.collectedOwners.poll()) {
+            Binding binding = (Binding) reference;
+            Set<Binding> keyBindings = this.bindings.get(binding.binder.getKey());
+            if (keyBindings != null) {
+                keyBindings.remove(binding);
+            }
+        }
+    }
+
+    /**
+     * Re-inject all fields of a property
+     *
+     * @param key the key of the property
+     * @param value the new value from the config file
+     */
+    private void reinject(String key, JsonElement value) {
+        for (ParameterBinding binding : this.parameterBindings.getOrDefault(key, List.of())) {
+            try {
+                binding.value = binding.converter.convert(value);
+            } catch (IllegalArgumentException e) {
+                logger.err(e.getMessage() + ". Kept current value.");
+            }
+        }
+        Set<Binding> keyBindings = this.bindings.get(key);
+        if (keyBindings == null) {
+            return;
+        }
+        for (Binding binding : keyBindings) {
+            Object owner = binding.get();
+            if (!binding.isStatic && owner == null) {
+                keyBindings.remove(binding);
+                continue;
+            }
+            try {
+                binding.binder.write(owner, value);
+            } catch (IllegalArgumentException e) {
+                logger.err(e.getMessage() + ". Kept current value.");
+            }
+        }
+    }
+
+    /**
+     * Convert a JSON value to the plain object handed to the {@link ConfigChangeListener listeners}
+     *
+     * @param value the JSON value or null
+     * @return the object or null
+     */
+    private Object toObject(JsonElement value) {
+        return value == null ? null : gson.fromJson(value, Object.class);
     }
 
     public static class Wrapper {
-        Map<String, Object> properties = new HashMap<>();
+        Map<String, JsonElement> properties = new HashMap<>();
+    }
+
+    /**
+     * An injected field and a weak reference to the object holding it<br>
+     * Bindings are compared by identity and enqueued, when their object was collected.
+     */
+    private static final class Binding extends WeakReference<Object> {
+
+        private final ConfigFieldBinder binder;
+        private final boolean isStatic;
+
+        private Binding(ConfigFieldBinder binder, Object owner, ReferenceQueue<Object> queue) {
+            super(owner, owner == null ? null : queue);
+            this.binder = binder;
+            this.isStatic = owner == null;
+        }
+
+        private boolean isAlive() {
+            return this.isStatic || get() != null;
+        }
+    }
+
+    /**
+     * The resolver of a method parameter, which holds the converted value of the property
+     */
+    private static final class ParameterBinding implements ParameterResolver {
+
+        private final ConfigValueConverter converter;
+        private volatile Object value;
+
+        @SneakyThrows
+        private ParameterBinding(ConfigValueConverter converter) {
+            this.converter = converter;
+            Class<?> type = converter.getType();
+            this.value = type.isPrimitive() ? MethodHandles.zero(type).invoke() : null;
+        }
+
+        @Override
+        public Object resolve() {
+            return this.value;
+        }
     }
 }
@@ -2,39 +2,41 @@ package de.flammenfuchs.injections.annotationProcessor.impl;
 
 import de.flammenfuchs.injections.annon.Timer;
 import de.flammenfuchs.injections.annotationProcessor.MethodAnnotationProcessor;
-import de.flammenfuchs.javalib.logging.Logger;
+import de.flammenfuchs.injections.manager.ObjectHandle;
+import de.flammenfuchs.injections.timer.TimerScheduler;
 import lombok.RequiredArgsConstructor;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
-import java.util.TimerTask;
 import java.util.function.BiConsumer;
 
+/**
+ * Schedules {@link Timer} methods on the shared {@link TimerScheduler}<br>
+ * Timers of objects processed by {@link de.flammenfuchs.injections.manager.InjectionsManager#processObject(Object)}
+ * only reference the object weakly and are cancelled when the object is disposed.
+ */
 @RequiredArgsConstructor
 public class TimerMethodAnnotationProcessor implements MethodAnnotationProcessor {
 
     private final BiConsumer<Method, Object> methodInvoker;
-    private final Logger logger;
+    private final TimerScheduler scheduler;
 
     @Override
     public void processMethod(Method method, Object instance) {
-        java.util.Timer timer = new java.util.Timer();
         Timer timerAnnotation = method.getAnnotation(Timer.class);
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    methodInvoker.accept(method, instance);
-                } catch (Exception e) {
-                    logger.err("Error while invoking timer method");
-                    e.printStackTrace();
-                }
-            }
-        };
-        if (timerAnnotation.period() <= 0) {
-            timer.schedule(task, timerAnnotation.delay());
-        } else {
-            timer.schedule(task, timerAnnotation.delay(), timerAnnotation.period());
+        String name = method.getDeclaringClass().getName() + "#" + method.getName();
+        ObjectHandle handle = ObjectHandle.current();
+        if (handle == null) {
+            this.scheduler.schedule(name, timerAnnotation, () -> methodInvoker.accept(method, instance));
+            return;
         }
-
+        WeakReference<Object> reference = new WeakReference<>(instance);
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule(name, timerAnnotation, () -> {
+            Object target = reference.get();
+            if (target != null) {
+                methodInvoker.accept(method, target);
+            }
+        });
+        handle.onDispose(timer::cancel);
     }
 }
@@ -0,0 +1,17 @@
+package de.flammenfuchs.injections.config;
+
+/**
+ * A listener, which is notified when a property of the config file changed and its fields were re-injected
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    /**
+     * Called after the fields of a changed property were re-injected
+     *
+     * @param key the key of the property
+     * @param oldValue the previous value or null if the property was not set
+     * @param newValue the new value
+     */
+    void onChange(String key, Object oldValue, Object newValue);
+}
@@ -0,0 +1,156 @@
+package de.flammenfuchs.injections.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import de.flammenfuchs.injections.annon.ConfigProperty;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * The binding plan of a non-final {@link ConfigProperty} field, compiled once per field<br>
+ * Values are converted by a {@link ConfigValueConverter}. {@link #write(Object, JsonElement)} sets primitive fields
+ * without boxing; it is used for the first injection and to re-inject changed values.
+ */
+public final class ConfigFieldBinder {
+
+    @Getter
+    private final Field field;
+    @Getter
+    private final ConfigValueConverter converter;
+    @Getter
+    private final boolean save;
+    private final MethodHandle setter;
+    private final MethodHandle getter;
+
+    private ConfigFieldBinder(Field field, ConfigValueConverter converter, boolean save,
+                              MethodHandle setter, MethodHandle getter) {
+        this.field = field;
+        this.converter = converter;
+        this.save = save;
+        this.setter = setter;
+        this.getter = getter;
+    }
+
+    /**
+     * Compile the binding plan of a field
+     *
+     * @param field the field annotated with {@link ConfigProperty}
+     * @param gson the {@link Gson} instance providing the type adapters
+     * @return the new {@link ConfigFieldBinder}
+     * @throws IllegalArgumentException if the field is final
+     */
+    public static ConfigFieldBinder of(Field field, Gson gson) {
+        if (Modifier.isFinal(field.getModifiers())) {
+            throw new IllegalArgumentException("Cannot bind final field " + field.getName() + " in "
+                    + field.getDeclaringClass().getName());
+        }
+        ConfigProperty annotation = field.getAnnotation(ConfigProperty.class);
+        ConfigValueConverter converter = ConfigValueConverter.of(annotation.value(), field.getType(),
+                field.getGenericType(), gson);
+        Class<?> valueType = field.getType().isPrimitive() ? field.getType() : Object.class;
+
+        field.setAccessible(true);
+        try {
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new ConfigFieldBinder(field, converter, annotation.save(),
+                    setter.asType(MethodType.methodType(void.class, Object.class, valueType)),
+                    getter.asType(MethodType.methodType(Object.class, Object.class)));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getName() + " in "
+                    + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Get the interned key of the property
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return this.converter.getKey();
+    }
+
+    /**
+     * Convert a JSON value to the type of the field
+     *
+     * @param element the JSON value
+     * @return the converted value
+     * @throws IllegalArgumentException if the value does not match the type of the field
+     */
+    public Object convert(JsonElement element) {
+        return this.converter.convert(element);
+    }
+
+    /**
+     * Set the field to a JSON value. Primitive fields are set without boxing.<br>
+     * The field is written with the semantics of its declaration: other threads are only guaranteed to see the new
+     * value, if the field is volatile.
+     *
+     * @param owner the object holding the field or null for a static field
+     * @param element the JSON value
+     * @throws IllegalArgumentException if the value does not match the type of the field
+     */
+    @SneakyThrows
+    public void write(Object owner, JsonElement element) {
+        if (!this.field.getType().isPrimitive()) {
+            Object value = convert(element);
+            this.setter.invokeExact(owner, value);
+            return;
+        }
+        if (!this.converter.accepts(element)) {
+            throw this.converter.mismatch(element);
+        }
+        switch (this.converter.getKind()) {
+            case BOOLEAN -> this.setter.invokeExact(owner, element.getAsBoolean());
+            case BYTE -> this.setter.invokeExact(owner, element.getAsByte());
+            case SHORT -> this.setter.invokeExact(owner, element.getAsShort());
+            case INT -> this.setter.invokeExact(owner, element.getAsInt());
+            case LONG -> this.setter.invokeExact(owner, element.getAsLong());
+            case FLOAT -> this.setter.invokeExact(owner, element.getAsFloat());
+            case DOUBLE -> this.setter.invokeExact(owner, element.getAsDouble());
+            default -> this.setter.invokeExact(owner, this.converter.getAdapter().fromJsonTree(element));
+        }
+    }
+
+    /**
+     * Get the current value of the field
+     *
+     * @param owner the object holding the field or null for a static field
+     * @return the value
+     */
+    @SneakyThrows
+    public Object get(Object owner) {
+        return (Object) this.getter.invokeExact(owner);
+    }
+
+    /**
+     * Serialize the current value of the field
+     *
+     * @param owner the object holding the field or null for a static field
+     * @return the JSON value
+     */
+    public JsonElement toJson(Object owner) {
+        return serialize(get(owner));
+    }
+
+    /**
+     * Serialize a value with the type adapter of the field
+     *
+     * @param value the value
+     * @return the JSON value
+     */
+    public JsonElement serialize(Object value) {
+        return this.converter.serialize(value);
+    }
+}
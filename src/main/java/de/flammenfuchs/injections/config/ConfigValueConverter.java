@@ -0,0 +1,155 @@
+package de.flammenfuchs.injections.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import lombok.Getter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converts the JSON values of a config property to one target type, compiled once per field or parameter<br>
+ * Primitive types and their wrappers are read from the JSON value directly. All other types are deserialized
+ * straight into their generic type by the Gson {@link TypeAdapter} of the type, including nested objects
+ * and collections.
+ */
+public final class ConfigValueConverter {
+
+    @Getter
+    private final String key;
+    @Getter
+    private final Class<?> type;
+    private final Type genericType;
+    private final Kind kind;
+    private final TypeAdapter<Object> adapter;
+
+    private ConfigValueConverter(String key, Class<?> type, Type genericType, Kind kind, TypeAdapter<Object> adapter) {
+        this.key = key;
+        this.type = type;
+        this.genericType = genericType;
+        this.kind = kind;
+        this.adapter = adapter;
+    }
+
+    /**
+     * Compile the converter of a target type
+     *
+     * @param key the key of the property, which is interned
+     * @param type the raw target type
+     * @param genericType the generic target type
+     * @param gson the {@link Gson} instance providing the type adapters
+     * @return the new {@link ConfigValueConverter}
+     */
+    @SuppressWarnings("unchecked")
+    public static ConfigValueConverter of(String key, Class<?> type, Type genericType, Gson gson) {
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(genericType));
+        return new ConfigValueConverter(key.intern(), type, genericType, Kind.of(type), adapter);
+    }
+
+    /**
+     * Convert a JSON value to the target type
+     *
+     * @param element the JSON value
+     * @return the converted value
+     * @throws IllegalArgumentException if the value does not match the target type
+     */
+    public Object convert(JsonElement element) {
+        if (!accepts(element)) {
+            throw mismatch(element);
+        }
+        try {
+            return this.kind == Kind.OTHER || element.isJsonNull() ? this.adapter.fromJsonTree(element)
+                    : this.kind.read(element);
+        } catch (RuntimeException e) {
+            throw mismatch(element);
+        }
+    }
+
+    /**
+     * Serialize a value with the type adapter of the target type
+     *
+     * @param value the value
+     * @return the JSON value
+     */
+    public JsonElement serialize(Object value) {
+        return this.adapter.toJsonTree(value);
+    }
+
+    /**
+     * Check if a JSON value can be converted without looking at nested values
+     *
+     * @param element the JSON value
+     * @return true if the value has the shape of the target type
+     */
+    boolean accepts(JsonElement element) {
+        return this.kind.accepts(element, this.type.isPrimitive());
+    }
+
+    Kind getKind() {
+        return this.kind;
+    }
+
+    TypeAdapter<Object> getAdapter() {
+        return this.adapter;
+    }
+
+    IllegalArgumentException mismatch(JsonElement element) {
+        return new IllegalArgumentException("Type mismatch for key: " + this.key + ". Expected: "
+                + this.genericType.getTypeName() + ", but got: " + element);
+    }
+
+    /**
+     * The primitive types, which are read from a JSON value directly, and all other types
+     */
+    enum Kind {
+        BOOLEAN, BYTE, SHORT, INT, LONG, FLOAT, DOUBLE, OTHER;
+
+        private static Kind of(Class<?> type) {
+            if (type == boolean.class || type == Boolean.class) {
+                return BOOLEAN;
+            } else if (type == byte.class || type == Byte.class) {
+                return BYTE;
+            } else if (type == short.class || type == Short.class) {
+                return SHORT;
+            } else if (type == int.class || type == Integer.class) {
+                return INT;
+            } else if (type == long.class || type == Long.class) {
+                return LONG;
+            } else if (type == float.class || type == Float.class) {
+                return FLOAT;
+            } else if (type == double.class || type == Double.class) {
+                return DOUBLE;
+            }
+            return OTHER;
+        }
+
+        private boolean accepts(JsonElement element, boolean primitive) {
+            if (this == OTHER) {
+                return true;
+            }
+            if (element.isJsonNull()) {
+                return !primitive;
+            }
+            if (!element.isJsonPrimitive()) {
+                return false;
+            }
+            JsonPrimitive value = element.getAsJsonPrimitive();
+            return this == BOOLEAN ? value.isBoolean() : value.isNumber();
+        }
+
+        private Object read(JsonElement element) {
+            return switch (this) {
+                case BOOLEAN -> element.getAsBoolean();
+                case BYTE -> element.getAsByte();
+                case SHORT -> element.getAsShort();
+                case INT -> element.getAsInt();
+                case LONG -> element.getAsLong();
+                case FLOAT -> element.getAsFloat();
+                case DOUBLE -> element.getAsDouble();
+                case OTHER -> throw new IllegalStateException();
+            };
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.flammenfuchs.injections.config;
+
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a config file with a {@link WatchService} and runs an action when it changed<br>
+ * Events are debounced, so an editor writing the file in several steps triggers the action only once.
+ */
+public class ConfigWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final Runnable onChange;
+    private final Logger logger;
+    private final long debounceMillis;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Create a new watcher
+     *
+     * @param file the file to be watched
+     * @param onChange the action to run when the file changed
+     * @param logger the {@link Logger}
+     * @param debounceMillis the time without further events before the action runs
+     */
+    public ConfigWatcher(@NonNull Path file, @NonNull Runnable onChange, @NonNull Logger logger, long debounceMillis) {
+        this.file = file.toAbsolutePath().normalize();
+        this.onChange = onChange;
+        this.logger = logger;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Start watching on a daemon thread named {@code injections-config-watcher}
+     *
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (this.thread != null) {
+            return;
+        }
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "injections-config-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.logger.info(LogLevel.EXTENDED, "Watching config file " + this.file);
+    }
+
+    /**
+     * Stop watching. A running action is completed.
+     */
+    @Override
+    @SneakyThrows
+    public synchronized void close() {
+        if (this.watchService != null) {
+            this.watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                boolean changed = collect(key);
+                while (true) {
+                    key = this.watchService.poll(this.debounceMillis, TimeUnit.MILLISECONDS);
+                    if (key == null) {
+                        break;
+                    }
+                    changed |= collect(key);
+                }
+                if (changed) {
+                    try {
+                        this.onChange.run();
+                    } catch (RuntimeException e) {
+                        this.logger.err("Error while reloading config file " + this.file + ": " + e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // the watcher was closed
+        }
+    }
+
+    /**
+     * Consume the events of a key
+     *
+     * @param key the {@link WatchKey}
+     * @return true if the watched file was affected
+     */
+    private boolean collect(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || this.file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
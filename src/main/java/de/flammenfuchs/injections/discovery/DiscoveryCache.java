@@ -0,0 +1,235 @@
+package de.flammenfuchs.injections.discovery;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of the discovered classes and their bindings for every target.<br>
+ * Each target is stored with a fingerprint of its class directories and jar files (path, size and modification time,
+ * optionally the content). A target is only rebuilt from the cache, if its fingerprint did not change.
+ */
+public class DiscoveryCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final Path path;
+    private final boolean hashContents;
+    private final Logger logger;
+    private final Map<String, CachedTarget> targets;
+    private volatile boolean dirty;
+
+    private DiscoveryCache(Path path, boolean hashContents, Logger logger, Map<String, CachedTarget> targets) {
+        this.path = path;
+        this.hashContents = hashContents;
+        this.logger = logger;
+        this.targets = new ConcurrentHashMap<>(targets);
+    }
+
+    /**
+     * Load the cache from a file. If the file does not exist or can't be read, the cache is empty.
+     *
+     * @param path the path of the cache file
+     * @param hashContents should the content of the files be part of the fingerprints
+     * @param logger the {@link Logger}
+     * @return the loaded {@link DiscoveryCache}
+     */
+    public static DiscoveryCache load(Path path, boolean hashContents, Logger logger) {
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                CacheFile file = GSON.fromJson(reader, CacheFile.class);
+                if (file != null && file.version == FORMAT_VERSION && file.targets != null) {
+                    return new DiscoveryCache(path, hashContents, logger, file.targets);
+                }
+                logger.info(LogLevel.EXTENDED, "Discarded discovery cache " + path + " with an outdated format");
+            } catch (IOException | JsonParseException e) {
+                logger.warn("Failed to read discovery cache " + path + ": " + e.getMessage());
+            }
+        }
+        return new DiscoveryCache(path, hashContents, logger, Map.of());
+    }
+
+    /**
+     * Save the cache, if it was changed since it was loaded. The file is written to a temporary file first
+     * and moved to its location afterwards, so a crash never leaves a partial cache file.
+     */
+    public void save() {
+        if (!this.dirty) {
+            return;
+        }
+        CacheFile file = new CacheFile();
+        file.version = FORMAT_VERSION;
+        file.targets = new TreeMap<>(this.targets);
+        try {
+            Path parent = this.path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, this.path.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(file, writer);
+            }
+            try {
+                Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.dirty = false;
+        } catch (IOException e) {
+            this.logger.warn("Failed to save discovery cache " + this.path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the cached classes of a target
+     *
+     * @param key the key of the target
+     * @param fingerprint the current fingerprint of the target
+     * @return the cached classes or null if the target is not cached or changed
+     */
+    List<CachedClass> get(String key, String fingerprint) {
+        CachedTarget target = this.targets.get(key);
+        if (target == null || fingerprint == null || !fingerprint.equals(target.fingerprint)) {
+            return null;
+        }
+        return target.classes;
+    }
+
+    /**
+     * Put the classes of a target in the cache
+     *
+     * @param key the key of the target
+     * @param fingerprint the current fingerprint of the target
+     * @param classes the discovered classes
+     */
+    void put(String key, String fingerprint, List<CachedClass> classes) {
+        if (fingerprint == null) {
+            return;
+        }
+        CachedTarget target = new CachedTarget();
+        target.fingerprint = fingerprint;
+        target.classes = classes;
+        this.targets.put(key, target);
+        this.dirty = true;
+    }
+
+    /**
+     * Get the key of a target
+     *
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @return the key
+     */
+    static String key(String topPackage, String[] ignoredPackages) {
+        String[] sorted = ignoredPackages.clone();
+        Arrays.sort(sorted);
+        return topPackage + "|" + String.join(",", sorted);
+    }
+
+    /**
+     * Create the fingerprint of a target from all class directories and jar files containing the top package
+     *
+     * @param classLoader the {@link ClassLoader} of the target
+     * @param topPackage the top package
+     * @param signature additional values, which invalidate the cache if they change
+     * @return the fingerprint or null if the target contains classes from unsupported locations
+     */
+    String fingerprint(ClassLoader classLoader, String topPackage, String signature) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, signature);
+            String packagePath = topPackage.replace('.', '/');
+            for (URL root : Collections.list(classLoader.getResources(packagePath))) {
+                update(digest, root.toString());
+                if ("file".equals(root.getProtocol())) {
+                    fingerprintDirectory(digest, Path.of(root.toURI()));
+                } else if ("jar".equals(root.getProtocol())) {
+                    JarURLConnection connection = (JarURLConnection) root.openConnection();
+                    fingerprintFile(digest, Path.of(connection.getJarFileURL().toURI()));
+                } else {
+                    return null;
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            this.logger.warn("Failed to create fingerprint of " + topPackage + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void fingerprintDirectory(MessageDigest digest, Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                update(digest, directory.relativize(file).toString());
+                fingerprintFile(digest, file);
+            }
+        }
+    }
+
+    private void fingerprintFile(MessageDigest digest, Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        if (this.hashContents) {
+            try (InputStream in = Files.newInputStream(file)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static final class CacheFile {
+        private int version;
+        private Map<String, CachedTarget> targets;
+    }
+
+    private static final class CachedTarget {
+        private String fingerprint;
+        private List<CachedClass> classes;
+    }
+
+    /**
+     * A cached class with the bindings of its members
+     */
+    static final class CachedClass {
+        String name;
+        List<Binding> fields = new ArrayList<>();
+        List<Binding> methods = new ArrayList<>();
+        List<Binding> lateMethods = new ArrayList<>();
+    }
+
+    /**
+     * A member bound to the annotation, which selects its processor
+     */
+    static final class Binding {
+        String member;
+        String annotation;
+
+        Binding(String member, String annotation) {
+            this.member = member;
+            this.annotation = annotation;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package de.flammenfuchs.injections.discovery;
+
+import de.flammenfuchs.injections.accessor.FieldAccessor;
+import de.flammenfuchs.injections.annotationProcessor.FieldAnnotationProcessor;
+import de.flammenfuchs.injections.annotationProcessor.MethodAnnotationProcessor;
+import de.flammenfuchs.injections.injector.Injector;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * An immutable plan of all processing steps for the instances of a class.<br>
+ * Plans are created once per class by the {@link InjectionsDiscovery}, so processing further instances
+ * of the same class does not need any reflective lookups.<br>
+ * The step arrays are shared between all users of the plan and must not be modified.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+public class InjectionPlan {
+
+    private final Class<?> type;
+    private final Injector<Object> injector;
+    private final FieldStep[] fields;
+    private final MethodStep[] methods;
+    private final MethodStep[] lateMethods;
+
+    /**
+     * Add all steps of this plan to the given maps
+     *
+     * @param fields the {@link Map} to put the fields in
+     * @param methods the {@link Map} to put the methods in
+     * @param lateMethods the {@link Map} to put the late methods in
+     */
+    void collect(Map<Field, FieldAnnotationProcessor> fields, Map<Method, MethodAnnotationProcessor> methods,
+                 Map<Method, MethodAnnotationProcessor> lateMethods) {
+        for (FieldStep step : this.fields) {
+            fields.put(step.getField(), step.getProcessor());
+        }
+        for (MethodStep step : this.methods) {
+            methods.put(step.getMethod(), step.getProcessor());
+        }
+        for (MethodStep step : this.lateMethods) {
+            lateMethods.put(step.getMethod(), step.getProcessor());
+        }
+    }
+
+    /**
+     * Get the compiled accessor of a field of this plan
+     *
+     * @param field the field
+     * @return the {@link FieldAccessor} or null if the field is not part of this plan
+     */
+    public FieldAccessor getAccessor(Field field) {
+        for (FieldStep step : this.fields) {
+            if (step.field.equals(field)) {
+                return step.accessor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A field with its processor
+     */
+    public static final class FieldStep {
+
+        private final Field field;
+        private final FieldAccessor accessor;
+        private final FieldAnnotationProcessor processor;
+        private final String description;
+
+        FieldStep(Field field, FieldAnnotationProcessor processor) {
+            this.field = field;
+            this.accessor = FieldAccessor.of(field);
+            this.processor = processor;
+            this.description = "Process " + field.getName() + " in " + field.getDeclaringClass().getName();
+        }
+
+        /**
+         * Get the field
+         *
+         * @return the {@link Field}
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * Get the compiled accessor of the field
+         *
+         * @return the {@link FieldAccessor}
+         */
+        public FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        /**
+         * Get the processor of the field
+         *
+         * @return the {@link FieldAnnotationProcessor}
+         */
+        public FieldAnnotationProcessor getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Get a description of this step for logging
+         *
+         * @return the description
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * A method with its processor<br>
+     * Methods handled by the {@link Injector} of the plan keep their position and are invoked through the injector.
+     */
+    public static final class MethodStep {
+
+        private final Method method;
+        private final MethodAnnotationProcessor processor;
+        private final String injectorKey;
+        private final String description;
+
+        MethodStep(Method method, MethodAnnotationProcessor processor, String injectorKey) {
+            this.method = method;
+            this.processor = processor;
+            this.injectorKey = injectorKey;
+            this.description = "Process " + method.getName() + "() in " + method.getDeclaringClass().getName();
+        }
+
+        /**
+         * Get the method
+         *
+         * @return the {@link Method}
+         */
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * Get the processor of the method
+         *
+         * @return the {@link MethodAnnotationProcessor}
+         */
+        public MethodAnnotationProcessor getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Get the key of the method in the {@link Injector} of the plan
+         *
+         * @return the key or null if the method is invoked by its processor
+         * @see Injector#methodKey(Method)
+         */
+        public String getInjectorKey() {
+            return injectorKey;
+        }
+
+        /**
+         * Get a description of this step for logging
+         *
+         * @return the description
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package de.flammenfuchs.injections.discovery;
 
 import de.flammenfuchs.injections.annon.AllowParameters;
+import de.flammenfuchs.injections.annon.Inject;
 import de.flammenfuchs.injections.annotationProcessor.ClassAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.FieldAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.MethodAnnotationProcessor;
+import de.flammenfuchs.injections.index.InjectionsIndex;
+import de.flammenfuchs.injections.injector.Injector;
+import de.flammenfuchs.injections.injector.Injectors;
+import de.flammenfuchs.injections.instrumentation.InjectionsEvent;
+import de.flammenfuchs.injections.instrumentation.Instrumentation;
 import de.flammenfuchs.injections.manager.InjectionsBuilder;
 import de.flammenfuchs.injections.registry.AnnotationRegistry;
+import de.flammenfuchs.javalib.lang.triple.Triple;
 import de.flammenfuchs.javalib.logging.LogLevel;
 import de.flammenfuchs.javalib.logging.Logger;
 import de.flammenfuchs.javalib.reflect.ReflectionUtil;
 import de.flammenfuchs.javalib.reflect.scanner.ClassScanner;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Class to discover all classes, fields and methods to be processed by an Annotation
@@ -30,9 +42,28 @@ public class InjectionsDiscovery {
     private final AnnotationRegistry annotationRegistry;
     private final InjectionsBuilder.ClassScannerSupplier supplier;
     private final Logger logger;
+    private final boolean useIndex;
+    private final boolean useInjectors;
+    private final DiscoveryCache cache;
+
+    private final Map<ClassLoader, Optional<InjectionsIndex>> indexes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CachedBindings> cachedBindings = new ConcurrentHashMap<>();
+    private volatile PlanCache plans = new PlanCache(-1);
+    private Instrumentation instrumentation = Instrumentation.DISABLED;
 
     /**
-     * Start discovery for a target
+     * Set the {@link Instrumentation} to measure the target scans and class filters with
+     *
+     * @param instrumentation the {@link Instrumentation}
+     */
+    public void setInstrumentation(@NonNull Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Start discovery for a target<br>
+     * If every root of the target contains an {@link InjectionsIndex}, only the indexed classes are loaded.
+     * Otherwise, all classes of the target are scanned.
      *
      * @param classLoader the {@link ClassLoader} to search in
      * @param topPackage the top package
@@ -40,15 +71,372 @@ public class InjectionsDiscovery {
      * @return A {@link DiscoveryResult} which contains all discovered values
      */
     public DiscoveryResult discoverTargets(ClassLoader classLoader, String topPackage, String[] ignoredPackages) {
-        ClassScanner scanner = supplier.supply(classLoader, topPackage, ignoredPackages);
-        List<Class<?>> classes = filterClasses(scanner.scan(), classLoader);
-        Map<Field, FieldAnnotationProcessor> fields = filterFields(classes);
-        Map<Method, MethodAnnotationProcessor> methods = filterMethods(classes);
-        Map<Method, MethodAnnotationProcessor> lateMethods = filterLateMethods(classes);
+        return createResult(discoverClasses(classLoader, topPackage, ignoredPackages));
+    }
+
+    /**
+     * Start discovery for multiple targets concurrently<br>
+     * All targets are scanned concurrently first, then the plans of all discovered classes are created concurrently.
+     * The results are in the same order as the targets, so they don't depend on the execution order.
+     *
+     * @param targets the targets with their {@link ClassLoader}, top package and ignored packages
+     * @param executor the {@link Executor} to run the discovery on
+     * @return A {@link List} with one {@link DiscoveryResult} for each target
+     */
+    public List<DiscoveryResult> discoverTargets(List<Triple<ClassLoader, String, String[]>> targets, Executor executor) {
+        List<CompletableFuture<List<Class<?>>>> scans = targets.stream()
+                .map(target -> CompletableFuture.supplyAsync(
+                        () -> discoverClasses(target.a(), target.b(), target.c()), executor))
+                .toList();
+        List<List<Class<?>>> classes = scans.stream().map(this::join).toList();
+
+        List<CompletableFuture<InjectionPlan>> plans = classes.stream()
+                .flatMap(List::stream)
+                .map(clazz -> CompletableFuture.supplyAsync(() -> getPlan(clazz), executor))
+                .toList();
+        plans.forEach(this::join);
+
+        return classes.stream().map(this::createResult).toList();
+    }
+
+    /**
+     * Discover all classes of a target to be processed<br>
+     * If a {@link DiscoveryCache} is used and the target did not change, the classes are loaded from the cache.
+     *
+     * @param classLoader the {@link ClassLoader} to search in
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @return a {@link List} with the filtered classes
+     */
+    private List<Class<?>> discoverClasses(ClassLoader classLoader, String topPackage, String[] ignoredPackages) {
+        return this.instrumentation.measure(InjectionsEvent.Kind.TARGET_SCAN, topPackage,
+                () -> discoverTargetClasses(classLoader, topPackage, ignoredPackages));
+    }
+
+    /**
+     * Discover all classes of a target to be processed, with or without the {@link DiscoveryCache}
+     *
+     * @param classLoader the {@link ClassLoader} to search in
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @return a {@link List} with the filtered classes
+     */
+    private List<Class<?>> discoverTargetClasses(ClassLoader classLoader, String topPackage, String[] ignoredPackages) {
+        if (this.cache == null) {
+            return scanClasses(classLoader, topPackage, ignoredPackages);
+        }
+        String key = DiscoveryCache.key(topPackage, ignoredPackages);
+        String fingerprint = this.cache.fingerprint(classLoader, topPackage, getCacheSignature());
+        List<DiscoveryCache.CachedClass> cachedClasses = this.cache.get(key, fingerprint);
+        if (cachedClasses != null) {
+            List<Class<?>> classes = loadCachedClasses(cachedClasses, classLoader);
+            if (classes != null) {
+                this.logger.info(LogLevel.EXTENDED, "Use discovery cache for target " + topPackage);
+                return filterClasses(classes);
+            }
+        }
+
+        List<Class<?>> classes = scanClasses(classLoader, topPackage, ignoredPackages);
+        this.cache.put(key, fingerprint, classes.stream().map(this::toCachedClass).toList());
+        return classes;
+    }
+
+    /**
+     * Scan all classes of a target to be processed<br>
+     * If all roots of the target have an {@link InjectionsIndex}, the indexed classes are loaded instead.
+     *
+     * @param classLoader the {@link ClassLoader} to search in
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @return a {@link List} with the filtered classes
+     */
+    private List<Class<?>> scanClasses(ClassLoader classLoader, String topPackage, String[] ignoredPackages) {
+        InjectionsIndex index = getIndex(classLoader);
+        if (index != null) {
+            List<String> unindexedRoots = index.findUnindexedRoots(classLoader, topPackage);
+            if (unindexedRoots == null) {
+                this.logger.info(LogLevel.EXTENDED, "Scan target " + topPackage
+                        + ", because the roots of its package can't be determined");
+            } else if (unindexedRoots.isEmpty()) {
+                this.logger.info(LogLevel.EXTENDED, "Use injections index for target " + topPackage);
+                return filterClasses(loadIndexedClasses(index, classLoader, topPackage, ignoredPackages));
+            } else {
+                this.logger.info(LogLevel.EXTENDED, "Scan target " + topPackage
+                        + ", because these roots have no injections index: " + String.join(", ", unindexedRoots));
+            }
+        }
+        ClassScanner scanner = supplier.supply(classLoader, topPackage, ignoredPackages, annotationRegistry);
+        return filterClasses(scanner.scan());
+    }
+
+    /**
+     * Load the classes of a cached target and remember their cached bindings for the creation of their plans
+     *
+     * @param cachedClasses the cached classes
+     * @param classLoader the {@link ClassLoader} to load the classes with
+     * @return the loaded classes or null if a class doesn't exist anymore
+     */
+    private List<Class<?>> loadCachedClasses(List<DiscoveryCache.CachedClass> cachedClasses, ClassLoader classLoader) {
+        int version = this.annotationRegistry.getVersion();
+        List<Class<?>> classes = new ArrayList<>(cachedClasses.size());
+        for (DiscoveryCache.CachedClass cachedClass : cachedClasses) {
+            try {
+                Class<?> clazz = Class.forName(cachedClass.name, false, classLoader);
+                this.cachedBindings.put(clazz, new CachedBindings(version, cachedClass));
+                classes.add(clazz);
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Create the cache entry of a discovered class from its plan
+     *
+     * @param clazz the class
+     * @return the {@link DiscoveryCache.CachedClass}
+     */
+    private DiscoveryCache.CachedClass toCachedClass(Class<?> clazz) {
+        InjectionPlan plan = getPlan(clazz);
+        DiscoveryCache.CachedClass cachedClass = new DiscoveryCache.CachedClass();
+        cachedClass.name = clazz.getName();
+        for (InjectionPlan.FieldStep step : plan.getFields()) {
+            cachedClass.fields.add(new DiscoveryCache.Binding(step.getField().getName(), findAnnotation(
+                    step.getField(), type -> annotationRegistry.getFieldAnnotationProcessor(type) == step.getProcessor())));
+        }
+        for (InjectionPlan.MethodStep step : plan.getMethods()) {
+            cachedClass.methods.add(new DiscoveryCache.Binding(Injector.methodKey(step.getMethod()), findAnnotation(
+                    step.getMethod(), type -> annotationRegistry.getMethodAnnotationProcessor(type) == step.getProcessor())));
+        }
+        for (InjectionPlan.MethodStep step : plan.getLateMethods()) {
+            cachedClass.lateMethods.add(new DiscoveryCache.Binding(Injector.methodKey(step.getMethod()), findAnnotation(
+                    step.getMethod(), type -> annotationRegistry.getLateMethodAnnotationProcessor(type) == step.getProcessor())));
+        }
+        return cachedClass;
+    }
+
+    private String findAnnotation(AnnotatedElement element, Predicate<Class<? extends Annotation>> filter) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (filter.test(annotation.annotationType())) {
+                return annotation.annotationType().getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the signature of the current configuration. The cached targets are invalidated if it changes.
+     *
+     * @return the signature
+     */
+    private String getCacheSignature() {
+        return "injectors=" + this.useInjectors + ";" + String.join(",", this.annotationRegistry.getRegisteredAnnotations());
+    }
+
+    /**
+     * Create the {@link DiscoveryResult} of the given classes from their plans
+     *
+     * @param classes the discovered classes
+     * @return the {@link DiscoveryResult}
+     */
+    private DiscoveryResult createResult(List<Class<?>> classes) {
+        final Map<Field, FieldAnnotationProcessor> fields = new LinkedHashMap<>();
+        final Map<Method, MethodAnnotationProcessor> methods = new LinkedHashMap<>();
+        final Map<Method, MethodAnnotationProcessor> lateMethods = new LinkedHashMap<>();
+        for (var clazz : classes) {
+            getPlan(clazz).collect(fields, methods, lateMethods);
+        }
 
         return new DiscoveryResult(classes, fields, methods, lateMethods);
     }
 
+    /**
+     * Get the {@link InjectionsIndex} of a {@link ClassLoader}. The index is loaded once per {@link ClassLoader}.
+     *
+     * @param classLoader the {@link ClassLoader}
+     * @return the {@link InjectionsIndex} or null if it is disabled or the {@link ClassLoader} has no index
+     */
+    private InjectionsIndex getIndex(ClassLoader classLoader) {
+        if (!this.useIndex || classLoader == null) {
+            return null;
+        }
+        return this.indexes.computeIfAbsent(classLoader, loader -> Optional.ofNullable(InjectionsIndex.load(loader)))
+                .orElse(null);
+    }
+
+    /**
+     * Get the {@link InjectionsIndex} of a {@link ClassLoader}, if it was already loaded while discovering<br>
+     * Plans are created after the discovery too, so the index must not be loaded again here.
+     *
+     * @param classLoader the {@link ClassLoader}
+     * @return the {@link InjectionsIndex} or null if it isn't loaded
+     */
+    private InjectionsIndex getLoadedIndex(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return null;
+        }
+        Optional<InjectionsIndex> index = this.indexes.get(classLoader);
+        return index == null ? null : index.orElse(null);
+    }
+
+    @SneakyThrows
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get the {@link InjectionPlan} of a class<br>
+     * The plan is created once and cached until a new annotation is registered in the {@link AnnotationRegistry}.
+     * Fields handled by a generated {@link Injector} are not part of the plan. Methods handled by it stay at their
+     * position and are invoked through it, so both kinds of methods run in the same order.
+     *
+     * @param clazz the class
+     * @return the {@link InjectionPlan} of the class
+     */
+    public InjectionPlan getPlan(Class<?> clazz) {
+        PlanCache cache = this.plans;
+        int version = this.annotationRegistry.getVersion();
+        if (cache.version != version) {
+            cache = new PlanCache(version);
+            this.plans = cache;
+        }
+        return cache.get(clazz);
+    }
+
+    /**
+     * Drop the state, which is only needed while discovering targets: the indexes of the class loaders
+     * and the bindings loaded from the {@link DiscoveryCache}. The {@link InjectionPlan}s are kept.
+     */
+    public void clearDiscoveryState() {
+        this.indexes.clear();
+        this.cachedBindings.clear();
+    }
+
+    /**
+     * Create the {@link InjectionPlan} of a class
+     *
+     * @param clazz the class
+     * @return the new {@link InjectionPlan}
+     */
+    @SuppressWarnings("unchecked")
+    private InjectionPlan createPlan(Class<?> clazz) {
+        Injector<Object> injector = this.useInjectors ? (Injector<Object>) Injectors.find(clazz) : null;
+        Map<Field, FieldAnnotationProcessor> fields = new LinkedHashMap<>();
+        Map<Method, MethodAnnotationProcessor> methods = new LinkedHashMap<>();
+        Map<Method, MethodAnnotationProcessor> lateMethods = new LinkedHashMap<>();
+        CachedBindings bindings = this.cachedBindings.remove(clazz);
+        if (bindings == null || bindings.version != this.annotationRegistry.getVersion()
+                || !applyCachedBindings(clazz, bindings.cachedClass, fields, methods, lateMethods)) {
+            fields.clear();
+            methods.clear();
+            lateMethods.clear();
+            InjectionsIndex index = getLoadedIndex(clazz.getClassLoader());
+            if (index == null || index.hasAnnotatedMembers(clazz)) {
+                filterFieldInClass(clazz, fields);
+                filterMethodsInClass(clazz, methods);
+                filterLateMethodsInClass(clazz, lateMethods);
+            }
+        }
+
+        InjectionPlan.FieldStep[] fieldSteps = fields.entrySet().stream()
+                .filter(entry -> injector == null || !injector.getInjectedFields().contains(entry.getKey().getName()))
+                .map(entry -> new InjectionPlan.FieldStep(entry.getKey(), entry.getValue()))
+                .toArray(InjectionPlan.FieldStep[]::new);
+        return new InjectionPlan(clazz, injector, fieldSteps, toSteps(methods, injector), toSteps(lateMethods, injector));
+    }
+
+    private InjectionPlan.MethodStep[] toSteps(Map<Method, MethodAnnotationProcessor> methods, Injector<Object> injector) {
+        return methods.entrySet().stream()
+                .map(entry -> new InjectionPlan.MethodStep(entry.getKey(), entry.getValue(),
+                        injectorKey(entry.getKey(), injector)))
+                .toArray(InjectionPlan.MethodStep[]::new);
+    }
+
+    private String injectorKey(Method method, Injector<Object> injector) {
+        if (injector == null) {
+            return null;
+        }
+        String key = Injector.methodKey(method);
+        return injector.getInvokedMethods().contains(key) ? key : null;
+    }
+
+    /**
+     * Resolve the members of a class from its cached bindings
+     *
+     * @param clazz the class
+     * @param cachedClass the cached bindings of the class
+     * @param fields the {@link Map} to put the fields in
+     * @param methods the {@link Map} to put the methods in
+     * @param lateMethods the {@link Map} to put the late methods in
+     * @return false if a member or an annotation of the bindings does not exist anymore
+     */
+    private boolean applyCachedBindings(Class<?> clazz, DiscoveryCache.CachedClass cachedClass,
+                                        Map<Field, FieldAnnotationProcessor> fields,
+                                        Map<Method, MethodAnnotationProcessor> methods,
+                                        Map<Method, MethodAnnotationProcessor> lateMethods) {
+        for (DiscoveryCache.Binding binding : cachedClass.fields) {
+            FieldAnnotationProcessor processor = this.annotationRegistry.getFieldAnnotationProcessor(binding.annotation);
+            if (processor == null) {
+                return false;
+            }
+            try {
+                fields.put(clazz.getDeclaredField(binding.member), processor);
+            } catch (NoSuchFieldException e) {
+                return false;
+            }
+        }
+        if (cachedClass.methods.isEmpty() && cachedClass.lateMethods.isEmpty()) {
+            return true;
+        }
+        Map<String, Method> declaredMethods = new HashMap<>();
+        for (Method method : clazz.getDeclaredMethods()) {
+            declaredMethods.put(Injector.methodKey(method), method);
+        }
+        return applyCachedBindings(cachedClass.methods, declaredMethods, methods,
+                this.annotationRegistry::getMethodAnnotationProcessor)
+                && applyCachedBindings(cachedClass.lateMethods, declaredMethods, lateMethods,
+                this.annotationRegistry::getLateMethodAnnotationProcessor);
+    }
+
+    private boolean applyCachedBindings(List<DiscoveryCache.Binding> bindings, Map<String, Method> declaredMethods,
+                                        Map<Method, MethodAnnotationProcessor> methods,
+                                        Function<String, MethodAnnotationProcessor> processors) {
+        for (DiscoveryCache.Binding binding : bindings) {
+            Method method = declaredMethods.get(binding.member);
+            MethodAnnotationProcessor processor = processors.apply(binding.annotation);
+            if (method == null || processor == null) {
+                return false;
+            }
+            methods.put(method, processor);
+        }
+        return true;
+    }
+
+    /**
+     * Load all classes of a target, which are indexed with a registered class annotation
+     *
+     * @param index the {@link InjectionsIndex} of the {@link ClassLoader}
+     * @param classLoader the {@link ClassLoader} to load the classes with
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @return a {@link List} with the loaded classes
+     */
+    @SneakyThrows
+    private List<Class<?>> loadIndexedClasses(InjectionsIndex index, ClassLoader classLoader,
+                                              String topPackage, String[] ignoredPackages) {
+        final List<Class<?>> loaded = new ArrayList<>();
+        for (String className : index.findClasses(topPackage, ignoredPackages,
+                annotation -> isClassAnnotation(annotation, classLoader))) {
+            loaded.add(Class.forName(className, false, classLoader));
+        }
+        return loaded;
+    }
+
     /**
      * Start discovery for a single object
      *
@@ -56,70 +444,115 @@ public class InjectionsDiscovery {
      * @return A {@link DiscoveryResult} which contains all discovered values
      */
     public DiscoveryResult discoveryFromObject(Object object) {
-        Map<Field, FieldAnnotationProcessor> fields = new HashMap<>();
-        Map<Method, MethodAnnotationProcessor> methods = new HashMap<>();
-        Map<Method, MethodAnnotationProcessor> lateMethods = new HashMap<>();
-        filterFieldInClass(object.getClass(), fields);
-        filterMethodsInClass(object.getClass(), methods);
-        filterLateMethodsInClass(object.getClass(), lateMethods);
+        Map<Field, FieldAnnotationProcessor> fields = new LinkedHashMap<>();
+        Map<Method, MethodAnnotationProcessor> methods = new LinkedHashMap<>();
+        Map<Method, MethodAnnotationProcessor> lateMethods = new LinkedHashMap<>();
+        getPlan(object.getClass()).collect(fields, methods, lateMethods);
 
         return new DiscoveryResult(List.of(object.getClass()), fields, methods, lateMethods);
     }
 
     /**
-     * Filter all annotated classes
+     * Filter all annotated classes<br>
+     * Classes are also discovered, if one of their annotations is annotated with a registered class annotation.
      *
      * @param classes {@link List} with all classes to be filtered
-     * @param classLoader the {@link ClassLoader} of the classes to be filtered
      * @return a new {@link List} only containing the filtered classes
      */
-    @SneakyThrows
-    private List<Class<?>> filterClasses(List<Class<?>> classes, ClassLoader classLoader) {
+    private List<Class<?>> filterClasses(List<Class<?>> classes) {
         final List<Class<?>> filtered = new ArrayList<>();
         for (var clazz : classes) {
-            for (Annotation annotation : clazz.getAnnotations()) {
-                ClassAnnotationProcessor processor = annotationRegistry.getClassAnnotationProcessor(annotation.annotationType());
-                if (processor == null) {
-                    continue;
-                }
-                if (processor.processClass(clazz)) {
-                    if (isClassValid(clazz)) {
-                        this.logger.info(LogLevel.EXTENDED, "Discovered " + clazz.getName());
-                        filtered.add(classLoader.loadClass(clazz.getName()));
-                    }
-                }
-                break;
+            if (this.instrumentation.measure(InjectionsEvent.Kind.CLASS_FILTER, clazz, () -> filterClass(clazz))) {
+                this.logger.info(LogLevel.EXTENDED, "Discovered " + clazz.getName());
+                filtered.add(clazz);
             }
         }
         return filtered;
     }
 
     /**
-     * Check if a class is valid
+     * Check if a class is annotated with a registered class annotation, which accepts it, and if it is valid
      *
      * @param clazz the class to be checked
-     * @return true if the class is valid
+     * @return true if the class is discovered
      */
-    private boolean isClassValid(Class<?> clazz) {
-        if (!ReflectionUtil.hasEmptyConstructor(clazz)) {
-            logger.warn("Missing empty constructor for " + clazz.getName() + ". Skipped this class.");
-            return false;
+    private boolean filterClass(Class<?> clazz) {
+        for (Annotation annotation : clazz.getAnnotations()) {
+            ClassAnnotationProcessor processor = findClassAnnotationProcessor(annotation.annotationType(),
+                    new HashSet<>());
+            if (processor != null) {
+                return processor.processClass(clazz) && isClassValid(clazz);
+            }
         }
-        return true;
+        return false;
     }
 
     /**
-     * Filter all fields
+     * Find the {@link ClassAnnotationProcessor} of an annotation or of one of its meta-annotations
      *
-     * @param classes A {@link List} with all classes to search in
-     * @return A {@link Map} with the filtered {@link Field} as key and the corresponding processor as value
+     * @param annotationType the type of the annotation
+     * @param visited all annotation types which were already checked
+     * @return the {@link ClassAnnotationProcessor} or null if the annotation is not registered
      */
-    private Map<Field, FieldAnnotationProcessor> filterFields(List<Class<?>> classes) {
-        final Map<Field, FieldAnnotationProcessor> filtered = new HashMap<>();
-        classes.forEach(clazz -> filterFieldInClass(clazz, filtered));
-        return filtered;
+    private ClassAnnotationProcessor findClassAnnotationProcessor(Class<? extends Annotation> annotationType,
+                                                                  Set<Class<?>> visited) {
+        ClassAnnotationProcessor processor = annotationRegistry.getClassAnnotationProcessor(annotationType);
+        if (processor != null || !visited.add(annotationType)) {
+            return processor;
+        }
+        for (Annotation metaAnnotation : annotationType.getAnnotations()) {
+            if (metaAnnotation.annotationType().getName().startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            processor = findClassAnnotationProcessor(metaAnnotation.annotationType(), visited);
+            if (processor != null) {
+                return processor;
+            }
+        }
+        return null;
     }
 
+    /**
+     * Check if an annotation is a registered class annotation or annotated with one
+     *
+     * @param annotation the name of the annotation
+     * @param classLoader the {@link ClassLoader} to load the annotation with
+     * @return true if the annotation is a class annotation
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isClassAnnotation(String annotation, ClassLoader classLoader) {
+        if (annotationRegistry.getClassAnnotationProcessor(annotation) != null) {
+            return true;
+        }
+        try {
+            Class<?> annotationType = Class.forName(annotation, false, classLoader);
+            return annotationType.isAnnotation() && findClassAnnotationProcessor(
+                    (Class<? extends Annotation>) annotationType, new HashSet<>()) != null;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if a class is valid
+     *
+     * @param clazz the class to be checked
+     * @return true if the class is valid
+     */
+    private boolean isClassValid(Class<?> clazz) {
+        long injectConstructors = Arrays.stream(clazz.getDeclaredConstructors())
+                .filter(constructor -> constructor.isAnnotationPresent(Inject.class))
+                .count();
+        if (injectConstructors > 1) {
+            logger.warn("Multiple @Inject constructors for " + clazz.getName() + ". Skipped this class.");
+            return false;
+        }
+        if (injectConstructors == 0 && !ReflectionUtil.hasEmptyConstructor(clazz)) {
+            logger.warn("Missing empty constructor for " + clazz.getName() + ". Skipped this class.");
+            return false;
+        }
+        return true;
+    }
 
     /**
      * Filter all fields in a class
@@ -141,18 +574,6 @@ public class InjectionsDiscovery {
         }
     }
 
-    /**
-     * Filter all methods
-     *
-     * @param classes A {@link List} with all classes to search in
-     * @return A {@link Map} with the filtered {@link Method} as key and the corresponding processor as value
-     */
-    private Map<Method, MethodAnnotationProcessor> filterMethods(List<Class<?>> classes) {
-        final Map<Method, MethodAnnotationProcessor> filtered = new HashMap<>();
-        classes.forEach(clazz -> filterMethodsInClass(clazz, filtered));
-        return filtered;
-    }
-
     /**
      * Filter all methods in a class
      *
@@ -180,18 +601,6 @@ public class InjectionsDiscovery {
         }
     }
 
-    /**
-     * Filter all late methods
-     *
-     * @param classes A {@link List} with all classes to search in
-     * @return A {@link Map} with the filtered {@link Method} as key and the corresponding processor as value
-     */
-    private Map<Method, MethodAnnotationProcessor> filterLateMethods(List<Class<?>> classes) {
-        final Map<Method, MethodAnnotationProcessor> filtered = new HashMap<>();
-        classes.forEach(clazz -> filterLateMethodsInClass(clazz, filtered));
-        return filtered;
-    }
-
     /**
      * Filter all late methods in a class
      *
@@ -218,4 +627,32 @@ public class InjectionsDiscovery {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A cache of {@link InjectionPlan plans} for one version of the {@link AnnotationRegistry}
+     */
+    private static final class CachedBindings {
+
+        private final int version;
+        private final DiscoveryCache.CachedClass cachedClass;
+
+        private CachedBindings(int version, DiscoveryCache.CachedClass cachedClass) {
+            this.version = version;
+            this.cachedClass = cachedClass;
+        }
+    }
+
+    private final class PlanCache extends ClassValue<InjectionPlan> {
+
+        private final int version;
+
+        private PlanCache(int version) {
+            this.version = version;
+        }
+
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return createPlan(type);
+        }
+    }
+}
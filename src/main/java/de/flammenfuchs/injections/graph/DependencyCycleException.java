@@ -0,0 +1,36 @@
+package de.flammenfuchs.injections.graph;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown if the nodes of a {@link DependencyGraph} depend on each other in a cycle
+ */
+public class DependencyCycleException extends RuntimeException {
+
+    private final List<?> cycle;
+
+    /**
+     * Create a new exception
+     *
+     * @param cycle the nodes of the cycle, starting and ending with the same node
+     */
+    public DependencyCycleException(List<?> cycle) {
+        super("Dependency cycle detected: " + cycle.stream().map(DependencyCycleException::describe)
+                .collect(Collectors.joining(" -> ")));
+        this.cycle = List.copyOf(cycle);
+    }
+
+    /**
+     * Get the nodes of the cycle
+     *
+     * @return a {@link List} with the nodes, starting and ending with the same node
+     */
+    public List<?> getCycle() {
+        return cycle;
+    }
+
+    private static String describe(Object node) {
+        return node instanceof Class<?> clazz ? clazz.getName() : String.valueOf(node);
+    }
+}
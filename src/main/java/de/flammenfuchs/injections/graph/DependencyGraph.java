@@ -0,0 +1,186 @@
+package de.flammenfuchs.injections.graph;
+
+import lombok.SneakyThrows;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A directed acyclic graph of nodes and their dependencies.<br>
+ * The order of the nodes is stable: independent nodes keep the order in which they were added.
+ *
+ * @param <T> the type of the nodes
+ */
+public class DependencyGraph<T> {
+
+    private final Map<T, Set<T>> dependencies = new LinkedHashMap<>();
+
+    /**
+     * Add a node without dependencies. Adding an existing node does nothing.
+     *
+     * @param node the node
+     */
+    public void addNode(T node) {
+        this.dependencies.computeIfAbsent(node, key -> new LinkedHashSet<>());
+    }
+
+    /**
+     * Add a dependency of a node. Both nodes are added if they are missing.
+     *
+     * @param node the dependent node
+     * @param dependency the node which has to be handled before the dependent node
+     */
+    public void addDependency(T node, T dependency) {
+        addNode(node);
+        addNode(dependency);
+        this.dependencies.get(node).add(dependency);
+    }
+
+    /**
+     * Remove a dependency of a node. The nodes stay in the graph.
+     *
+     * @param node the dependent node
+     * @param dependency the node which does not have to be handled before the dependent node anymore
+     */
+    public void removeDependency(T node, T dependency) {
+        Set<T> nodeDependencies = this.dependencies.get(node);
+        if (nodeDependencies != null) {
+            nodeDependencies.remove(dependency);
+        }
+    }
+
+    /**
+     * Get all nodes in the order they were added
+     *
+     * @return an unmodifiable {@link Set} with all nodes
+     */
+    public Set<T> getNodes() {
+        return Collections.unmodifiableSet(this.dependencies.keySet());
+    }
+
+    /**
+     * Get the direct dependencies of a node
+     *
+     * @param node the node
+     * @return an unmodifiable {@link Set} with the dependencies
+     */
+    public Set<T> getDependencies(T node) {
+        return Collections.unmodifiableSet(this.dependencies.getOrDefault(node, Set.of()));
+    }
+
+    /**
+     * Sort all nodes, so every node is placed after all of its dependencies
+     *
+     * @return a {@link List} with all nodes in topological order
+     * @throws DependencyCycleException if the nodes have a cyclic dependency
+     */
+    public List<T> sort() {
+        Map<T, Integer> remaining = new HashMap<>();
+        Map<T, List<T>> dependents = new HashMap<>();
+        for (Map.Entry<T, Set<T>> entry : this.dependencies.entrySet()) {
+            remaining.put(entry.getKey(), entry.getValue().size());
+            for (T dependency : entry.getValue()) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        Deque<T> ready = new ArrayDeque<>();
+        this.dependencies.keySet().stream().filter(node -> remaining.get(node) == 0).forEach(ready::add);
+        List<T> sorted = new ArrayList<>(this.dependencies.size());
+        while (!ready.isEmpty()) {
+            T node = ready.poll();
+            sorted.add(node);
+            for (T dependent : dependents.getOrDefault(node, List.of())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted.size() != this.dependencies.size()) {
+            throw new DependencyCycleException(findCycle(remaining));
+        }
+        return sorted;
+    }
+
+    /**
+     * Run an action for every node after the action completed for all of its dependencies.<br>
+     * With an {@link Executor}, independent nodes are handled in parallel. Without one, all nodes are handled
+     * on the current thread in topological order. If an action fails, the failure is rethrown immediately:
+     * its dependents and all actions, which did not start yet, are skipped, running actions are not awaited.
+     *
+     * @param action the action
+     * @param executor the {@link Executor} or null to run the actions on the current thread
+     * @throws DependencyCycleException if the nodes have a cyclic dependency
+     */
+    @SneakyThrows
+    public void execute(Consumer<T> action, Executor executor) {
+        List<T> sorted = sort();
+        if (executor == null) {
+            sorted.forEach(action);
+            return;
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Map<T, CompletableFuture<Void>> futures = new HashMap<>();
+        for (T node : sorted) {
+            CompletableFuture<?>[] required = this.dependencies.get(node).stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> future = CompletableFuture.allOf(required).thenRunAsync(() -> {
+                if (!result.isDone()) {
+                    action.accept(node);
+                }
+            }, executor);
+            future.whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(unwrap(throwable));
+                }
+            });
+            futures.put(node, future);
+        }
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(unwrap(throwable));
+                    } else {
+                        result.complete(null);
+                    }
+                });
+
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * Find a cycle in the nodes, which could not be sorted
+     *
+     * @param remaining the number of unhandled dependencies of each node
+     * @return the nodes of a cycle, starting and ending with the same node
+     */
+    private List<T> findCycle(Map<T, Integer> remaining) {
+        T start = this.dependencies.keySet().stream().filter(node -> remaining.get(node) > 0).findFirst().orElseThrow();
+        List<T> path = new ArrayList<>();
+        Map<T, Integer> positions = new HashMap<>();
+        T current = start;
+        while (!positions.containsKey(current)) {
+            positions.put(current, path.size());
+            path.add(current);
+            current = this.dependencies.get(current).stream()
+                    .filter(dependency -> remaining.get(dependency) > 0)
+                    .findFirst().orElseThrow();
+        }
+        List<T> cycle = new ArrayList<>(path.subList(positions.get(current), path.size()));
+        cycle.add(current);
+        return cycle;
+    }
+}
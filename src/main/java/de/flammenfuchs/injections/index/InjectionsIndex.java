@@ -0,0 +1,235 @@
+package de.flammenfuchs.injections.index;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An index of all annotated classes, written by the {@link InjectionsIndexProcessor} at compile time.<br>
+ * Every line of the index file has the format {@code <element> <annotation>[,<annotation>...]}, where the element
+ * is either the binary name of a class, or a member of a class ({@code Class#field} or {@code Class#method(types)}).<br>
+ * Each index file only covers the classes of its own root, the directory or jar it is located in.
+ * Use {@link #findUnindexedRoots(ClassLoader, String)} to find the roots of a target, which are not covered.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class InjectionsIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/injections/index";
+
+    private final Map<String, IndexedClass> classes;
+    private final Set<String> roots;
+
+    /**
+     * Load the index of a {@link ClassLoader}
+     *
+     * @param classLoader the {@link ClassLoader} to search the index files in
+     * @return the merged index of all found index files or null if there is no index file
+     */
+    @SneakyThrows
+    public static InjectionsIndex load(ClassLoader classLoader) {
+        Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        Map<String, IndexedClass> classes = new LinkedHashMap<>();
+        Set<String> roots = new HashSet<>();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            roots.add(root(url.toString(), INDEX_LOCATION));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parseLine(line.trim(), classes);
+                }
+            }
+        }
+        return new InjectionsIndex(classes, roots);
+    }
+
+    /**
+     * Parse the lines of an index file
+     *
+     * @param lines the lines
+     * @return a {@link Map} with the binary name of each indexed class as key and its lines as value
+     */
+    static Map<String, List<String>> parseEntries(List<String> lines) {
+        Map<String, List<String>> entries = new LinkedHashMap<>();
+        for (String line : lines) {
+            line = line.trim();
+            int separator = line.indexOf(' ');
+            if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+                continue;
+            }
+            String element = line.substring(0, separator);
+            int memberSeparator = element.indexOf('#');
+            String className = memberSeparator < 0 ? element : element.substring(0, memberSeparator);
+            entries.computeIfAbsent(className, name -> new ArrayList<>()).add(line);
+        }
+        return entries;
+    }
+
+    /**
+     * Get the root of a resource, e.g. {@code jar:file:/app.jar!/} for {@code jar:file:/app.jar!/com/example}
+     *
+     * @param url the URL of the resource
+     * @param path the path of the resource in its root
+     * @return the URL of the root
+     */
+    private static String root(String url, String path) {
+        if (path.isEmpty()) {
+            return url;
+        }
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith(path) ? url.substring(0, url.length() - path.length()) : url;
+    }
+
+    private static void parseLine(String line, Map<String, IndexedClass> classes) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        int separator = line.indexOf(' ');
+        if (separator < 0) {
+            return;
+        }
+        String element = line.substring(0, separator);
+        Set<String> annotations = new LinkedHashSet<>(Arrays.asList(line.substring(separator + 1).trim().split(",")));
+        int memberSeparator = element.indexOf('#');
+        if (memberSeparator < 0) {
+            classes.computeIfAbsent(element, IndexedClass::new).annotations.addAll(annotations);
+        } else {
+            classes.computeIfAbsent(element.substring(0, memberSeparator), IndexedClass::new)
+                    .members.put(element.substring(memberSeparator + 1), annotations);
+        }
+    }
+
+    /**
+     * Find all indexed classes of a target
+     *
+     * @param topPackage the top package
+     * @param ignoredPackages all packages to be ignored
+     * @param annotationFilter a filter for the names of the class annotations
+     * @return the names of all classes in the target, which have at least one annotation matching the filter
+     */
+    public List<String> findClasses(String topPackage, String[] ignoredPackages, Predicate<String> annotationFilter) {
+        List<String> found = new ArrayList<>();
+        for (IndexedClass indexed : classes.values()) {
+            if (isInPackage(indexed.name, topPackage) && !isIgnored(indexed.name, ignoredPackages)
+                    && indexed.annotations.stream().anyMatch(annotationFilter)) {
+                found.add(indexed.name);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find the roots, which contain classes of a target but no index file<br>
+     * Their classes are not part of this index, so they have to be scanned.
+     * The roots are found by the directory of the top package, so jars built without directory entries can't be
+     * found. If no root is found at all, null is returned and the whole target has to be scanned.
+     *
+     * @param classLoader the {@link ClassLoader} of the target
+     * @param topPackage the top package
+     * @return the URLs of the roots without an index file or null if the roots of the target can't be determined
+     */
+    @SneakyThrows
+    public List<String> findUnindexedRoots(ClassLoader classLoader, String topPackage) {
+        String path = topPackage.replace('.', '/');
+        List<String> unindexed = new ArrayList<>();
+        Enumeration<URL> resources = classLoader.getResources(path);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        while (resources.hasMoreElements()) {
+            String root = root(resources.nextElement().toString(), path);
+            if (!this.roots.contains(root)) {
+                unindexed.add(root);
+            }
+        }
+        return unindexed;
+    }
+
+    /**
+     * Check if a class has annotated fields or methods
+     *
+     * @param clazz the class to be checked
+     * @return false if the class is indexed without any annotated member, true otherwise
+     */
+    public boolean hasAnnotatedMembers(Class<?> clazz) {
+        IndexedClass indexed = this.classes.get(clazz.getName());
+        return indexed == null || !indexed.members.isEmpty();
+    }
+
+    /**
+     * Get an indexed class
+     *
+     * @param className the binary name of the class
+     * @return the {@link IndexedClass} or null if the class is not indexed
+     */
+    public IndexedClass getIndexedClass(String className) {
+        return this.classes.get(className);
+    }
+
+    private boolean isInPackage(String className, String topPackage) {
+        return topPackage.isEmpty() || className.startsWith(topPackage + ".");
+    }
+
+    private boolean isIgnored(String className, String[] ignoredPackages) {
+        for (String ignored : ignoredPackages) {
+            if (className.startsWith(ignored + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A class in the index with its annotations and annotated members
+     */
+    public static class IndexedClass {
+
+        private final String name;
+        private final Set<String> annotations = new LinkedHashSet<>();
+        private final Map<String, Set<String>> members = new LinkedHashMap<>();
+
+        private IndexedClass(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Get the binary name of the class
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the names of all class annotations
+         *
+         * @return an unmodifiable {@link Set} with the annotation names
+         */
+        public Set<String> getAnnotations() {
+            return Collections.unmodifiableSet(annotations);
+        }
+
+        /**
+         * Get all annotated members
+         *
+         * @return an unmodifiable {@link Map} with the member as key and its annotation names as value
+         */
+        public Map<String, Set<String>> getMembers() {
+            return Collections.unmodifiableMap(members);
+        }
+    }
+}
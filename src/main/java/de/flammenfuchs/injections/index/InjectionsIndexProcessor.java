@@ -0,0 +1,174 @@
+package de.flammenfuchs.injections.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An annotation processor which writes the {@link InjectionsIndex} of all compiled classes to
+ * {@value InjectionsIndex#INDEX_LOCATION}.<br>
+ * All classes with runtime annotations and their annotated fields and methods are indexed, so custom annotations
+ * registered in the {@link de.flammenfuchs.injections.registry.AnnotationRegistry} can be discovered with the index too.
+ * On incremental compilations, the entries of the existing index are kept for all classes, which were not compiled
+ * again and still exist.<br>
+ * Since every compiled class is inspected, the processor is not registered as a service and has to be enabled
+ * explicitly, e.g. with {@code -processor de.flammenfuchs.injections.index.InjectionsIndexProcessor}.
+ */
+@SupportedAnnotationTypes("*")
+public class InjectionsIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, String> entries = new LinkedHashMap<>();
+    private final Set<String> compiledClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement type) {
+                indexType(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index a type and all of its nested types
+     *
+     * @param type the type to be indexed
+     */
+    private void indexType(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        this.compiledClasses.add(className);
+        if (type.getKind() == ElementKind.CLASS) {
+            String classAnnotations = runtimeAnnotations(type);
+            if (!classAnnotations.isEmpty()) {
+                this.entries.put(className, classAnnotations);
+            }
+        }
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement nested) {
+                indexType(nested);
+                continue;
+            }
+            if (type.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            String memberAnnotations = runtimeAnnotations(member);
+            if (memberAnnotations.isEmpty()) {
+                continue;
+            }
+            if (member.getKind() == ElementKind.FIELD) {
+                this.entries.put(className + "#" + member.getSimpleName(), memberAnnotations);
+            } else if (member.getKind() == ElementKind.METHOD) {
+                this.entries.put(className + "#" + member.getSimpleName() +
+                        "(" + parameterTypes((ExecutableElement) member) + ")", memberAnnotations);
+            }
+        }
+    }
+
+    /**
+     * Get all annotations with {@link RetentionPolicy#RUNTIME} of an element
+     *
+     * @param element the annotated element
+     * @return the comma separated names of the annotations or an empty string if there is none
+     */
+    private String runtimeAnnotations(Element element) {
+        List<String> names = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                names.add(processingEnv.getElementUtils().getBinaryName(annotationType).toString());
+            }
+        }
+        return String.join(",", names);
+    }
+
+    private String parameterTypes(ExecutableElement method) {
+        return method.getParameters().stream()
+                .map(parameter -> processingEnv.getTypeUtils().erasure(parameter.asType()).toString())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Write all collected entries and the kept entries of the existing index to the index file
+     */
+    private void writeIndex() {
+        List<String> keptLines = readKeptLines();
+        if (this.entries.isEmpty() && keptLines == null) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", InjectionsIndex.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                if (keptLines != null) {
+                    for (String line : keptLines) {
+                        writer.write(line + "\n");
+                    }
+                }
+                for (Map.Entry<String, String> entry : this.entries.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write injections index: " + e.getMessage());
+        }
+        this.entries.clear();
+        this.compiledClasses.clear();
+    }
+
+    /**
+     * Read the lines of an existing index, which belong to classes not compiled again<br>
+     * Lines of classes, which don't exist anymore, are dropped.
+     *
+     * @return the kept lines or null if there is no existing index
+     */
+    private List<String> readKeptLines() {
+        List<String> lines;
+        try {
+            FileObject existing = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", InjectionsIndex.INDEX_LOCATION);
+            lines = existing.getCharContent(true).toString().lines().toList();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        List<String> kept = new ArrayList<>();
+        InjectionsIndex.parseEntries(lines).forEach((className, classLines) -> {
+            if (!this.compiledClasses.contains(className) && exists(className)) {
+                kept.addAll(classLines);
+            }
+        });
+        return kept;
+    }
+
+    private boolean exists(String binaryName) {
+        return processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+}
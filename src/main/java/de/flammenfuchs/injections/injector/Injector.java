@@ -0,0 +1,79 @@
+package de.flammenfuchs.injections.injector;
+
+import de.flammenfuchs.injections.registry.DependencyRegistry;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An injector generated by the {@link InjectorProcessor} for a {@link de.flammenfuchs.injections.annon.Scoped} class.<br>
+ * It instantiates the class, injects its {@link de.flammenfuchs.injections.annon.Inject} fields and invokes its
+ * {@link de.flammenfuchs.injections.annon.Startup} and {@link de.flammenfuchs.injections.annon.LateStartup} methods
+ * without reflection. All other annotated members are still processed by their annotation processors.
+ *
+ * @param <T> the type of the injected class
+ */
+public interface Injector<T> {
+
+    /**
+     * The suffix of the generated injector classes
+     */
+    String SUFFIX = "_Injector";
+
+    /**
+     * Create a new instance with the empty constructor
+     *
+     * @return the new instance
+     */
+    T newInstance();
+
+    /**
+     * Inject all handled fields
+     *
+     * @param instance the instance to be injected
+     * @param dependencyRegistry the {@link DependencyRegistry} to resolve the values from
+     */
+    void injectFields(T instance, DependencyRegistry dependencyRegistry);
+
+    /**
+     * Invoke a handled startup or late startup method<br>
+     * The methods are invoked one by one at their position in the discovered methods, so they run in the same
+     * order as the reflectively invoked methods, including the order of {@link de.flammenfuchs.injections.annon.DependsOn}.
+     *
+     * @param instance the instance holding the method
+     * @param method the key of the method
+     * @param dependencyRegistry the {@link DependencyRegistry} to resolve the parameters from
+     * @throws IllegalArgumentException if the method is not handled by this injector
+     * @see #methodKey(Method)
+     */
+    void invokeMethod(T instance, String method, DependencyRegistry dependencyRegistry);
+
+    /**
+     * Get the names of all fields handled by this injector
+     *
+     * @return a {@link Set} with the field names
+     */
+    Set<String> getInjectedFields();
+
+    /**
+     * Get the keys of all methods handled by this injector
+     *
+     * @return a {@link Set} with the method keys
+     * @see #methodKey(Method)
+     */
+    Set<String> getInvokedMethods();
+
+    /**
+     * Get the key of a method, which is used in {@link #getInvokedMethods()}
+     *
+     * @param method the method
+     * @return the key in the format {@code name(type,type)}
+     */
+    static String methodKey(Method method) {
+        return method.getName() + "(" + Arrays.stream(method.getParameterTypes())
+                .map(Class::getCanonicalName)
+                .collect(Collectors.joining(",")) + ")";
+    }
+}
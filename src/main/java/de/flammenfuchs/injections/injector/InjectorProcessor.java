@@ -0,0 +1,271 @@
+package de.flammenfuchs.injections.injector;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An annotation processor which generates an {@link Injector} for every {@link de.flammenfuchs.injections.annon.Scoped}
+ * class.<br>
+ * The generation is optional and has to be enabled with the compiler option {@code -Ainjections.generateInjectors=true}.
+ * Only members which are accessible from the package of the class and only annotated with one of
+ * {@code @Inject}, {@code @Startup} or {@code @LateStartup} are handled by the injector. Methods with annotated
+ * parameters, e.g. {@code @ConfigProperty}, are left to the reflective invocation, which resolves their parameters
+ * with the registered {@link de.flammenfuchs.injections.annotationProcessor.ParameterAnnotationProcessor}.
+ * Methods declaring checked exceptions are left to the reflective invocation too.
+ */
+@SupportedAnnotationTypes(InjectorProcessor.SCOPED)
+@SupportedOptions(InjectorProcessor.OPTION)
+public class InjectorProcessor extends AbstractProcessor {
+
+    public static final String OPTION = "injections.generateInjectors";
+
+    static final String SCOPED = "de.flammenfuchs.injections.annon.Scoped";
+    private static final String INJECT = "de.flammenfuchs.injections.annon.Inject";
+    private static final String STARTUP = "de.flammenfuchs.injections.annon.Startup";
+    private static final String LATE_STARTUP = "de.flammenfuchs.injections.annon.LateStartup";
+    private static final String PROVIDER = "de.flammenfuchs.injections.registry.Provider";
+    private static final String REGISTRY = "de.flammenfuchs.injections.registry.DependencyRegistry";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(OPTION))) {
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                if (isConstructable(type)) {
+                    generateInjector(type);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a class can be instantiated from a class in the same package
+     *
+     * @param type the class to be checked
+     * @return true if the class has an accessible empty constructor and no {@code @Inject} constructor
+     */
+    private boolean isConstructable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            TypeElement currentType = (TypeElement) current;
+            if (currentType.getModifiers().contains(Modifier.PRIVATE)
+                    || currentType.getNestingKind() == NestingKind.MEMBER
+                    && !currentType.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        if (constructors.stream().anyMatch(constructor -> hasAnnotation(constructor, INJECT))) {
+            return false;
+        }
+        return constructors.stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    /**
+     * Generate the injector source file for a class
+     *
+     * @param type the class
+     */
+    private void generateInjector(TypeElement type) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String injectorName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                + Injector.SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+
+        List<VariableElement> fields = new ArrayList<>();
+        List<ExecutableElement> methods = new ArrayList<>();
+        List<ExecutableElement> lateMethods = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (isOnlyAnnotatedWith(field, INJECT) && isAccessible(field)
+                    && !field.getModifiers().contains(Modifier.FINAL) && isResolvable(field.asType())) {
+                fields.add(field);
+            }
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!isAccessible(method) || throwsCheckedException(method) || !method.getParameters().stream()
+                    .allMatch(p -> p.getAnnotationMirrors().isEmpty() && isResolvable(p.asType()))) {
+                continue;
+            }
+            if (isOnlyAnnotatedWith(method, STARTUP)) {
+                methods.add(method);
+            } else if (isOnlyAnnotatedWith(method, LATE_STARTUP)) {
+                lateMethods.add(method);
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(injectorName)
+                .append(" implements ").append(Injector.class.getName()).append("<").append(typeName).append("> {\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(typeName).append(" newInstance() {\n")
+                .append("        return new ").append(typeName).append("();\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public void injectFields(").append(typeName).append(" instance, ")
+                .append(REGISTRY).append(" registry) {\n");
+        for (VariableElement field : fields) {
+            source.append("        instance.").append(field.getSimpleName()).append(" = ")
+                    .append(resolve(field.asType())).append(";\n");
+        }
+        source.append("    }\n\n");
+        appendInvocations(source, typeName, Stream.concat(methods.stream(), lateMethods.stream()).toList());
+        source.append("    @Override\n")
+                .append("    public java.util.Set<String> getInjectedFields() {\n")
+                .append("        return java.util.Set.of(")
+                .append(fields.stream().map(field -> "\"" + field.getSimpleName() + "\"")
+                        .collect(Collectors.joining(", ")))
+                .append(");\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.Set<String> getInvokedMethods() {\n")
+                .append("        return java.util.Set.of(")
+                .append(Stream.concat(methods.stream(), lateMethods.stream())
+                        .map(method -> "\"" + methodKey(method) + "\"")
+                        .collect(Collectors.joining(", ")))
+                .append(");\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                    (packageName.isEmpty() ? "" : packageName + ".") + injectorName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate injector: " + e.getMessage(), type);
+        }
+    }
+
+    private void appendInvocations(StringBuilder source, String typeName, List<ExecutableElement> methods) {
+        source.append("    @Override\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public void invokeMethod(").append(typeName).append(" instance, String method, ")
+                .append(REGISTRY).append(" registry) {\n")
+                .append("        switch (method) {\n");
+        for (ExecutableElement method : methods) {
+            source.append("            case \"").append(methodKey(method)).append("\":\n")
+                    .append("                instance.").append(method.getSimpleName()).append("(")
+                    .append(method.getParameters().stream()
+                            .map(parameter -> resolve(parameter.asType()))
+                            .collect(Collectors.joining(", ")))
+                    .append(");\n")
+                    .append("                break;\n");
+        }
+        source.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"Unknown method \" + method);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+    }
+
+    private String resolve(TypeMirror type) {
+        return "registry.resolve(" + erasure(type) + ".class)";
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Get the key of a method in the format of {@link Injector#methodKey(java.lang.reflect.Method)}
+     *
+     * @param method the method
+     * @return the key
+     */
+    private String methodKey(ExecutableElement method) {
+        return method.getSimpleName() + "(" + method.getParameters().stream()
+                .map(parameter -> erasure(parameter.asType()))
+                .collect(Collectors.joining(",")) + ")";
+    }
+
+    /**
+     * Check if a type can be resolved from the {@link de.flammenfuchs.injections.registry.DependencyRegistry}
+     * and assigned without a cast
+     *
+     * @param type the type to be checked
+     * @return true if the type is a declared type except {@code Provider} or an array of declared or primitive types
+     */
+    private boolean isResolvable(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror component = ((ArrayType) type).getComponentType();
+            return component.getKind().isPrimitive() || isResolvable(component);
+        }
+        return type.getKind() == TypeKind.DECLARED && !((TypeElement) ((DeclaredType) type).asElement())
+                .getQualifiedName().contentEquals(PROVIDER);
+    }
+
+    /**
+     * Check if a method declares a checked exception, which the generated invocation could not throw
+     *
+     * @param method the method to be checked
+     * @return true if a thrown type is neither a {@link RuntimeException} nor an {@link Error}
+     */
+    private boolean throwsCheckedException(ExecutableElement method) {
+        TypeMirror runtimeException = processingEnv.getElementUtils()
+                .getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement(Error.class.getName()).asType();
+        return method.getThrownTypes().stream()
+                .anyMatch(type -> !processingEnv.getTypeUtils().isAssignable(type, runtimeException)
+                        && !processingEnv.getTypeUtils().isAssignable(type, error));
+    }
+
+    private boolean isAccessible(Element element) {
+        return !element.getModifiers().contains(Modifier.PRIVATE) && !element.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream().anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType()
+                .asElement()).getQualifiedName().contentEquals(annotation));
+    }
+
+    /**
+     * Check if an element is annotated with the given annotation and nothing else
+     *
+     * @param element the element to be checked
+     * @param annotation the name of the annotation
+     * @return true if the given annotation is the only annotation of the element
+     */
+    private boolean isOnlyAnnotatedWith(Element element, String annotation) {
+        List<? extends AnnotationMirror> mirrors = element.getAnnotationMirrors();
+        return mirrors.size() == 1 && ((TypeElement) mirrors.get(0).getAnnotationType().asElement())
+                .getQualifiedName().contentEquals(annotation);
+    }
+}
@@ -0,0 +1,48 @@
+package de.flammenfuchs.injections.injector;
+
+import java.util.Optional;
+
+/**
+ * Lookup for generated {@link Injector injectors}
+ */
+public final class Injectors {
+
+    private static final ClassValue<Optional<Injector<?>>> INJECTORS = new ClassValue<>() {
+        @Override
+        protected Optional<Injector<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(load(type));
+        }
+    };
+
+    private Injectors() {
+    }
+
+    /**
+     * Find the generated {@link Injector} of a class
+     *
+     * @param clazz the class
+     * @param <T> the type of the class
+     * @return the {@link Injector} or null if no injector was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Injector<T> find(Class<T> clazz) {
+        return (Injector<T>) INJECTORS.get(clazz).orElse(null);
+    }
+
+    private static Injector<?> load(Class<?> type) {
+        if (type.getClassLoader() == null) {
+            return null;
+        }
+        try {
+            Class<?> injectorClass = Class.forName(type.getName() + Injector.SUFFIX, true, type.getClassLoader());
+            if (!Injector.class.isAssignableFrom(injectorClass)) {
+                return null;
+            }
+            return (Injector<?>) injectorClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create injector for " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.flammenfuchs.injections.instrumentation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * A measured step of an {@link de.flammenfuchs.injections.manager.InjectionsManager}<br>
+ * The duration and the allocated bytes include all steps nested in the step, e.g. the instantiation of a
+ * lazy dependency resolved by a field injection.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class InjectionsEvent {
+
+    /**
+     * The kind of the step
+     */
+    private final Kind kind;
+    /**
+     * The subject of the step: the name of a target or phase, a {@link Class}, a {@link Field} or a {@link Method}
+     */
+    private final Object subject;
+    /**
+     * The duration of the step in nanoseconds
+     */
+    private final long durationNanos;
+    /**
+     * The bytes allocated by the thread during the step or -1 if the JVM does not support measuring them
+     */
+    private final long allocatedBytes;
+    /**
+     * The name of the thread, which ran the step
+     */
+    private final String threadName;
+
+    /**
+     * Get the name of the subject, e.g. {@code com.example.Service#start()} for a method
+     *
+     * @return the name
+     */
+    public String getName() {
+        if (this.subject instanceof Class<?> clazz) {
+            return clazz.getName();
+        } else if (this.subject instanceof Method method) {
+            return method.getDeclaringClass().getName() + "#" + method.getName() + "()";
+        } else if (this.subject instanceof Member member) {
+            return member.getDeclaringClass().getName() + "#" + member.getName();
+        }
+        return String.valueOf(this.subject);
+    }
+
+    @Override
+    public String toString() {
+        return this.kind + " " + getName() + " took " + this.durationNanos + "ns, allocated "
+                + this.allocatedBytes + " bytes on " + this.threadName;
+    }
+
+    /**
+     * The kinds of measured steps
+     */
+    public enum Kind {
+        /**
+         * A phase of the start: {@code discovery}, {@code processing} or {@code late}
+         */
+        PHASE,
+        /**
+         * The scan of a target, the subject is its top package
+         */
+        TARGET_SCAN,
+        /**
+         * The check of a scanned class by its class annotation processor
+         */
+        CLASS_FILTER,
+        /**
+         * The creation of an instance
+         */
+        INSTANTIATION,
+        /**
+         * The injection of a field or of all fields of a class by its generated injector
+         */
+        FIELD_INJECTION,
+        /**
+         * The processing of a method, e.g. the invocation of a startup method
+         */
+        METHOD_INVOCATION,
+        /**
+         * The delivery of an object to the type consumers. Asynchronous consumers are only queued.
+         */
+        CONSUMER_DELIVERY
+    }
+}
@@ -0,0 +1,25 @@
+package de.flammenfuchs.injections.instrumentation;
+
+/**
+ * Receives the {@link InjectionsEvent events} of the steps of an
+ * {@link de.flammenfuchs.injections.manager.InjectionsManager}<br>
+ * Events are published on the thread, which ran the step, so listeners have to be thread safe.
+ * Without a registered listener, the steps are not measured at all.
+ */
+public interface InjectionsListener {
+
+    /**
+     * Called after a step completed or failed
+     *
+     * @param event the {@link InjectionsEvent} of the step
+     */
+    void onEvent(InjectionsEvent event);
+
+    /**
+     * Called after the start including the late methods completed
+     *
+     * @param durationNanos the duration of the whole start in nanoseconds
+     */
+    default void onStarted(long durationNanos) {
+    }
+}
@@ -0,0 +1,166 @@
+package de.flammenfuchs.injections.instrumentation;
+
+import de.flammenfuchs.javalib.logging.Logger;
+import lombok.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Measures steps and publishes their {@link InjectionsEvent events} to the {@link InjectionsListener listeners}<br>
+ * Durations are measured with {@link System#nanoTime()}, the allocated bytes of the current thread with the
+ * {@link ThreadMXBean}, which is looked up the first time a step is measured. Without listeners, the steps just run
+ * and no JVM setting is touched.
+ */
+public final class Instrumentation {
+
+    /**
+     * An instrumentation without listeners, which measures nothing
+     */
+    public static final Instrumentation DISABLED = new Instrumentation(List.of(), null);
+
+    private final List<InjectionsListener> listeners;
+    private final Logger logger;
+
+    /**
+     * Create a new instrumentation
+     *
+     * @param listeners the listeners
+     * @param logger the {@link Logger} to log failing listeners with
+     */
+    public Instrumentation(@NonNull List<InjectionsListener> listeners, Logger logger) {
+        this.listeners = List.copyOf(listeners);
+        this.logger = logger;
+    }
+
+    /**
+     * Check if steps are measured
+     *
+     * @return true if a listener is registered
+     */
+    public boolean isEnabled() {
+        return !this.listeners.isEmpty();
+    }
+
+    /**
+     * Run a step and publish its event
+     *
+     * @param kind the kind of the step
+     * @param subject the subject of the step
+     * @param action the step
+     */
+    public void run(InjectionsEvent.Kind kind, Object subject, Runnable action) {
+        if (this.listeners.isEmpty()) {
+            action.run();
+            return;
+        }
+        measure(kind, subject, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a step and publish its event, even if it failed
+     *
+     * @param kind the kind of the step
+     * @param subject the subject of the step
+     * @param action the step
+     * @return the result of the step
+     * @param <T> the type of the result
+     */
+    public <T> T measure(InjectionsEvent.Kind kind, Object subject, Supplier<T> action) {
+        if (this.listeners.isEmpty()) {
+            return action.get();
+        }
+        long bytes = ThreadBean.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long duration = System.nanoTime() - start;
+            long allocated = bytes < 0 ? -1 : ThreadBean.allocatedBytes() - bytes;
+            publish(new InjectionsEvent(kind, subject, duration, allocated, Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Publish the event of a step, which was measured by the caller
+     *
+     * @param kind the kind of the step
+     * @param subject the subject of the step
+     * @param startNanos the {@link System#nanoTime()} at the start of the step
+     * @param startBytes the {@link #allocatedBytes()} at the start of the step
+     */
+    public void record(InjectionsEvent.Kind kind, Object subject, long startNanos, long startBytes) {
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+        long duration = System.nanoTime() - startNanos;
+        long allocated = startBytes < 0 ? -1 : ThreadBean.allocatedBytes() - startBytes;
+        publish(new InjectionsEvent(kind, subject, duration, allocated, Thread.currentThread().getName()));
+    }
+
+    /**
+     * Notify the listeners, that the start completed
+     *
+     * @param durationNanos the duration of the start in nanoseconds
+     */
+    public void started(long durationNanos) {
+        for (InjectionsListener listener : this.listeners) {
+            try {
+                listener.onStarted(durationNanos);
+            } catch (RuntimeException e) {
+                this.logger.err("Error in injections listener: " + e);
+            }
+        }
+    }
+
+    /**
+     * Get the bytes allocated by the current thread so far
+     *
+     * @return the allocated bytes or -1 if no listener is registered or the JVM does not support measuring them
+     */
+    public long allocatedBytes() {
+        return this.listeners.isEmpty() ? -1 : ThreadBean.allocatedBytes();
+    }
+
+    private void publish(InjectionsEvent event) {
+        for (InjectionsListener listener : this.listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                this.logger.err("Error in injections listener: " + e);
+            }
+        }
+    }
+
+    /**
+     * Holds the {@link ThreadMXBean}, so it is only looked up and enabled on the first measurement
+     */
+    private static final class ThreadBean {
+
+        private static final com.sun.management.ThreadMXBean THREADS = find();
+
+        private static long allocatedBytes() {
+            return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+        private static com.sun.management.ThreadMXBean find() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            try {
+                if (!threads.isThreadAllocatedMemoryEnabled()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                }
+                return threads;
+            } catch (UnsupportedOperationException | SecurityException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.flammenfuchs.injections.instrumentation;
+
+import de.flammenfuchs.javalib.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the slowest steps and logs them after the start<br>
+ * Only the slowest steps are retained, so the memory does not grow with the number of steps.
+ * {@link InjectionsEvent.Kind#PHASE phases} are not collected, because they contain all other steps.
+ */
+public class SlowestStepsCollector implements InjectionsListener {
+
+    private static final Comparator<InjectionsEvent> BY_DURATION = Comparator.comparingLong(InjectionsEvent::getDurationNanos);
+
+    private final Logger logger;
+    private final int limit;
+    private final PriorityQueue<InjectionsEvent> slowest = new PriorityQueue<>(BY_DURATION);
+
+    /**
+     * Create a new collector
+     *
+     * @param logger the {@link Logger} to log the slowest steps with or null to not log them
+     * @param limit the number of steps to be retained
+     */
+    public SlowestStepsCollector(Logger logger, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The limit must be positive");
+        }
+        this.logger = logger;
+        this.limit = limit;
+    }
+
+    @Override
+    public synchronized void onEvent(InjectionsEvent event) {
+        if (event.getKind() == InjectionsEvent.Kind.PHASE) {
+            return;
+        }
+        if (this.slowest.size() < this.limit) {
+            this.slowest.add(event);
+        } else if (event.getDurationNanos() > this.slowest.peek().getDurationNanos()) {
+            this.slowest.poll();
+            this.slowest.add(event);
+        }
+    }
+
+    @Override
+    public void onStarted(long durationNanos) {
+        if (this.logger == null) {
+            return;
+        }
+        List<InjectionsEvent> steps = getSlowest();
+        this.logger.info("Slowest " + steps.size() + " steps of the start, which took " + toMillis(durationNanos) + "ms:");
+        for (InjectionsEvent step : steps) {
+            this.logger.info("  " + toMillis(step.getDurationNanos()) + "ms " + step.getKind() + " " + step.getName()
+                    + (step.getAllocatedBytes() < 0 ? "" : " (" + step.getAllocatedBytes() / 1024 + " KiB)"));
+        }
+    }
+
+    /**
+     * Get the slowest steps
+     *
+     * @return a {@link List} with the slowest steps, the slowest first
+     */
+    public synchronized List<InjectionsEvent> getSlowest() {
+        List<InjectionsEvent> steps = new ArrayList<>(this.slowest);
+        steps.sort(BY_DURATION.reversed());
+        return steps;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -3,6 +3,13 @@ package de.flammenfuchs.injections.manager;
 import com.google.gson.TypeAdapter;
 import de.flammenfuchs.injections.annon.ConfigProperty;
 import de.flammenfuchs.injections.annon.Scoped;
+import de.flammenfuchs.injections.index.InjectionsIndex;
+import de.flammenfuchs.injections.instrumentation.InjectionsListener;
+import de.flammenfuchs.injections.instrumentation.SlowestStepsCollector;
+import de.flammenfuchs.injections.registry.AnnotationRegistry;
+import de.flammenfuchs.injections.scanner.BytecodeClassScanner;
+import de.flammenfuchs.injections.scanner.BytecodeScannerSupplier;
+import de.flammenfuchs.injections.shutdown.ShutdownCoordinator;
 import de.flammenfuchs.javalib.lang.triple.Triple;
 import de.flammenfuchs.javalib.lang.tuple.Tuple;
 import de.flammenfuchs.javalib.logging.LogLevel;
@@ -12,8 +19,12 @@ import de.flammenfuchs.javalib.reflect.scanner.DefaultClassScanner;
 import lombok.NonNull;
 
 import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A class to build a {@link InjectionsManager}
@@ -40,6 +51,25 @@ public class InjectionsBuilder {
     private final List<Triple<ClassLoader, String, String[]>> targets = new ArrayList<>();
 
     private boolean defaultAnnotations = true;
+    private boolean discoveryIndex = true;
+    private Executor discoveryExecutor = null;
+    private Path discoveryCache = null;
+    private boolean hashDiscoveryCache = false;
+    private Executor instantiationExecutor = null;
+    private boolean freezeAfterStart = false;
+    private Executor consumerExecutor = null;
+    private long consumerTimeoutMillis = 30_000;
+    private int timerThreads = 1;
+    private Executor timerExecutor = null;
+    private Executor startupExecutor = null;
+    private boolean parallelShutdown = true;
+    private Executor shutdownExecutor = null;
+    private long shutdownTimeoutMillis = 30_000;
+    private boolean shutdownHook = true;
+    private boolean configWatch = false;
+    private long configFlushIntervalMillis = 5_000;
+    private final List<InjectionsListener> listeners = new ArrayList<>();
+    private int slowestSteps = 0;
     private Logger logger = new Logger(DEFAULT_LOGGER_NAME, DEFAULT_LOG_LEVEL,
             DEFAULT_LOGGER_FORMAT, true);
     private boolean configProperty = false;
@@ -123,6 +153,268 @@ public class InjectionsBuilder {
         return this;
     }
 
+    /**
+     * Disable the usage of the {@link InjectionsIndex} while discovering.
+     * All targets will be scanned with the {@link ClassScanner}
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder disableDiscoveryIndex() {
+        this.discoveryIndex = false;
+        return this;
+    }
+
+    /**
+     * Enable the usage of the {@link InjectionsIndex} while discovering.
+     * Targets without an index will still be scanned with the {@link ClassScanner}
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder enableDiscoveryIndex() {
+        this.discoveryIndex = true;
+        return this;
+    }
+
+    /**
+     * Discover all targets concurrently on the given {@link Executor}<br>
+     * The targets are scanned and the classes are analyzed in parallel, but the results are merged in the order
+     * of the targets, so the processing order stays the same.
+     *
+     * @param executor the {@link Executor} to run the discovery on
+     * @return current builder instance
+     */
+    public InjectionsBuilder parallelDiscovery(@NonNull Executor executor) {
+        this.discoveryExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Discover all targets concurrently on the {@link ForkJoinPool#commonPool()}
+     *
+     * @return current builder instance
+     * @see #parallelDiscovery(Executor)
+     */
+    public InjectionsBuilder parallelDiscovery() {
+        return parallelDiscovery(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Discover all targets one after another on the thread calling {@link InjectionsManager#start()}
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder sequentialDiscovery() {
+        this.discoveryExecutor = null;
+        return this;
+    }
+
+    /**
+     * Instantiate independent scoped classes in parallel on the given {@link Executor}<br>
+     * Classes with an {@link de.flammenfuchs.injections.annon.Inject} constructor are instantiated after the classes
+     * of their parameters. The constructors have to be thread safe.
+     *
+     * @param executor the {@link Executor} to run the constructors on
+     * @return current builder instance
+     */
+    public InjectionsBuilder parallelInstantiation(@NonNull Executor executor) {
+        this.instantiationExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Instantiate all scoped classes one after another on the thread calling {@link InjectionsManager#start()}
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder sequentialInstantiation() {
+        this.instantiationExecutor = null;
+        return this;
+    }
+
+    /**
+     * Set the {@link Executor} to feed asynchronous {@link de.flammenfuchs.injections.registry.TypeConsumer}s on.
+     * Without an executor, a bounded pool of daemon threads is used.
+     *
+     * @param executor the {@link Executor} to feed the consumers on
+     * @return current builder instance
+     */
+    public InjectionsBuilder asyncConsumerExecutor(@NonNull Executor executor) {
+        this.consumerExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Set how long the start waits for asynchronous {@link de.flammenfuchs.injections.registry.TypeConsumer}s.
+     * Afterwards, the consumers still running are logged and the start continues without them.
+     *
+     * @param timeout the maximum time to wait
+     * @return current builder instance
+     */
+    public InjectionsBuilder asyncConsumerTimeout(@NonNull Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("The consumer timeout must not be negative");
+        }
+        this.consumerTimeoutMillis = timeout.toMillis();
+        return this;
+    }
+
+    /**
+     * Set the number of threads triggering the {@link de.flammenfuchs.injections.annon.Timer} methods.
+     * The methods are invoked on the timer executor, so one thread is enough for most applications.
+     *
+     * @param threads the number of scheduler threads
+     * @return current builder instance
+     */
+    public InjectionsBuilder timerThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one timer thread is required");
+        }
+        this.timerThreads = threads;
+        return this;
+    }
+
+    /**
+     * Set the {@link Executor} to invoke the {@link de.flammenfuchs.injections.annon.Timer} methods on.
+     * Without an executor, a bounded pool of daemon threads is used.
+     *
+     * @param executor the {@link Executor} to invoke the methods on
+     * @return current builder instance
+     */
+    public InjectionsBuilder timerExecutor(@NonNull Executor executor) {
+        this.timerExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Invoke independent {@link de.flammenfuchs.injections.annon.Startup} methods in parallel<br>
+     * Methods annotated with {@link de.flammenfuchs.injections.annon.DependsOn} are invoked after the startup
+     * methods of the given classes. The startup methods have to be thread safe.
+     *
+     * @param executor the {@link Executor} to invoke the startup methods on
+     * @return current builder instance
+     */
+    public InjectionsBuilder parallelStartup(@NonNull Executor executor) {
+        this.startupExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Invoke all startup methods one after another on the thread calling {@link InjectionsManager#start()}
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder sequentialStartup() {
+        this.startupExecutor = null;
+        return this;
+    }
+
+    /**
+     * Run independent {@link de.flammenfuchs.injections.annon.Shutdown} methods in parallel on the given
+     * {@link Executor}. By default, a bounded pool of daemon threads is used.
+     *
+     * @param executor the {@link Executor} to run the shutdown methods on
+     * @return current builder instance
+     */
+    public InjectionsBuilder parallelShutdown(@NonNull Executor executor) {
+        this.parallelShutdown = true;
+        this.shutdownExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Run all shutdown methods one after another
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder sequentialShutdown() {
+        this.parallelShutdown = false;
+        this.shutdownExecutor = null;
+        return this;
+    }
+
+    /**
+     * Set the deadline of the shutdown methods. Shutdown methods still running afterwards are abandoned.
+     * Saving the config file runs afterwards with a deadline of the same length.
+     *
+     * @param timeout the deadline
+     * @return current builder instance
+     */
+    public InjectionsBuilder shutdownTimeout(@NonNull Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("The shutdown timeout must not be negative");
+        }
+        this.shutdownTimeoutMillis = timeout.toMillis();
+        return this;
+    }
+
+    /**
+     * Stop the manager with a JVM shutdown hook (default)
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder enableShutdownHook() {
+        this.shutdownHook = true;
+        return this;
+    }
+
+    /**
+     * Do not register a JVM shutdown hook. The manager is only stopped by {@link InjectionsManager#stop()}.
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder disableShutdownHook() {
+        this.shutdownHook = false;
+        return this;
+    }
+
+    /**
+     * Freeze the manager at the end of {@link InjectionsManager#start()}<br>
+     * No dependencies can be registered afterwards.
+     *
+     * @return current builder instance
+     * @see InjectionsManager#freeze()
+     */
+    public InjectionsBuilder enableFreezeAfterStart() {
+        this.freezeAfterStart = true;
+        return this;
+    }
+
+    /**
+     * Keep the manager modifiable after {@link InjectionsManager#start()} (default)
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder disableFreezeAfterStart() {
+        this.freezeAfterStart = false;
+        return this;
+    }
+
+    /**
+     * Cache the discovered classes of all targets in a file.
+     * Targets whose class directories and jar files did not change since the last start are not scanned again.
+     *
+     * @param path the path of the cache file
+     * @return current builder instance
+     */
+    public InjectionsBuilder discoveryCache(@NonNull Path path) {
+        return discoveryCache(path, false);
+    }
+
+    /**
+     * Cache the discovered classes of all targets in a file.
+     * Targets whose class directories and jar files did not change since the last start are not scanned again.
+     *
+     * @param path the path of the cache file
+     * @param hashContents should the content of the files be compared too, otherwise only their size and
+     *                     modification time are compared
+     * @return current builder instance
+     */
+    public InjectionsBuilder discoveryCache(@NonNull Path path, boolean hashContents) {
+        this.discoveryCache = path;
+        this.hashDiscoveryCache = hashContents;
+        return this;
+    }
+
     /**
      * Disable the creation of a config file and injections its values with @{@link ConfigProperty}
      *
@@ -155,6 +447,70 @@ public class InjectionsBuilder {
         return this;
     }
 
+    /**
+     * Watch the config file and re-inject the changed {@link ConfigProperty} values without a restart<br>
+     * Only has an effect, if the config file injection is enabled.
+     *
+     * @return current builder instance
+     * @see InjectionsManager#addConfigListener(de.flammenfuchs.injections.config.ConfigChangeListener)
+     */
+    public InjectionsBuilder enableConfigWatch() {
+        this.configWatch = true;
+        return this;
+    }
+
+    /**
+     * Read the config file only once on {@link InjectionsManager#start()} (default)
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder disableConfigWatch() {
+        this.configWatch = false;
+        return this;
+    }
+
+    /**
+     * Set the interval to save changed {@link ConfigProperty#save()} values to the config file (default 5 seconds)<br>
+     * The file is only written if a value changed. With a zero interval, the values are only saved on
+     * {@link InjectionsManager#stop()}.
+     *
+     * @param interval the interval
+     * @return current builder instance
+     */
+    public InjectionsBuilder configFlushInterval(@NonNull Duration interval) {
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("The config flush interval must not be negative");
+        }
+        this.configFlushIntervalMillis = interval.toMillis();
+        return this;
+    }
+
+    /**
+     * Add a listener, which receives the measured steps of the start, e.g. the instantiation of a class<br>
+     * Without listeners, the steps are not measured.
+     *
+     * @param listener the {@link InjectionsListener}
+     * @return current builder instance
+     */
+    public InjectionsBuilder addListener(@NonNull InjectionsListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Log the slowest steps after the start with a {@link SlowestStepsCollector}
+     *
+     * @param count the number of steps to be logged or 0 to log none
+     * @return current builder instance
+     */
+    public InjectionsBuilder logSlowestSteps(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of steps must not be negative");
+        }
+        this.slowestSteps = count;
+        return this;
+    }
+
     /**
      * Add a {@link TypeAdapter} for config file injection
      * @param typeAdapter The {@link TypeAdapter}
@@ -237,12 +593,34 @@ public class InjectionsBuilder {
     }
 
     /**
-     * Build the actual manager
+     * Use a {@link BytecodeClassScanner} for every target, which reads the annotations from the class files
+     * and only loads the annotated classes
+     *
+     * @return current builder instance
+     */
+    public InjectionsBuilder useBytecodeScanner() {
+        this.supplier = new BytecodeScannerSupplier();
+        return this;
+    }
+
+    /**
+     * Build the actual manager<br>
+     * Without a shutdown executor, each manager gets its own default executor, which is shut down with the manager.
      *
      * @return the actual manager
      */
     public InjectionsManager build() {
-        return new InjectionsManager(targets, defaultAnnotations, configProperty, configPropertyPath, typeAdapters, logger, supplier);
+        List<InjectionsListener> listeners = new ArrayList<>(this.listeners);
+        if (slowestSteps > 0) {
+            listeners.add(new SlowestStepsCollector(logger, slowestSteps));
+        }
+        boolean ownsShutdownExecutor = parallelShutdown && this.shutdownExecutor == null;
+        Executor shutdownExecutor = ownsShutdownExecutor ? ShutdownCoordinator.createDefaultExecutor() : this.shutdownExecutor;
+        return new InjectionsManager(targets, defaultAnnotations, configProperty, configPropertyPath, typeAdapters, logger, supplier,
+                discoveryIndex, discoveryExecutor, discoveryCache, hashDiscoveryCache,
+                instantiationExecutor, freezeAfterStart, consumerExecutor, consumerTimeoutMillis, timerThreads, timerExecutor,
+                startupExecutor, shutdownExecutor, ownsShutdownExecutor, shutdownTimeoutMillis, shutdownHook, configWatch,
+                configFlushIntervalMillis, listeners);
     }
 
     /**
@@ -259,5 +637,20 @@ public class InjectionsBuilder {
          * @return the new {@link ClassScanner}
          */
         ClassScanner supply(ClassLoader loader, String topPackage, String[] ignoredPackages);
+
+        /**
+         * This method creates the {@link ClassScanner} for a given target with access to the registered annotations.
+         * By default, the {@link AnnotationRegistry} is ignored.
+         *
+         * @param loader The {@link ClassLoader} where the target is located
+         * @param topPackage The top {@link Package}
+         * @param ignoredPackages All ignored packages while scanning. Empty if nothing to ignore
+         * @param annotationRegistry The {@link AnnotationRegistry} with all registered annotations
+         * @return the new {@link ClassScanner}
+         */
+        default ClassScanner supply(ClassLoader loader, String topPackage, String[] ignoredPackages,
+                                    AnnotationRegistry annotationRegistry) {
+            return supply(loader, topPackage, ignoredPackages);
+        }
     }
 }
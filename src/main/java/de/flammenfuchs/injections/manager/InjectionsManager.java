@@ -1,32 +1,55 @@
 package de.flammenfuchs.injections.manager;
 
 import com.google.gson.TypeAdapter;
+import de.flammenfuchs.injections.accessor.MethodAccessor;
+import de.flammenfuchs.injections.accessor.MethodInvoker;
+import de.flammenfuchs.injections.accessor.ParameterResolver;
 import de.flammenfuchs.injections.annon.*;
 import de.flammenfuchs.injections.annon.Shutdown;
 import de.flammenfuchs.injections.annon.Timer;
 import de.flammenfuchs.injections.annotationProcessor.AnnotationProcessorHandler;
 import de.flammenfuchs.injections.annotationProcessor.FieldAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.MethodAnnotationProcessor;
+import de.flammenfuchs.injections.annotationProcessor.ParameterAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.impl.ConfigPropertyFieldAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.impl.TimerMethodAnnotationProcessor;
+import de.flammenfuchs.injections.config.ConfigChangeListener;
+import de.flammenfuchs.injections.config.ConfigWatcher;
+import de.flammenfuchs.injections.discovery.DiscoveryCache;
 import de.flammenfuchs.injections.discovery.DiscoveryResult;
 import de.flammenfuchs.injections.discovery.InjectionsDiscovery;
+import de.flammenfuchs.injections.instrumentation.InjectionsEvent;
+import de.flammenfuchs.injections.instrumentation.InjectionsListener;
+import de.flammenfuchs.injections.instrumentation.Instrumentation;
 import de.flammenfuchs.injections.registry.AnnotationRegistry;
 import de.flammenfuchs.injections.registry.DependencyRegistry;
 import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import de.flammenfuchs.injections.shutdown.ShutdownCoordinator;
+import de.flammenfuchs.injections.shutdown.ShutdownResult;
+import de.flammenfuchs.injections.timer.TimerMetrics;
+import de.flammenfuchs.injections.timer.TimerScheduler;
 import de.flammenfuchs.javalib.lang.triple.Triple;
 import de.flammenfuchs.javalib.lang.tuple.Tuple;
 import de.flammenfuchs.javalib.logging.LogLevel;
 import de.flammenfuchs.javalib.logging.Logger;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class manages the injection and needs to be instantiated with an {@link InjectionsBuilder}
@@ -42,40 +65,151 @@ public class InjectionsManager {
     private final List<Tuple<Type, TypeAdapter<?>>> typeAdapters;
     private final Logger logger;
     private final InjectionsBuilder.ClassScannerSupplier scannerSupplier;
+    private final boolean useDiscoveryIndex;
+    private final Executor discoveryExecutor;
+    private final Path discoveryCachePath;
+    private final boolean hashDiscoveryCache;
+    private final Executor instantiationExecutor;
+    private final boolean freezeAfterStart;
+    private final Executor consumerExecutor;
+    private final long consumerTimeoutMillis;
+    private final int timerThreads;
+    private final Executor timerExecutor;
+    private final Executor startupExecutor;
+    private final Executor shutdownExecutor;
+    private final boolean ownsShutdownExecutor;
+    private final long shutdownTimeoutMillis;
+    private final boolean shutdownHook;
+    private final boolean configWatch;
+    private final long configFlushIntervalMillis;
+    private final List<InjectionsListener> listeners;
 
     private final AnnotationRegistry annotationRegistry = new AnnotationRegistry();
     private final TypeConsumerRegistry typeConsumerRegistry = new TypeConsumerRegistry();
     private final DependencyRegistry dependencyRegistry = new DependencyRegistry();
 
+    private TimerScheduler timerScheduler;
+    private volatile StartupHandle startupHandle;
+    private ShutdownCoordinator shutdownCoordinator;
+    private ConfigPropertyFieldAnnotationProcessor configProcessor;
+    @Getter(AccessLevel.NONE)
+    private Instrumentation instrumentation = Instrumentation.DISABLED;
     @Getter(AccessLevel.NONE)
     private AnnotationProcessorHandler annotationProcessorHandler;
+    @Getter(AccessLevel.NONE)
+    private InjectionsDiscovery discovery;
+    @Getter(AccessLevel.NONE)
+    private final ClassValue<Map<Method, MethodInvoker>> methodInvokers = new ClassValue<>() {
+        @Override
+        protected Map<Method, MethodInvoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, List<ObjectHandle>> objectHandles = new HashMap<>();
 
     /**
-     * Start the injection
+     * Start the injection<br>
+     * This method returns after the late methods completed. The timings of the phases are available
+     * with {@link #getStartupHandle()}.
      */
+    @SneakyThrows
     public void start() {
-        long startAll = System.currentTimeMillis();
+        StartupHandle handle = new StartupHandle();
+        this.startupHandle = handle;
+        try {
+            startLate(handle, startCritical(handle));
+        } catch (Throwable throwable) {
+            handle.fail(throwable);
+            throw throwable;
+        }
+    }
+
+    /**
+     * Start the injection on a new thread named {@code injections-startup}
+     *
+     * @return the {@link StartupHandle} to await the {@link StartupPhase#READY} and {@link StartupPhase#WARMED} phases
+     * @see #startAsync(Executor)
+     */
+    public StartupHandle startAsync() {
+        return startAsync(runnable -> new Thread(runnable, "injections-startup").start());
+    }
+
+    /**
+     * Start the injection without blocking<br>
+     * The {@link StartupPhase#READY} phase is reached, when all eager objects are instantiated, injected, started
+     * and consumed. The late methods keep running on the executor afterwards, until the
+     * {@link StartupPhase#WARMED} phase is reached.
+     *
+     * @param executor the {@link Executor} to run the start on
+     * @return the {@link StartupHandle} to await the {@link StartupPhase#READY} and {@link StartupPhase#WARMED} phases
+     */
+    public StartupHandle startAsync(@NonNull Executor executor) {
+        StartupHandle handle = new StartupHandle();
+        this.startupHandle = handle;
+        executor.execute(() -> {
+            try {
+                startLate(handle, startCritical(handle));
+            } catch (Throwable throwable) {
+                this.logger.err("Start of injections failed: " + throwable);
+                handle.fail(throwable);
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Run the critical phase of the start: discover all targets and process everything except the late methods
+     *
+     * @param handle the handle of the start
+     * @return the discovered late methods with their processors
+     */
+    private Map<Method, MethodAnnotationProcessor> startCritical(StartupHandle handle) {
         this.logger.info("Start injections...");
+        this.instrumentation = new Instrumentation(listeners, logger);
+        this.shutdownCoordinator = new ShutdownCoordinator(logger, shutdownExecutor, shutdownTimeoutMillis,
+                ownsShutdownExecutor);
+        if (shutdownHook) {
+            this.shutdownCoordinator.installShutdownHook();
+        }
+        this.typeConsumerRegistry.setLogger(logger);
+        if (consumerExecutor != null) {
+            this.typeConsumerRegistry.setAsyncExecutor(consumerExecutor);
+        }
         if (defaultAnnotations) {
             registerDefaultAnnotations();
         } else {
             this.logger.info(LogLevel.EXTENDED, "Skipped default annotations, because it was disabled.");
         }
 
-        InjectionsDiscovery discovery = new InjectionsDiscovery(annotationRegistry, scannerSupplier, logger);
+        DiscoveryCache discoveryCache = discoveryCachePath == null ? null
+                : DiscoveryCache.load(discoveryCachePath, hashDiscoveryCache, logger);
+        this.discovery = new InjectionsDiscovery(annotationRegistry, scannerSupplier, logger, useDiscoveryIndex,
+                defaultAnnotations, discoveryCache);
+        this.discovery.setInstrumentation(instrumentation);
 
         final List<Class<?>> classes = new ArrayList<>();
-        final Map<Field, FieldAnnotationProcessor> fields = new HashMap<>();
-        final Map<Method, MethodAnnotationProcessor> methods = new HashMap<>();
-        final Map<Method, MethodAnnotationProcessor> lateMethods = new HashMap<>();
+        final Map<Field, FieldAnnotationProcessor> fields = new LinkedHashMap<>();
+        final Map<Method, MethodAnnotationProcessor> methods = new LinkedHashMap<>();
+        final Map<Method, MethodAnnotationProcessor> lateMethods = new LinkedHashMap<>();
 
         this.logger.info("Start discovering all targets...");
-        long startDiscovery = System.currentTimeMillis();
+        long startDiscovery = System.nanoTime();
+        long discoveryBytes = this.instrumentation.allocatedBytes();
+        List<DiscoveryResult> results = null;
+        if (discoveryExecutor != null) {
+            this.logger.info(LogLevel.EXTENDED, "Discover " + targets.size() + " targets in parallel");
+            results = discovery.discoverTargets(targets, discoveryExecutor);
+        }
         for (int i = 0; i < targets.size(); i++) {
-            Triple<ClassLoader, String, String[]> target = targets.get(i);
-
-            this.logger.info(LogLevel.EXTENDED, "Discover target " + (i + 1) + "/" + targets.size());
-            DiscoveryResult result = discovery.discoverTargets(target.a(), target.b(), target.c());
+            DiscoveryResult result;
+            if (results != null) {
+                result = results.get(i);
+            } else {
+                Triple<ClassLoader, String, String[]> target = targets.get(i);
+                this.logger.info(LogLevel.EXTENDED, "Discover target " + (i + 1) + "/" + targets.size());
+                result = discovery.discoverTargets(target.a(), target.b(), target.c());
+            }
 
             classes.addAll(result.getClasses());
             this.logger.info(LogLevel.EXTENDED, "Discovered " + result.getClassesFound() + " classes in target " + (i + 1));
@@ -92,16 +226,69 @@ public class InjectionsManager {
         this.logger.info("Discovered " + classes.size() + " classes in total.");
         this.logger.info("Discovered " + fields.size() + " fields in total.");
         this.logger.info("Discovered " + methods.size() + " methods in total.");
-        this.logger.info("Discovery done. Took " + (System.currentTimeMillis() - startDiscovery) + "ms");
+        if (discoveryCache != null) {
+            discoveryCache.save();
+        }
+        this.instrumentation.record(InjectionsEvent.Kind.PHASE, "discovery", startDiscovery, discoveryBytes);
+        this.logger.info("Discovery done. Took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startDiscovery) + "ms");
 
-        annotationProcessorHandler = new AnnotationProcessorHandler(classes, fields, methods, lateMethods,
-                logger, dependencyRegistry, typeConsumerRegistry);
-        long startProcessing = System.currentTimeMillis();
+        annotationProcessorHandler = new AnnotationProcessorHandler(logger, dependencyRegistry, typeConsumerRegistry,
+                consumerTimeoutMillis, defaultAnnotations, instantiationExecutor, startupExecutor, discovery::getPlan, instrumentation);
+        long startProcessing = System.nanoTime();
+        long processingBytes = this.instrumentation.allocatedBytes();
         this.logger.info("Start processing...");
-        annotationProcessorHandler.handleProcessors();
-        this.logger.info("Processing done. Took " + (System.currentTimeMillis() - startProcessing) + "ms");
+        annotationProcessorHandler.handleProcessors(classes, fields, methods);
+        this.instrumentation.record(InjectionsEvent.Kind.PHASE, "processing", startProcessing, processingBytes);
+        this.logger.info("Processing done. Took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startProcessing) + "ms");
 
-        this.logger.info("Injections done. Took " + (System.currentTimeMillis() - startAll) + "ms");
+        handle.reach(StartupPhase.READY);
+        this.logger.info("Injections ready. Took " + handle.getPhaseMillis(StartupPhase.READY) + "ms");
+        return lateMethods;
+    }
+
+    /**
+     * Run the late phase of the start: invoke the late methods
+     *
+     * @param handle the handle of the start
+     * @param lateMethods the discovered late methods with their processors
+     */
+    private void startLate(StartupHandle handle, Map<Method, MethodAnnotationProcessor> lateMethods) {
+        this.logger.info(LogLevel.EXTENDED, "Invoke " + lateMethods.size() + " late methods...");
+        this.instrumentation.run(InjectionsEvent.Kind.PHASE, "late",
+                () -> annotationProcessorHandler.handleLateProcessors(lateMethods));
+
+        if (freezeAfterStart) {
+            freeze();
+        }
+        handle.reach(StartupPhase.WARMED);
+        this.logger.info("Injections done. Took " + handle.getPhaseMillis(StartupPhase.WARMED) + "ms (warm-up "
+                + handle.getWarmUpMillis() + "ms)");
+        this.instrumentation.started(handle.getPhaseNanos(StartupPhase.WARMED));
+    }
+
+    /**
+     * Stop the injection without exiting the JVM<br>
+     * The timers are stopped first, then the {@link Shutdown} methods run in reverse dependency order: the method of
+     * an object runs before the methods of the objects it depends on. Independent methods run in parallel.
+     * The JVM shutdown hook does nothing after this method was called.
+     *
+     * @return the {@link ShutdownResult} or null if the manager was not started
+     */
+    public ShutdownResult stop() {
+        return this.shutdownCoordinator == null ? null : this.shutdownCoordinator.stop();
+    }
+
+    /**
+     * Freeze the manager after {@link #start()}<br>
+     * The state only needed for discovering is dropped and the {@link DependencyRegistry} is compacted into an
+     * immutable table, so no dependencies can be registered afterwards. {@link #processObject(Object)} still works.
+     */
+    public void freeze() {
+        if (this.discovery != null) {
+            this.discovery.clearDiscoveryState();
+        }
+        this.dependencyRegistry.freeze();
+        this.logger.info(LogLevel.EXTENDED, "Froze injections with " + this.dependencyRegistry.getSize() + " dependencies");
     }
 
     /**
@@ -110,53 +297,245 @@ public class InjectionsManager {
     private void registerDefaultAnnotations()  {
         this.annotationRegistry.registerClassAnnotation(Scoped.class, clazz -> true);
         this.annotationRegistry.registerFieldAnnotation(Inject.class, (field, instance) ->
-                this.dependencyRegistry.resolve(field.getType()));
+                this.dependencyRegistry.resolve(field.getType(), field.getGenericType()));
         this.annotationRegistry.registerMethodAnnotation(Startup.class, this::invokeMethod);
         this.annotationRegistry.registerLateMethodAnnotation(LateStartup.class, this::invokeMethod);
-        this.annotationRegistry.registerMethodAnnotation(Shutdown.class, (method, instance) -> {
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> {this.invokeMethod(method, instance);}));
+        this.annotationRegistry.registerMethodAnnotation(Shutdown.class, this::registerShutdownMethod);
+        this.timerScheduler = new TimerScheduler(timerThreads, timerExecutor, logger);
+        this.shutdownCoordinator.addFirst("timers", this.timerScheduler::shutdown);
+        this.shutdownCoordinator.addFirst("consumers", () -> {
+            if (!this.typeConsumerRegistry.awaitDeliveries(shutdownTimeoutMillis)) {
+                this.logger.warn("Abandoned " + this.typeConsumerRegistry.getPendingDeliveries()
+                        + " pending type consumer deliveries");
+            }
         });
-        this.annotationRegistry.registerMethodAnnotation(Timer.class, new TimerMethodAnnotationProcessor(this::invokeMethod, logger));
+        this.annotationRegistry.registerMethodAnnotation(Timer.class,
+                new TimerMethodAnnotationProcessor(this::invokeMethod, timerScheduler));
 
         if (enableConfigFileInjection) {
-            this.annotationRegistry.registerFieldAnnotation(ConfigProperty.class,
-                    new ConfigPropertyFieldAnnotationProcessor(logger, configFilePath.a(), configFilePath.b(), typeAdapters));
+            this.configProcessor = new ConfigPropertyFieldAnnotationProcessor(logger,
+                    configFilePath.a(), configFilePath.b(), typeAdapters);
+            this.annotationRegistry.registerFieldAnnotation(ConfigProperty.class, configProcessor);
+            this.annotationRegistry.registerParameterAnnotation(ConfigProperty.class, configProcessor);
+            this.shutdownCoordinator.addLast("config", configProcessor::close);
+            if (configFlushIntervalMillis > 0) {
+                this.configProcessor.startFlushing(configFlushIntervalMillis);
+            }
+            if (configWatch) {
+                watchConfigFile();
+            }
         }
 
-        this.dependencyRegistry.register(this.annotationRegistry);
-        this.dependencyRegistry.register(this.typeConsumerRegistry);
-        this.dependencyRegistry.register(this.dependencyRegistry);
+        this.dependencyRegistry.registerAll(registrations -> registrations
+                .register(this.annotationRegistry)
+                .register(this.typeConsumerRegistry)
+                .register(this.dependencyRegistry));
         this.logger.info("Registered default annotations.");
     }
 
     /**
-     * Safely invoke methods
+     * Watch the config file and reload the changed properties
+     */
+    @SneakyThrows
+    private void watchConfigFile() {
+        ConfigWatcher watcher = new ConfigWatcher(Path.of(configFilePath.a(), configFilePath.b()),
+                this.configProcessor::reload, logger, 100);
+        watcher.start();
+        this.shutdownCoordinator.addFirst("config-watcher", watcher::close);
+    }
+
+    /**
+     * Read the config file again and re-inject the fields of all changed {@link ConfigProperty} values<br>
+     * With {@link InjectionsBuilder#enableConfigWatch()} this happens automatically when the file changed.
+     *
+     * @return the keys of the changed properties
+     * @throws IllegalStateException if the config file injection is disabled or the manager is not started
+     */
+    public Set<String> reloadConfig() {
+        return requireConfigProcessor().reload();
+    }
+
+    /**
+     * Register a listener, which is notified after the fields of a changed {@link ConfigProperty} were re-injected
+     *
+     * @param listener the listener
+     * @throws IllegalStateException if the config file injection is disabled or the manager is not started
+     */
+    public void addConfigListener(@NonNull ConfigChangeListener listener) {
+        requireConfigProcessor().addListener(listener);
+    }
+
+    private ConfigPropertyFieldAnnotationProcessor requireConfigProcessor() {
+        if (this.configProcessor == null) {
+            throw new IllegalStateException("The config file injection is disabled or the manager is not started");
+        }
+        return this.configProcessor;
+    }
+
+    /**
+     * Register a {@link Shutdown} method at the {@link ShutdownCoordinator}<br>
+     * The hook of an object processed by {@link #processObject(Object)} only references the object weakly
+     * and is removed when the object is disposed.
+     *
+     * @param method the shutdown method
+     * @param instance the object holding the method
+     */
+    private void registerShutdownMethod(Method method, Object instance) {
+        String name = method.getDeclaringClass().getName() + "#" + method.getName();
+        Set<Class<?>> dependencies = ShutdownCoordinator.findDependencies(instance.getClass(), method);
+        ObjectHandle handle = ObjectHandle.current();
+        if (handle == null) {
+            this.shutdownCoordinator.register(name, instance.getClass(), dependencies,
+                    () -> this.invokeMethod(method, instance));
+            return;
+        }
+        WeakReference<Object> reference = new WeakReference<>(instance);
+        handle.onDispose(this.shutdownCoordinator.register(name, instance.getClass(), dependencies, () -> {
+            Object target = reference.get();
+            if (target != null) {
+                this.invokeMethod(method, target);
+            }
+        }));
+    }
+
+    /**
+     * Safely invoke methods<br>
+     * The compiled invokers are stored with the declaring class of the method, so they don't keep the class
+     * and its {@link ClassLoader} reachable.
      *
      * @param method the method to be invoked
      * @param instance the object holding the method
      */
     @SneakyThrows
     public void invokeMethod(Method method, Object instance) {
-        int paramCount = method.getParameterCount();
-        method.setAccessible(true);
-        if (paramCount == 0) {
-            method.invoke(instance);
-            return;
+        Map<Method, MethodInvoker> invokers = this.methodInvokers.get(method.getDeclaringClass());
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(method, this::createMethodInvoker);
+        }
+        invoker.invoke(instance);
+    }
+
+    /**
+     * Compile a method and the resolvers of its parameters
+     *
+     * @param method the method to be compiled
+     * @return the new {@link MethodInvoker}
+     */
+    private MethodInvoker createMethodInvoker(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = createParameterResolver(parameters[i]);
         }
-        Object[] params = new Object[paramCount];
-        for (int i = 0; i < paramCount; i++) {
-            params[i] = this.dependencyRegistry.resolve(method.getParameterTypes()[i]);
+        return new MethodInvoker(MethodAccessor.of(method), resolvers);
+    }
+
+    /**
+     * Create the resolver of a parameter<br>
+     * The first annotation with a registered {@link ParameterAnnotationProcessor} creates the resolver.
+     * Parameters without one are resolved by their type.
+     *
+     * @param parameter the parameter
+     * @return the {@link ParameterResolver}
+     */
+    private ParameterResolver createParameterResolver(Parameter parameter) {
+        for (Annotation annotation : parameter.getAnnotations()) {
+            ParameterAnnotationProcessor processor =
+                    this.annotationRegistry.getParameterAnnotationProcessor(annotation.annotationType());
+            if (processor != null) {
+                return processor.createResolver(parameter);
+            }
         }
-        method.invoke(instance, params);
+        Class<?> type = parameter.getType();
+        Type genericType = parameter.getParameterizedType();
+        return () -> this.dependencyRegistry.resolve(type, genericType);
     }
 
     /**
-     * Process a single object
+     * Get the metrics of all {@link Timer} methods
+     *
+     * @return an unmodifiable {@link Map} with the name of the method ({@code class#method}) as key
+     * and its {@link TimerMetrics} as value
+     */
+    public Map<String, TimerMetrics> getTimerMetrics() {
+        return this.timerScheduler == null ? Map.of() : this.timerScheduler.getMetrics();
+    }
+
+    /**
+     * Get the metrics of all repeating {@link Timer} methods, which saturate their period
+     *
+     * @param saturation the share of the period, which the 99th latency percentile has to reach, e.g. 0.8
+     * @return a {@link List} with the {@link TimerMetrics} of the saturated methods, the most saturated first
+     */
+    public List<TimerMetrics> getSaturatedTimers(double saturation) {
+        return getTimerMetrics().values().stream()
+                .filter(metrics -> metrics.getPeriodMillis() > 0)
+                .filter(metrics -> metrics.getSaturation() >= saturation || metrics.getOverruns() > 0)
+                .sorted(Comparator.comparingDouble(TimerMetrics::getSaturation).reversed())
+                .toList();
+    }
+
+    /**
+     * Process a single object<br>
+     * The returned handle releases the resources created for the object, e.g. its timers and shutdown methods.
+     * If the object becomes unreachable without being disposed, they are released automatically.
      *
      * @param object the object to be processed
+     * @return the {@link ObjectHandle} to dispose the object
      */
-    public void processObject(Object object) {
-        DiscoveryResult result = new InjectionsDiscovery(annotationRegistry, scannerSupplier, logger).discoveryFromObject(object);
-        annotationProcessorHandler.handleObject(object, result);
+    public ObjectHandle processObject(@NonNull Object object) {
+        ObjectHandle handle = new ObjectHandle(object, this::removeHandle);
+        handle.process(() -> annotationProcessorHandler.handleObject(object, discovery.getPlan(object.getClass())));
+        if (handle.hasResources()) {
+            synchronized (this.objectHandles) {
+                this.objectHandles.computeIfAbsent(handle.getIdentityHash(), key -> new ArrayList<>(1)).add(handle);
+            }
+        }
+        Reference.reachabilityFence(object);
+        return handle;
+    }
+
+    /**
+     * Release the resources created for an object by {@link #processObject(Object)}
+     *
+     * @param object the processed object
+     * @return true if the object had resources, which were released
+     */
+    public boolean dispose(@NonNull Object object) {
+        ObjectHandle found = null;
+        synchronized (this.objectHandles) {
+            for (ObjectHandle handle : this.objectHandles.getOrDefault(System.identityHashCode(object), List.of())) {
+                if (handle.refersTo(object)) {
+                    found = handle;
+                    break;
+                }
+            }
+        }
+        if (found == null) {
+            return false;
+        }
+        found.dispose();
+        return true;
+    }
+
+    /**
+     * Get the number of processed objects, which have resources and are not disposed yet
+     *
+     * @return the number of objects
+     */
+    public int getUndisposedObjects() {
+        synchronized (this.objectHandles) {
+            return this.objectHandles.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private void removeHandle(ObjectHandle handle) {
+        synchronized (this.objectHandles) {
+            List<ObjectHandle> handles = this.objectHandles.get(handle.getIdentityHash());
+            if (handles != null && handles.remove(handle) && handles.isEmpty()) {
+                this.objectHandles.remove(handle.getIdentityHash());
+            }
+        }
     }
 }
\ No newline at end of file
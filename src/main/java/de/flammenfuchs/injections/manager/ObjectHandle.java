@@ -0,0 +1,204 @@
+package de.flammenfuchs.injections.manager;
+
+import lombok.NonNull;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Handle of an object processed by {@link InjectionsManager#processObject(Object)}<br>
+ * Processors register the resources they create for the object, e.g. its timers and shutdown hooks.
+ * {@link #dispose()} releases them. The handle only references the object weakly: if the object becomes
+ * unreachable without being disposed, its resources are released by a {@link Cleaner}.
+ */
+public final class ObjectHandle implements AutoCloseable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final ThreadLocal<ObjectHandle> PROCESSING = new ThreadLocal<>();
+
+    private final WeakReference<Object> object;
+    private final int hash;
+    private final Resources resources;
+    private Cleaner.Cleanable cleanable;
+
+    ObjectHandle(Object object, Consumer<ObjectHandle> onDispose) {
+        this.object = new WeakReference<>(object);
+        this.hash = System.identityHashCode(object);
+        this.resources = new Resources(() -> onDispose.accept(this));
+    }
+
+    /**
+     * Get the handle of the object, which is processed on the current thread
+     *
+     * @return the {@link ObjectHandle} or null if no object is processed by
+     * {@link InjectionsManager#processObject(Object)} on the current thread
+     */
+    public static ObjectHandle current() {
+        return PROCESSING.get();
+    }
+
+    /**
+     * Register an action, which releases a resource of the object when it is disposed<br>
+     * The action must not reference the object, otherwise the object never becomes unreachable.
+     * If the handle is already disposed, the action runs immediately.
+     *
+     * @param action the action
+     */
+    public void onDispose(@NonNull Runnable action) {
+        if (!this.resources.add(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Get the object
+     *
+     * @return the object or null if it was garbage collected
+     */
+    public Object getObject() {
+        return this.object.get();
+    }
+
+    /**
+     * Check if the handle is disposed
+     *
+     * @return true if {@link #dispose()} was called or the object was cleaned
+     */
+    public boolean isDisposed() {
+        return this.resources.isDisposed();
+    }
+
+    /**
+     * Release all resources of the object. Further calls do nothing.
+     */
+    public void dispose() {
+        Cleaner.Cleanable cleanable;
+        synchronized (this) {
+            cleanable = this.cleanable;
+        }
+        if (cleanable != null) {
+            cleanable.clean();
+        } else {
+            this.resources.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    /**
+     * Get the identity hash code of the object
+     *
+     * @return the {@link System#identityHashCode(Object)} of the object
+     */
+    int getIdentityHash() {
+        return this.hash;
+    }
+
+    /**
+     * Check if resources are registered and not released yet
+     *
+     * @return true if the handle has to be disposed
+     */
+    boolean hasResources() {
+        return this.resources.hasActions();
+    }
+
+    /**
+     * Check if the handle belongs to an object
+     *
+     * @param object the object
+     * @return true if this is the handle of the object
+     */
+    boolean refersTo(Object object) {
+        return this.object.refersTo(object);
+    }
+
+    /**
+     * Run an action with this handle as {@link #current()} handle<br>
+     * If the action registered resources, the object is registered at the {@link Cleaner} afterwards.
+     *
+     * @param action the action
+     */
+    void process(Runnable action) {
+        ObjectHandle previous = PROCESSING.get();
+        PROCESSING.set(this);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                PROCESSING.remove();
+            } else {
+                PROCESSING.set(previous);
+            }
+        }
+        Object object = this.object.get();
+        if (object != null && hasResources()) {
+            synchronized (this) {
+                if (this.cleanable == null) {
+                    this.cleanable = CLEANER.register(object, this.resources);
+                }
+            }
+        }
+    }
+
+    /**
+     * The resources of an object and the cleaning action, which must not reference the object
+     */
+    private static final class Resources implements Runnable {
+
+        private final Runnable onDispose;
+        private List<Runnable> actions = new ArrayList<>();
+
+        private Resources(Runnable onDispose) {
+            this.onDispose = onDispose;
+        }
+
+        private synchronized boolean add(Runnable action) {
+            if (this.actions == null) {
+                return false;
+            }
+            this.actions.add(action);
+            return true;
+        }
+
+        private synchronized boolean hasActions() {
+            return this.actions != null && !this.actions.isEmpty();
+        }
+
+        private synchronized boolean isDisposed() {
+            return this.actions == null;
+        }
+
+        @Override
+        public void run() {
+            List<Runnable> actions;
+            synchronized (this) {
+                actions = this.actions;
+                this.actions = null;
+            }
+            if (actions == null) {
+                return;
+            }
+            RuntimeException failure = null;
+            for (Runnable action : actions) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            this.onDispose.run();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
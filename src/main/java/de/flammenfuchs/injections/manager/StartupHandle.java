@@ -0,0 +1,116 @@
+package de.flammenfuchs.injections.manager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle of the start of an {@link InjectionsManager}<br>
+ * The {@link StartupPhase#READY} future completes after the critical phase, the {@link StartupPhase#WARMED} future
+ * after the late methods. If the start fails, both pending futures complete exceptionally with the failure.
+ */
+public class StartupHandle {
+
+    private final long startNanos = System.nanoTime();
+    private final CompletableFuture<StartupHandle> ready = new CompletableFuture<>();
+    private final CompletableFuture<StartupHandle> warmed = new CompletableFuture<>();
+    private final Map<StartupPhase, Long> phaseNanos = new EnumMap<>(StartupPhase.class);
+    private volatile StartupPhase phase = StartupPhase.STARTING;
+
+    StartupHandle() {
+        this.phaseNanos.put(StartupPhase.STARTING, 0L);
+    }
+
+    /**
+     * Get the future of the {@link StartupPhase#READY} phase
+     *
+     * @return a {@link CompletableFuture}, which completes with this handle when the manager is ready
+     */
+    public CompletableFuture<StartupHandle> getReady() {
+        return ready;
+    }
+
+    /**
+     * Get the future of the {@link StartupPhase#WARMED} phase
+     *
+     * @return a {@link CompletableFuture}, which completes with this handle when the late methods completed
+     */
+    public CompletableFuture<StartupHandle> getWarmed() {
+        return warmed;
+    }
+
+    /**
+     * Get the current phase
+     *
+     * @return the last reached {@link StartupPhase}
+     */
+    public StartupPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Get the time from the start until a phase was reached
+     *
+     * @param phase the phase
+     * @return the time in milliseconds or -1 if the phase was not reached yet
+     */
+    public synchronized long getPhaseMillis(StartupPhase phase) {
+        Long nanos = this.phaseNanos.get(phase);
+        return nanos == null ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Get the time from the start until a phase was reached in nanoseconds
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds or -1 if the phase was not reached yet
+     */
+    public synchronized long getPhaseNanos(StartupPhase phase) {
+        return this.phaseNanos.getOrDefault(phase, -1L);
+    }
+
+    /**
+     * Get the time between the {@link StartupPhase#READY} and the {@link StartupPhase#WARMED} phase
+     *
+     * @return the time in milliseconds or -1 if the warm-up is not done yet
+     */
+    public synchronized long getWarmUpMillis() {
+        Long ready = this.phaseNanos.get(StartupPhase.READY);
+        Long warmed = this.phaseNanos.get(StartupPhase.WARMED);
+        return ready == null || warmed == null ? -1 : TimeUnit.NANOSECONDS.toMillis(warmed - ready);
+    }
+
+    /**
+     * Mark a phase as reached and complete its future
+     *
+     * @param phase {@link StartupPhase#READY} or {@link StartupPhase#WARMED}
+     */
+    void reach(StartupPhase phase) {
+        synchronized (this) {
+            this.phaseNanos.put(phase, System.nanoTime() - this.startNanos);
+            this.phase = phase;
+        }
+        (phase == StartupPhase.READY ? this.ready : this.warmed).complete(this);
+    }
+
+    /**
+     * Mark the start as failed and complete the pending futures exceptionally
+     *
+     * @param throwable the failure
+     */
+    void fail(Throwable throwable) {
+        synchronized (this) {
+            this.phaseNanos.put(StartupPhase.FAILED, System.nanoTime() - this.startNanos);
+            this.phase = StartupPhase.FAILED;
+        }
+        this.ready.completeExceptionally(throwable);
+        this.warmed.completeExceptionally(throwable);
+    }
+
+    @Override
+    public String toString() {
+        return "StartupHandle{phase=" + phase + ", ready=" + getPhaseMillis(StartupPhase.READY)
+                + "ms, warmed=" + getPhaseMillis(StartupPhase.WARMED) + "ms}";
+    }
+}
@@ -0,0 +1,24 @@
+package de.flammenfuchs.injections.manager;
+
+/**
+ * The phases of the start of an {@link InjectionsManager}
+ */
+public enum StartupPhase {
+
+    /**
+     * The discovery and processing is running
+     */
+    STARTING,
+    /**
+     * All eager objects are instantiated, injected and started, the late methods may still run
+     */
+    READY,
+    /**
+     * The late methods completed and the start is done
+     */
+    WARMED,
+    /**
+     * The start failed
+     */
+    FAILED
+}
@@ -0,0 +1,45 @@
+package de.flammenfuchs.injections.registry;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown if a supertype or interface is resolved, which is implemented by several registered types
+ * and none or more than one of them is annotated with {@link de.flammenfuchs.injections.annon.Primary}
+ */
+public class AmbiguousDependencyException extends RuntimeException {
+
+    private final Class<?> type;
+    private final List<Class<?>> candidates;
+
+    /**
+     * Create a new exception
+     *
+     * @param type the resolved type
+     * @param candidates the registered types assignable to the resolved type
+     */
+    public AmbiguousDependencyException(Class<?> type, List<Class<?>> candidates) {
+        super("Ambiguous dependency " + type.getName() + ", candidates: " + candidates.stream().map(Class::getName)
+                .collect(Collectors.joining(", ")) + ". Annotate one of them with @Primary");
+        this.type = type;
+        this.candidates = List.copyOf(candidates);
+    }
+
+    /**
+     * Get the resolved type
+     *
+     * @return the type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Get the registered types assignable to the resolved type
+     *
+     * @return a {@link List} with the candidates
+     */
+    public List<Class<?>> getCandidates() {
+        return candidates;
+    }
+}
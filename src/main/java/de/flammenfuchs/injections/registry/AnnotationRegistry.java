@@ -5,6 +5,7 @@ package de.flammenfuchs.injections.registry;
 import de.flammenfuchs.injections.annotationProcessor.ClassAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.FieldAnnotationProcessor;
 import de.flammenfuchs.injections.annotationProcessor.MethodAnnotationProcessor;
+import de.flammenfuchs.injections.annotationProcessor.ParameterAnnotationProcessor;
 import lombok.NonNull;
 
 import java.lang.annotation.Annotation;
@@ -13,13 +14,19 @@ import java.lang.annotation.Target;
 import java.util.*;
 
 /**
- * Registry to register Annotations with their processor
+ * Registry to register Annotations with their processor<br>
+ * The registry is thread safe. Lookups never block: they use immutable snapshots, which are replaced on every
+ * registration. A registration is visible to every lookup on any thread, which starts after it returned.
  */
 public class AnnotationRegistry {
-    private final Map<String, ClassAnnotationProcessor> classAnnotationProcessors = new HashMap<>();
-    private final Map<String, FieldAnnotationProcessor> fieldAnnotationProcessors = new HashMap<>();
-    private final Map<String, MethodAnnotationProcessor> methodAnnotationProcessors = new HashMap<>();
-    private final Map<String, MethodAnnotationProcessor> lateMethodAnnotationProcessors = new HashMap<>();
+    private final Object writeLock = new Object();
+    private volatile Map<String, ClassAnnotationProcessor> classAnnotationProcessors = Map.of();
+    private volatile Map<String, FieldAnnotationProcessor> fieldAnnotationProcessors = Map.of();
+    private volatile Map<String, MethodAnnotationProcessor> methodAnnotationProcessors = Map.of();
+    private volatile Map<String, MethodAnnotationProcessor> lateMethodAnnotationProcessors = Map.of();
+    private volatile Map<String, ParameterAnnotationProcessor> parameterAnnotationProcessors = Map.of();
+
+    private volatile int version;
 
     /**
      * Register a class annotation
@@ -31,7 +38,10 @@ public class AnnotationRegistry {
                                         @NonNull ClassAnnotationProcessor annotationProcessor) {
         checkElementTypeCompatibility(annonClass, ElementType.TYPE);
 
-        this.classAnnotationProcessors.put(annonClass.getName(), annotationProcessor);
+        synchronized (this.writeLock) {
+            this.classAnnotationProcessors = with(this.classAnnotationProcessors, annonClass.getName(), annotationProcessor);
+            this.version++;
+        }
     }
 
     /**
@@ -45,7 +55,10 @@ public class AnnotationRegistry {
 
         checkElementTypeCompatibility(annonClass, ElementType.FIELD);
 
-        this.fieldAnnotationProcessors.put(annonClass.getName(), annotationProcessor);
+        synchronized (this.writeLock) {
+            this.fieldAnnotationProcessors = with(this.fieldAnnotationProcessors, annonClass.getName(), annotationProcessor);
+            this.version++;
+        }
     }
     /**
      * Register a method annotation
@@ -58,7 +71,10 @@ public class AnnotationRegistry {
 
         checkElementTypeCompatibility(annonClass, ElementType.METHOD);
 
-        this.methodAnnotationProcessors.put(annonClass.getName(), annotationProcessor);
+        synchronized (this.writeLock) {
+            this.methodAnnotationProcessors = with(this.methodAnnotationProcessors, annonClass.getName(), annotationProcessor);
+            this.version++;
+        }
     }
 
     /**
@@ -72,7 +88,51 @@ public class AnnotationRegistry {
 
         checkElementTypeCompatibility(annonClass, ElementType.METHOD);
 
-        this.lateMethodAnnotationProcessors.put(annonClass.getName(), annotationProcessor);
+        synchronized (this.writeLock) {
+            this.lateMethodAnnotationProcessors = with(this.lateMethodAnnotationProcessors, annonClass.getName(), annotationProcessor);
+            this.version++;
+        }
+    }
+
+    /**
+     * Register a parameter annotation for the parameters of invoked methods
+     *
+     * @param annonClass the class of the annotation
+     * @param annotationProcessor the {@link ParameterAnnotationProcessor} for the annotation
+     */
+    public void registerParameterAnnotation(@NonNull Class<? extends Annotation> annonClass,
+                                            @NonNull ParameterAnnotationProcessor annotationProcessor) {
+
+        checkElementTypeCompatibility(annonClass, ElementType.PARAMETER);
+
+        synchronized (this.writeLock) {
+            this.parameterAnnotationProcessors = with(this.parameterAnnotationProcessors, annonClass.getName(), annotationProcessor);
+            this.version++;
+        }
+    }
+
+    /**
+     * Create a copy of a map with an additional entry
+     *
+     * @param map the map to be copied
+     * @param key the key of the new entry
+     * @param value the value of the new entry
+     * @return the new unmodifiable map
+     * @param <V> the type of the values
+     */
+    private static <V> Map<String, V> with(Map<String, V> map, String key, V value) {
+        Map<String, V> copy = new HashMap<>(map);
+        copy.put(key, value);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Get the version of the registry, which changes with every registration
+     *
+     * @return the current version
+     */
+    public int getVersion() {
+        return this.version;
     }
 
     /**
@@ -101,7 +161,17 @@ public class AnnotationRegistry {
      * @return the corresponding {@link ClassAnnotationProcessor}
      */
     public ClassAnnotationProcessor getClassAnnotationProcessor(Class<? extends Annotation> annonClass) {
-        return this.classAnnotationProcessors.get(annonClass.getName());
+        return getClassAnnotationProcessor(annonClass.getName());
+    }
+
+    /**
+     * Get the {@link ClassAnnotationProcessor} corresponding to the given annotation name
+     *
+     * @param annonName the name of the corresponding annotation
+     * @return the corresponding {@link ClassAnnotationProcessor}
+     */
+    public ClassAnnotationProcessor getClassAnnotationProcessor(String annonName) {
+        return this.classAnnotationProcessors.get(annonName);
     }
 
     /**
@@ -111,7 +181,17 @@ public class AnnotationRegistry {
      * @return the corresponding {@link FieldAnnotationProcessor}
      */
     public FieldAnnotationProcessor getFieldAnnotationProcessor(Class<? extends Annotation> annonClass) {
-        return this.fieldAnnotationProcessors.get(annonClass.getName());
+        return getFieldAnnotationProcessor(annonClass.getName());
+    }
+
+    /**
+     * Get the {@link FieldAnnotationProcessor} corresponding to the given annotation name
+     *
+     * @param annonName the name of the corresponding annotation
+     * @return the corresponding {@link FieldAnnotationProcessor}
+     */
+    public FieldAnnotationProcessor getFieldAnnotationProcessor(String annonName) {
+        return this.fieldAnnotationProcessors.get(annonName);
     }
 
     /**
@@ -121,7 +201,17 @@ public class AnnotationRegistry {
      * @return the corresponding {@link MethodAnnotationProcessor}
      */
     public MethodAnnotationProcessor getMethodAnnotationProcessor(Class<? extends Annotation> annonClass) {
-        return this.methodAnnotationProcessors.get(annonClass.getName());
+        return getMethodAnnotationProcessor(annonClass.getName());
+    }
+
+    /**
+     * Get the {@link MethodAnnotationProcessor} corresponding to the given annotation name
+     *
+     * @param annonName the name of the corresponding annotation
+     * @return the corresponding {@link MethodAnnotationProcessor}
+     */
+    public MethodAnnotationProcessor getMethodAnnotationProcessor(String annonName) {
+        return this.methodAnnotationProcessors.get(annonName);
     }
 
     /**
@@ -131,7 +221,43 @@ public class AnnotationRegistry {
      * @return the corresponding {@link MethodAnnotationProcessor}
      */
     public MethodAnnotationProcessor getLateMethodAnnotationProcessor(Class<? extends Annotation> annonClass) {
-        return this.lateMethodAnnotationProcessors.get(annonClass.getName());
+        return getLateMethodAnnotationProcessor(annonClass.getName());
+    }
+
+    /**
+     * Get the late {@link MethodAnnotationProcessor} corresponding to the given annotation name
+     *
+     * @param annonName the name of the corresponding annotation
+     * @return the corresponding {@link MethodAnnotationProcessor}
+     */
+    public MethodAnnotationProcessor getLateMethodAnnotationProcessor(String annonName) {
+        return this.lateMethodAnnotationProcessors.get(annonName);
+    }
+
+    /**
+     * Get the {@link ParameterAnnotationProcessor} corresponding to the given annotation
+     *
+     * @param annonClass the corresponding annotation
+     * @return the corresponding {@link ParameterAnnotationProcessor}
+     */
+    public ParameterAnnotationProcessor getParameterAnnotationProcessor(Class<? extends Annotation> annonClass) {
+        return this.parameterAnnotationProcessors.get(annonClass.getName());
+    }
+
+    /**
+     * Get the names of all registered annotations, prefixed with their kind
+     * ({@code class:}, {@code field:}, {@code method:}, {@code late:} or {@code parameter:})
+     *
+     * @return a sorted {@link Set} with the names
+     */
+    public SortedSet<String> getRegisteredAnnotations() {
+        SortedSet<String> names = new TreeSet<>();
+        this.classAnnotationProcessors.keySet().forEach(name -> names.add("class:" + name));
+        this.fieldAnnotationProcessors.keySet().forEach(name -> names.add("field:" + name));
+        this.methodAnnotationProcessors.keySet().forEach(name -> names.add("method:" + name));
+        this.lateMethodAnnotationProcessors.keySet().forEach(name -> names.add("late:" + name));
+        this.parameterAnnotationProcessors.keySet().forEach(name -> names.add("parameter:" + name));
+        return names;
     }
 }
 
@@ -1,23 +1,122 @@
 package de.flammenfuchs.injections.registry;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * Registry to register all dependencies and all discovered objects
+ * Registry to register all dependencies and all discovered objects<br>
+ * The registry is thread safe. Reads never block: they use an immutable snapshot of the registry, which is replaced
+ * on every write. Writes are serialized and linearizable, so a registration is visible to every
+ * resolve on any thread, which starts after the registration returned.<br>
+ * Types can be resolved by their exact registered type or by any supertype or interface. The supertypes are indexed
+ * when a type is registered, so resolving a supertype is a single lookup as well.<br>
+ * Every write copies the registry, so many registrations, e.g. at the start, should be written with one
+ * {@link #registerAll(Consumer)}, which publishes a single snapshot.<br>
+ * After {@link #freeze()} the registry is immutable and compacted into a perfect hash table.
  */
 public class DependencyRegistry {
 
-    private final Map<Class<?>, Object> container = new HashMap<>();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), null);
 
     /**
-     * Resolve a given type
+     * Resolve a given type<br>
+     * A registered type is resolved by its exact type or by any of its supertypes and interfaces. If a supertype
+     * is implemented by several registered types, the one annotated with
+     * {@link de.flammenfuchs.injections.annon.Primary} is resolved.
      *
      * @param clazz the type to be resolved
      * @return an instance of this type or null if not found
      * @param <T> type of clazz
+     * @throws AmbiguousDependencyException if several registered types implement the type and none or more than
+     * one of them is primary
      */
     public <T> T resolve(Class<T> clazz) {
-        return clazz.cast(container.get(clazz));
+        Snapshot snapshot = this.snapshot;
+        return cast(clazz, snapshot.table != null ? snapshot.table.get(clazz) : snapshot.index.get(clazz));
+    }
+
+    /**
+     * Resolve the type of a {@link Key}<br>
+     * Keys created by this registry after {@link #freeze()} are resolved with a single array read.
+     *
+     * @param key the key of the type to be resolved
+     * @return an instance of this type or null if not found
+     * @param <T> type of the key
+     * @throws AmbiguousDependencyException if several registered types implement the type and none or more than
+     * one of them is primary
+     */
+    public <T> T resolve(Key<T> key) {
+        PerfectHashTable table = key.table;
+        if (table != null && table == this.snapshot.table) {
+            return cast(key.getType(), key.slot < 0 ? null : table.get(key.slot));
+        }
+        return resolve(key.getType());
+    }
+
+    /**
+     * Create a {@link Key} of a type. Create keys after {@link #freeze()} to resolve them without a lookup.
+     *
+     * @param clazz the type
+     * @return the new {@link Key}
+     * @param <T> type of clazz
+     */
+    public <T> Key<T> key(Class<T> clazz) {
+        PerfectHashTable table = this.snapshot.table;
+        return new Key<>(clazz, table, table != null ? table.slot(clazz) : -1);
+    }
+
+    /**
+     * Freeze the registry. A frozen registry can't be modified anymore, all registered types and
+     * supertypes are compacted into an immutable perfect hash table. Freezing a frozen registry does nothing.
+     */
+    public void freeze() {
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            if (current.table == null) {
+                this.snapshot = new Snapshot(Map.copyOf(current.container), Map.of(), Map.of(),
+                        PerfectHashTable.of(current.index));
+            }
+        }
+    }
+
+    /**
+     * Check if the registry is frozen
+     *
+     * @return true if {@link #freeze()} was called
+     */
+    public boolean isFrozen() {
+        return this.snapshot.table != null;
+    }
+
+    /**
+     * Resolve a given type with its generic type<br>
+     * A {@link Provider} of a type is created for {@code Provider<Type>}, all other types are resolved directly.
+     *
+     * @param clazz the type to be resolved
+     * @param genericType the generic type, e.g. of a field or parameter
+     * @return an instance of this type or null if not found
+     */
+    public Object resolve(Class<?> clazz, Type genericType) {
+        if (clazz == Provider.class && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> provided) {
+            return provider(provided);
+        }
+        return resolve(clazz);
+    }
+
+    /**
+     * Create a {@link Provider} which resolves the given type when it is used
+     *
+     * @param clazz the type to be resolved
+     * @return the {@link Provider}
+     * @param <T> type of clazz
+     */
+    public <T> Provider<T> provider(Class<T> clazz) {
+        return () -> resolve(clazz);
     }
 
     /**
@@ -27,7 +126,7 @@ public class DependencyRegistry {
      * @param <T> type of the object
      */
     public <T> void register(T t) {
-        this.container.put(t.getClass(), t);
+        registerAll(registrations -> registrations.register(t));
     }
 
     /**
@@ -38,16 +137,58 @@ public class DependencyRegistry {
      * @param <T> the type of the object and the clazz
      */
     public <T> void register(T t, Class<T> clazz) {
-        this.container.put(clazz, t);
+        registerAll(registrations -> registrations.register(t, clazz));
     }
 
     /**
-     * Get all registered instances
+     * Register a lazy type, which is created on the first {@link #resolve(Class)}
+     *
+     * @param clazz the class as which the object has to be registered
+     * @param factory the factory to create the instance
+     * @param initializer the initializer to process the created instance
+     * @param alternativeTypes additional types to register the same instance as
+     * @param <T> the type of the object and the clazz
+     */
+    public <T> void registerLazy(Class<T> clazz, Supplier<T> factory, Consumer<T> initializer,
+                                 Collection<Class<?>> alternativeTypes) {
+        registerAll(registrations -> registrations.registerLazy(clazz, factory, initializer, alternativeTypes));
+    }
+
+    /**
+     * Register several objects with a single write<br>
+     * The registry is copied once and all registrations become visible together, when this method returns.
+     *
+     * @param registrations the action, which adds the registrations
+     */
+    public void registerAll(Consumer<Registrations> registrations) {
+        synchronized (this.writeLock) {
+            Snapshot current = this.snapshot;
+            if (current.table != null) {
+                throw new IllegalStateException("The DependencyRegistry is frozen");
+            }
+            Snapshot copy = new Snapshot(new HashMap<>(current.container), new HashMap<>(current.candidates),
+                    new HashMap<>(current.index), null);
+            Set<Class<?>> modified = new HashSet<>();
+            registrations.accept(new Registrations(copy, modified));
+            copy.select(modified);
+            this.snapshot = copy;
+        }
+    }
+
+    /**
+     * Get all registered instances. Lazy types which were not created yet are not included.
      *
      * @return An unmodifable Map with the type as key and the corresponding instance as value
      */
     public Map<Class<?>, Object> asMap() {
-        return Collections.unmodifiableMap(container);
+        Map<Class<?>, Object> map = new HashMap<>();
+        this.snapshot.container.forEach((type, value) -> {
+            Object instance = value instanceof LazyHolder<?> holder ? holder.getIfCreated() : value;
+            if (instance != null) {
+                map.put(type, instance);
+            }
+        });
+        return Collections.unmodifiableMap(map);
     }
 
     /**
@@ -56,25 +197,175 @@ public class DependencyRegistry {
      * @return amount of how many types are known
      */
     public int getSize() {
-        return this.container.size();
+        return this.snapshot.container.size();
     }
 
     /**
-     * Get a {@link Collection} with all values
+     * Get a {@link Collection} with all values. Lazy types which were not created yet are not included.
      *
      * @return A {@link Collection} with all values (maybe duplicates (if instance is registered as different type))
      */
     public Collection<Object> resolveAll() {
-        return Collections.unmodifiableCollection(this.container.values());
+        return asMap().values();
     }
 
     /**
-     * Get all known types
+     * Get all registered types. Supertypes, which are only resolvable through a registered type, are not included.
      *
-     * @return A {@link Set} with all types
+     * @return An unmodifiable {@link Set} with all types at the time of the call
      */
     public Set<Class<?>> resolveAllTypes() {
-        return Collections.unmodifiableSet(this.container.keySet());
+        return Collections.unmodifiableSet(this.snapshot.container.keySet());
+    }
+
+    private static <T> T cast(Class<T> clazz, Object value) {
+        if (value instanceof Ambiguity ambiguity) {
+            throw new AmbiguousDependencyException(clazz, ambiguity.candidates);
+        }
+        return clazz.cast(value instanceof LazyHolder<?> holder ? holder.get() : value);
+    }
+
+    private static Class<?> implementation(Object value) {
+        return value instanceof LazyHolder<?> holder ? holder.getType() : value.getClass();
+    }
+
+    /**
+     * A state of the registry. Its maps are only modified before the snapshot is published.
+     * Frozen snapshots only keep the registered types and the table, which replaces the index.
+     */
+    private static final class Snapshot {
+
+        private final Map<Class<?>, Object> container;
+        private final Map<Class<?>, Map<Class<?>, Object>> candidates;
+        private final Map<Class<?>, Object> index;
+        private final PerfectHashTable table;
+
+        private Snapshot(Map<Class<?>, Object> container, Map<Class<?>, Map<Class<?>, Object>> candidates,
+                         Map<Class<?>, Object> index, PerfectHashTable table) {
+            this.container = container;
+            this.candidates = candidates;
+            this.index = index;
+            this.table = table;
+        }
+
+        /**
+         * Register a value and add it to the candidates of all supertypes of its type<br>
+         * The candidate maps of the previous snapshot are copied once per write, the index of the modified
+         * supertypes is updated by {@link #select(Set)}.
+         *
+         * @param type the registered type
+         * @param value the instance or {@link LazyHolder}
+         * @param modified the supertypes, whose candidates were already copied by this write
+         */
+        private void put(Class<?> type, Object value, Set<Class<?>> modified) {
+            this.container.put(type, value);
+            this.index.put(type, value);
+            for (Class<?> supertype : TypeHierarchy.supertypes(type)) {
+                Map<Class<?>, Object> assignable = this.candidates.get(supertype);
+                if (modified.add(supertype)) {
+                    assignable = assignable == null ? new LinkedHashMap<>() : new LinkedHashMap<>(assignable);
+                    this.candidates.put(supertype, assignable);
+                }
+                assignable.put(type, value);
+            }
+        }
+
+        /**
+         * Index the modified supertypes, which are not registered themselves
+         *
+         * @param modified the supertypes, whose candidates were modified
+         */
+        private void select(Set<Class<?>> modified) {
+            for (Class<?> supertype : modified) {
+                if (!this.container.containsKey(supertype)) {
+                    this.index.put(supertype, select(this.candidates.get(supertype).values()));
+                }
+            }
+        }
+
+        private static Object select(Collection<Object> values) {
+            List<Object> distinct = new ArrayList<>();
+            for (Object value : values) {
+                if (distinct.stream().noneMatch(existing -> existing == value)) {
+                    distinct.add(value);
+                }
+            }
+            Object selected = TypeHierarchy.selectPrimary(distinct, DependencyRegistry::implementation);
+            return selected != null ? selected
+                    : new Ambiguity(distinct.stream().<Class<?>>map(DependencyRegistry::implementation).toList());
+        }
+    }
+
+    /**
+     * The registrations of a single {@link #registerAll(Consumer)}<br>
+     * The registrations are only valid while the action runs.
+     */
+    public static final class Registrations {
+
+        private final Snapshot copy;
+        private final Set<Class<?>> modified;
+
+        private Registrations(Snapshot copy, Set<Class<?>> modified) {
+            this.copy = copy;
+            this.modified = modified;
+        }
+
+        /**
+         * Register a object
+         *
+         * @param t the object to be registered
+         * @param <T> type of the object
+         * @return these registrations
+         */
+        public <T> Registrations register(T t) {
+            this.copy.put(t.getClass(), t, this.modified);
+            return this;
+        }
+
+        /**
+         * Register a object
+         *
+         * @param t instance of the object
+         * @param clazz the class as which the object has to be registered
+         * @param <T> the type of the object and the clazz
+         * @return these registrations
+         */
+        public <T> Registrations register(T t, Class<T> clazz) {
+            this.copy.put(clazz, t, this.modified);
+            return this;
+        }
+
+        /**
+         * Register a lazy type, which is created on the first {@link DependencyRegistry#resolve(Class)}
+         *
+         * @param clazz the class as which the object has to be registered
+         * @param factory the factory to create the instance
+         * @param initializer the initializer to process the created instance
+         * @param alternativeTypes additional types to register the same instance as
+         * @param <T> the type of the object and the clazz
+         * @return these registrations
+         */
+        public <T> Registrations registerLazy(Class<T> clazz, Supplier<T> factory, Consumer<T> initializer,
+                                              Collection<Class<?>> alternativeTypes) {
+            LazyHolder<T> holder = new LazyHolder<>(clazz, factory, initializer);
+            this.copy.put(clazz, holder, this.modified);
+            for (Class<?> alternativeType : alternativeTypes) {
+                this.copy.put(alternativeType, holder, this.modified);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A supertype implemented by several registered types without a single primary type
+     */
+    private static final class Ambiguity {
+
+        private final List<Class<?>> candidates;
+
+        private Ambiguity(List<Class<?>> candidates) {
+            this.candidates = candidates;
+        }
     }
 
 }
@@ -0,0 +1,35 @@
+package de.flammenfuchs.injections.registry;
+
+/**
+ * A typed handle of a type in a {@link DependencyRegistry}<br>
+ * Keys created after {@link DependencyRegistry#freeze()} store the slot of their type, so
+ * {@link DependencyRegistry#resolve(Key)} is a single array read.
+ *
+ * @param <T> the type
+ */
+public final class Key<T> {
+
+    private final Class<T> type;
+    final PerfectHashTable table;
+    final int slot;
+
+    Key(Class<T> type, PerfectHashTable table, int slot) {
+        this.type = type;
+        this.table = table;
+        this.slot = slot;
+    }
+
+    /**
+     * Get the type of the key
+     *
+     * @return the type
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "Key[" + type.getName() + "]";
+    }
+}
@@ -0,0 +1,177 @@
+package de.flammenfuchs.injections.registry;
+
+import lombok.SneakyThrows;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A holder of a lazy instance, which is created and initialized once on the first access.<br>
+ * The first thread claims the creation, other threads wait until the instance is initialized. No lock is held
+ * while the instance is initialized: the creating thread can access the instance while it is initialized, so lazy
+ * instances can depend on themselves. If threads wait for each other's lazy instances in a cycle, the waiting
+ * thread gets the instance, which is still initialized, instead of waiting forever.<br>
+ * A failed creation is stored and rethrown on every access.
+ *
+ * @param <T> the type of the instance
+ */
+final class LazyHolder<T> {
+
+    private static final Map<Thread, LazyHolder<?>> WAITING = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final Consumer<T> initializer;
+    private final AtomicReference<Creation<T>> creation = new AtomicReference<>();
+
+    private volatile T instance;
+
+    LazyHolder(Class<T> type, Supplier<T> factory, Consumer<T> initializer) {
+        this.type = type;
+        this.factory = factory;
+        this.initializer = initializer;
+    }
+
+    /**
+     * Get the instance and create it if needed
+     *
+     * @return the instance
+     * @throws IllegalStateException if the constructor of the instance depends on the instance itself
+     */
+    T get() {
+        T value = this.instance;
+        if (value != null) {
+            return value;
+        }
+        Creation<T> current = this.creation.get();
+        if (current == null) {
+            Creation<T> claimed = new Creation<>(Thread.currentThread());
+            if (this.creation.compareAndSet(null, claimed)) {
+                return create(claimed);
+            }
+            current = this.creation.get();
+        }
+        if (current.thread == Thread.currentThread() && !current.future.isDone()) {
+            return current.initializingOrFail(this.type);
+        }
+        return await(current);
+    }
+
+    /**
+     * Create and initialize the instance on the current thread, which claimed the creation
+     *
+     * @param claimed the claimed creation
+     * @return the instance
+     */
+    @SneakyThrows
+    private T create(Creation<T> claimed) {
+        try {
+            T value = this.factory.get();
+            claimed.initializing = value;
+            this.initializer.accept(value);
+            this.instance = value;
+            claimed.future.complete(value);
+            return value;
+        } catch (Throwable throwable) {
+            claimed.future.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            claimed.initializing = null;
+        }
+    }
+
+    /**
+     * Wait until another thread created the instance<br>
+     * If the creating thread waits for a lazy instance, whose creation waits for the current thread, the instance
+     * is returned while it is still initialized.
+     *
+     * @param current the creation of the other thread
+     * @return the instance
+     */
+    @SneakyThrows
+    private T await(Creation<T> current) {
+        if (!current.future.isDone()) {
+            Thread thread = Thread.currentThread();
+            WAITING.put(thread, this);
+            try {
+                if (waitsFor(current.thread, thread)) {
+                    return current.initializingOrFail(this.type);
+                }
+                return current.future.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            } finally {
+                WAITING.remove(thread);
+            }
+        }
+        try {
+            return current.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Check if a thread waits directly or transitively for a creation of another thread
+     *
+     * @param thread the waiting thread
+     * @param target the other thread
+     * @return true if the thread waits for the other thread
+     */
+    private static boolean waitsFor(Thread thread, Thread target) {
+        for (int depth = 0; thread != null && depth <= WAITING.size(); depth++) {
+            if (thread == target) {
+                return true;
+            }
+            LazyHolder<?> holder = WAITING.get(thread);
+            Creation<?> creation = holder == null ? null : holder.creation.get();
+            thread = creation == null || creation.future.isDone() ? null : creation.thread;
+        }
+        return false;
+    }
+
+    /**
+     * Get the type of the instance
+     *
+     * @return the type
+     */
+    Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Get the instance without creating it
+     *
+     * @return the instance or null if it wasn't created yet
+     */
+    T getIfCreated() {
+        return this.instance;
+    }
+
+    /**
+     * The creation of the instance, claimed by one thread
+     */
+    private static final class Creation<T> {
+
+        private final Thread thread;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile T initializing;
+
+        private Creation(Thread thread) {
+            this.thread = thread;
+        }
+
+        private T initializingOrFail(Class<T> type) {
+            T value = this.initializing;
+            if (value == null) {
+                throw new IllegalStateException("Circular dependency in the constructor of lazy " + type.getName());
+            }
+            return value;
+        }
+    }
+}
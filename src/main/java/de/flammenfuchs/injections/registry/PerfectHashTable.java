@@ -0,0 +1,150 @@
+package de.flammenfuchs.injections.registry;
+
+import java.util.*;
+
+/**
+ * An immutable table of classes and values with a minimal collision free slot for every class.<br>
+ * The classes are distributed to buckets first. For every bucket a displacement is searched, which moves all of its
+ * classes to free slots, so a lookup needs a single probe: the displacement of the bucket and the slot of the class.
+ */
+final class PerfectHashTable {
+
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+
+    private final Class<?>[] keys;
+    private final Object[] values;
+    private final int[] displacements;
+    private final int mask;
+    private final int bucketMask;
+
+    private PerfectHashTable(Class<?>[] keys, Object[] values, int[] displacements) {
+        this.keys = keys;
+        this.values = values;
+        this.displacements = displacements;
+        this.mask = keys.length - 1;
+        this.bucketMask = displacements.length - 1;
+    }
+
+    /**
+     * Build a table from a {@link Map}
+     *
+     * @param map the classes with their values
+     * @return the new table
+     */
+    static PerfectHashTable of(Map<Class<?>, Object> map) {
+        int size = Math.max(1, map.size());
+        int buckets = Integer.highestOneBit(Math.max(1, size / 2));
+        for (int capacity = tableSize(size); ; capacity <<= 1) {
+            PerfectHashTable table = tryBuild(map, capacity, buckets);
+            if (table != null) {
+                return table;
+            }
+        }
+    }
+
+    private static int tableSize(int size) {
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        return size * 5 > capacity * 4 ? capacity << 1 : capacity;
+    }
+
+    private static PerfectHashTable tryBuild(Map<Class<?>, Object> map, int capacity, int buckets) {
+        List<List<Class<?>>> grouped = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (Class<?> key : map.keySet()) {
+            grouped.get(hash(key, 0) & (buckets - 1)).add(key);
+        }
+        Integer[] order = new Integer[buckets];
+        for (int i = 0; i < buckets; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer bucket) -> grouped.get(bucket).size()).reversed());
+
+        Class<?>[] keys = new Class<?>[capacity];
+        Object[] values = new Object[capacity];
+        int[] displacements = new int[buckets];
+        int[] slots = new int[map.size()];
+        for (int bucket : order) {
+            List<Class<?>> members = grouped.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            int displacement = findDisplacement(members, keys, slots);
+            if (displacement < 0) {
+                return null;
+            }
+            displacements[bucket] = displacement;
+            for (Class<?> key : members) {
+                int slot = hash(key, displacement) & (capacity - 1);
+                keys[slot] = key;
+                values[slot] = map.get(key);
+            }
+        }
+        return new PerfectHashTable(keys, values, displacements);
+    }
+
+    private static int findDisplacement(List<Class<?>> members, Class<?>[] keys, int[] slots) {
+        search:
+        for (int displacement = 1; displacement < MAX_DISPLACEMENT; displacement++) {
+            for (int i = 0; i < members.size(); i++) {
+                int slot = hash(members.get(i), displacement) & (keys.length - 1);
+                if (keys[slot] != null) {
+                    continue search;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (slots[j] == slot) {
+                        continue search;
+                    }
+                }
+                slots[i] = slot;
+            }
+            return displacement;
+        }
+        return -1;
+    }
+
+    private static int hash(Class<?> key, int seed) {
+        int hash = System.identityHashCode(key) ^ (seed * 0x9E3779B9);
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Find the slot of a class
+     *
+     * @param key the class
+     * @return the slot or -1 if the class is not in the table
+     */
+    int slot(Class<?> key) {
+        int slot = hash(key, this.displacements[hash(key, 0) & this.bucketMask]) & this.mask;
+        return this.keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * Get the value of a class
+     *
+     * @param key the class
+     * @return the value or null if the class is not in the table
+     */
+    Object get(Class<?> key) {
+        int slot = hash(key, this.displacements[hash(key, 0) & this.bucketMask]) & this.mask;
+        return this.keys[slot] == key ? this.values[slot] : null;
+    }
+
+    /**
+     * Get the value of a slot
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    Object get(int slot) {
+        return this.values[slot];
+    }
+}
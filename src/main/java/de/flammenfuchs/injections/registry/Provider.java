@@ -0,0 +1,18 @@
+package de.flammenfuchs.injections.registry;
+
+/**
+ * Provides an instance from the {@link DependencyRegistry} when it is needed.<br>
+ * Inject a provider instead of the instance to defer the creation of a lazy class to its first usage.
+ *
+ * @param <T> the type of the provided instance
+ */
+@FunctionalInterface
+public interface Provider<T> {
+
+    /**
+     * Resolve the instance
+     *
+     * @return the instance or null if not found
+     */
+    T get();
+}
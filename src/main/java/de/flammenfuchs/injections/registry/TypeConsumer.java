@@ -1,19 +1,73 @@
 package de.flammenfuchs.injections.registry;
 
-import lombok.RequiredArgsConstructor;
+import lombok.NonNull;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
- * A Consumer which is fed with all discovered objects with the specified type
+ * A Consumer which is fed with all discovered objects with the specified type<br>
+ * Consumers created with {@link #async(Class, Consumer)} or {@link #batched(Class, int, Consumer)} are fed on the
+ * executor of the {@link TypeConsumerRegistry}. Each of them is fed by one thread at a time in the order
+ * of the consumed objects.
  *
  * @param <T> the type of the consumed objects
  */
-@RequiredArgsConstructor
 public class TypeConsumer<T> {
 
     private final Class<T> clazz;
     private final Consumer<T> consumer;
+    private final Consumer<List<T>> batchConsumer;
+    private final boolean async;
+    private final int batchSize;
+
+    /**
+     * Create a consumer, which is fed synchronously
+     *
+     * @param clazz the type of the consumed objects
+     * @param consumer the consumer
+     */
+    public TypeConsumer(Class<T> clazz, Consumer<T> consumer) {
+        this(clazz, consumer, null, false, 1);
+    }
+
+    private TypeConsumer(Class<T> clazz, Consumer<T> consumer, Consumer<List<T>> batchConsumer, boolean async,
+                         int batchSize) {
+        this.clazz = clazz;
+        this.consumer = consumer;
+        this.batchConsumer = batchConsumer;
+        this.async = async;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Create a consumer, which is fed asynchronously
+     *
+     * @param clazz the type of the consumed objects
+     * @param consumer the consumer
+     * @return the new {@link TypeConsumer}
+     * @param <T> the type of the consumed objects
+     */
+    public static <T> TypeConsumer<T> async(@NonNull Class<T> clazz, @NonNull Consumer<T> consumer) {
+        return new TypeConsumer<>(clazz, consumer, null, true, 1);
+    }
+
+    /**
+     * Create a consumer, which is fed asynchronously with batches of all objects consumed since the last batch
+     *
+     * @param clazz the type of the consumed objects
+     * @param maxBatchSize the maximum size of a batch
+     * @param consumer the consumer of the batches
+     * @return the new {@link TypeConsumer}
+     * @param <T> the type of the consumed objects
+     */
+    public static <T> TypeConsumer<T> batched(@NonNull Class<T> clazz, int maxBatchSize,
+                                              @NonNull Consumer<List<T>> consumer) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The batch size has to be positive");
+        }
+        return new TypeConsumer<>(clazz, null, consumer, true, maxBatchSize);
+    }
 
     /**
      * Consume a object
@@ -22,7 +76,71 @@ public class TypeConsumer<T> {
      */
     public void consume(Object object) {
         if (clazz.isInstance(object)) {
-            this.consumer.accept(clazz.cast(object));
+            accept(object);
         }
     }
+
+    /**
+     * Check if objects of a class are consumed
+     *
+     * @param type the class of the objects
+     * @return true if the objects are instances of the consumed type
+     */
+    boolean accepts(Class<?> type) {
+        return this.clazz.isAssignableFrom(type);
+    }
+
+    /**
+     * Consume an object, which is known to be an instance of the consumed type
+     *
+     * @param object the object to be consumed
+     */
+    void accept(Object object) {
+        if (this.batchConsumer != null) {
+            this.batchConsumer.accept(List.of(this.clazz.cast(object)));
+        } else {
+            this.consumer.accept(this.clazz.cast(object));
+        }
+    }
+
+    /**
+     * Consume a batch of objects, which are known to be instances of the consumed type
+     *
+     * @param objects the objects to be consumed
+     */
+    @SuppressWarnings("unchecked")
+    void acceptAll(List<Object> objects) {
+        if (this.batchConsumer != null) {
+            this.batchConsumer.accept((List<T>) List.copyOf(objects));
+        } else {
+            objects.forEach(this::accept);
+        }
+    }
+
+    /**
+     * Get the type of the consumed objects
+     *
+     * @return the class of the consumed type
+     */
+    Class<T> getType() {
+        return this.clazz;
+    }
+
+    /**
+     * Check if the consumer is fed asynchronously
+     *
+     * @return true if it is fed on the executor of the {@link TypeConsumerRegistry}
+     */
+    boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Get the maximum size of a batch
+     *
+     * @return the maximum size, 1 if the consumer is not batched
+     */
+    int getBatchSize() {
+        return this.batchSize;
+    }
 }
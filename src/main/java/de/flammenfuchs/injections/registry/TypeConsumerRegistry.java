@@ -1,16 +1,36 @@
 package de.flammenfuchs.injections.registry;
 
+import de.flammenfuchs.javalib.logging.Logger;
 import lombok.NonNull;
+import lombok.SneakyThrows;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Registry to register a {@link TypeConsumer}
+ * Registry to register a {@link TypeConsumer}<br>
+ * The registry is thread safe. Objects are forwarded to a snapshot of the consumers, so registering
+ * consumers never blocks or disturbs a running {@link #consume(Object)}.<br>
+ * The matching consumers are cached for every concrete class, so an object is only forwarded to
+ * the consumers of its type. The cache is replaced when a consumer is registered.<br>
+ * Asynchronous consumers are queued and fed on the async executor. {@link #awaitDeliveries()} waits until
+ * all queued objects are delivered. Every failure of an asynchronous consumer is logged.
  */
 public class TypeConsumerRegistry {
 
-    private final List<TypeConsumer<?>> registered = new ArrayList<>();
+    private final Object writeLock = new Object();
+    private final Object drainLock = new Object();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile Dispatch dispatch = new Dispatch(new Delivery[0]);
+    private volatile Executor asyncExecutor;
+    private volatile Logger logger;
 
     /**
      * Register a {@link TypeConsumer}
@@ -19,17 +39,250 @@ public class TypeConsumerRegistry {
      * @param <T> type which is consumed
      */
     public <T> void register(@NonNull TypeConsumer<?> typeConsumer) {
-        this.registered.add(typeConsumer);
+        synchronized (this.writeLock) {
+            Delivery[] deliveries = this.dispatch.deliveries;
+            Delivery[] copy = new Delivery[deliveries.length + 1];
+            System.arraycopy(deliveries, 0, copy, 0, deliveries.length);
+            copy[deliveries.length] = new Delivery(typeConsumer);
+            this.dispatch = new Dispatch(copy);
+        }
     }
 
     /**
-     * Forward an object to all TypeConsumers
+     * Set the {@link Executor} to feed asynchronous consumers on. Without an executor, a bounded pool of
+     * daemon threads is created on the first asynchronous delivery.
+     *
+     * @param executor the executor
+     */
+    public void setAsyncExecutor(@NonNull Executor executor) {
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Set the {@link Logger} to log failures of asynchronous consumers with
+     *
+     * @param logger the logger
+     */
+    public void setLogger(@NonNull Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Forward an object to all TypeConsumers of its type<br>
+     * Asynchronous consumers are only queued, so this method does not wait for them.
      *
      * @param object the object to be forwarded
      */
     public void consume(Object object) {
-        this.registered.forEach(typeConsumer -> {
-            typeConsumer.consume(object);
+        if (object == null) {
+            return;
+        }
+        for (Delivery delivery : this.dispatch.get(object.getClass())) {
+            if (delivery.queue == null) {
+                delivery.consumer.accept(object);
+            } else {
+                this.pending.incrementAndGet();
+                delivery.pending.incrementAndGet();
+                delivery.queue.add(object);
+                schedule(delivery);
+            }
+        }
+    }
+
+    /**
+     * Wait until all objects queued for asynchronous consumers are delivered<br>
+     * If an asynchronous consumer failed since the last call, its first failure is thrown.
+     */
+    @SneakyThrows
+    public void awaitDeliveries() {
+        synchronized (this.drainLock) {
+            while (this.pending.get() > 0) {
+                this.drainLock.wait();
+            }
+        }
+        throwFailure();
+    }
+
+    /**
+     * Wait until all objects queued for asynchronous consumers are delivered or the timeout passed<br>
+     * If an asynchronous consumer failed since the last call, its first failure is thrown.
+     *
+     * @param timeoutMillis the maximum time to wait in milliseconds
+     * @return false if objects are still pending after the timeout
+     */
+    @SneakyThrows
+    public boolean awaitDeliveries(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (this.drainLock) {
+            while (this.pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                this.drainLock.wait(remaining);
+            }
+        }
+        throwFailure();
+        return true;
+    }
+
+    @SneakyThrows
+    private void throwFailure() {
+        Throwable throwable = this.failure.getAndSet(null);
+        if (throwable != null) {
+            throw throwable;
+        }
+    }
+
+    /**
+     * Get the number of objects queued for asynchronous consumers, which are not delivered yet
+     *
+     * @return the number of pending deliveries
+     */
+    public long getPendingDeliveries() {
+        return this.pending.get();
+    }
+
+    /**
+     * Describe the asynchronous consumers, which have not received all of their queued objects yet
+     *
+     * @return the consumed type and the number of pending objects of each consumer
+     */
+    public List<String> getPendingConsumers() {
+        List<String> pendingConsumers = new ArrayList<>();
+        for (Delivery delivery : this.dispatch.deliveries) {
+            long count = delivery.pending.get();
+            if (count > 0) {
+                pendingConsumers.add(delivery.consumer.getType().getName() + " (" + count + " pending)");
+            }
+        }
+        return pendingConsumers;
+    }
+
+    /**
+     * Schedule the delivery of the queue of a consumer, if it is not scheduled yet
+     *
+     * @param delivery the delivery of the consumer
+     */
+    private void schedule(Delivery delivery) {
+        if (delivery.scheduled.compareAndSet(false, true)) {
+            try {
+                getAsyncExecutor().execute(() -> drain(delivery));
+            } catch (RejectedExecutionException e) {
+                drain(delivery);
+            }
+        }
+    }
+
+    /**
+     * Deliver the queue of a consumer until it is empty
+     *
+     * @param delivery the delivery of the consumer
+     */
+    private void drain(Delivery delivery) {
+        int batchSize = delivery.consumer.getBatchSize();
+        try {
+            List<Object> batch = new ArrayList<>(batchSize);
+            while (true) {
+                Object object;
+                while (batch.size() < batchSize && (object = delivery.queue.poll()) != null) {
+                    batch.add(object);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                try {
+                    delivery.consumer.acceptAll(batch);
+                } catch (Throwable throwable) {
+                    this.failure.compareAndSet(null, throwable);
+                    Logger logger = this.logger;
+                    if (logger != null) {
+                        logger.err("Asynchronous type consumer failed: " + throwable);
+                    }
+                } finally {
+                    delivery.pending.addAndGet(-batch.size());
+                    delivered(batch.size());
+                    batch.clear();
+                }
+            }
+        } finally {
+            delivery.scheduled.set(false);
+        }
+        if (!delivery.queue.isEmpty()) {
+            schedule(delivery);
+        }
+    }
+
+    private void delivered(int count) {
+        if (this.pending.addAndGet(-count) == 0) {
+            synchronized (this.drainLock) {
+                this.drainLock.notifyAll();
+            }
+        }
+    }
+
+    private Executor getAsyncExecutor() {
+        Executor executor = this.asyncExecutor;
+        if (executor == null) {
+            synchronized (this.writeLock) {
+                if (this.asyncExecutor == null) {
+                    this.asyncExecutor = createDefaultExecutor();
+                }
+                executor = this.asyncExecutor;
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createDefaultExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "injections-consumer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * A registered consumer with the queue of its asynchronous deliveries
+     */
+    private static final class Delivery {
+
+        private final TypeConsumer<?> consumer;
+        private final Queue<Object> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong pending = new AtomicLong();
+
+        private Delivery(TypeConsumer<?> consumer) {
+            this.consumer = consumer;
+            this.queue = consumer.isAsync() ? new ConcurrentLinkedQueue<>() : null;
+        }
+    }
+
+    /**
+     * The consumers matching each concrete class in the order of their registration
+     */
+    private static final class Dispatch extends ClassValue<Delivery[]> {
+
+        private final Delivery[] deliveries;
+
+        private Dispatch(Delivery[] deliveries) {
+            this.deliveries = deliveries;
+        }
+
+        @Override
+        protected Delivery[] computeValue(Class<?> type) {
+            List<Delivery> matching = new ArrayList<>();
+            for (Delivery delivery : this.deliveries) {
+                if (delivery.consumer.accepts(type)) {
+                    matching.add(delivery);
+                }
+            }
+            return matching.toArray(Delivery[]::new);
+        }
     }
 }
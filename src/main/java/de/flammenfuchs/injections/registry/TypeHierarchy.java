@@ -0,0 +1,85 @@
+package de.flammenfuchs.injections.registry;
+
+import de.flammenfuchs.injections.annon.Primary;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Utilities to resolve types by their supertypes and interfaces
+ */
+public final class TypeHierarchy {
+
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private TypeHierarchy() {
+    }
+
+    /**
+     * Get all superclasses and interfaces of a type, except {@link Object}, the type itself and the types of the
+     * Java platform (e.g. {@link Runnable} or {@link java.io.Serializable}), which are implemented by too many
+     * unrelated classes to resolve them by their implementation
+     *
+     * @param clazz the type
+     * @return a {@link Set} with all supertypes, the nearest first
+     */
+    public static Set<Class<?>> supertypes(Class<?> clazz) {
+        Set<Class<?>> supertypes = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            Class<?> superclass = current.getSuperclass();
+            if (superclass != null && !isPlatformType(superclass) && supertypes.add(superclass)) {
+                queue.add(superclass);
+            }
+            for (Class<?> anInterface : current.getInterfaces()) {
+                if (!isPlatformType(anInterface) && supertypes.add(anInterface)) {
+                    queue.add(anInterface);
+                }
+            }
+        }
+        return supertypes;
+    }
+
+    /**
+     * Check if a type belongs to the Java platform. Platform types never extend types outside of the platform.
+     *
+     * @param clazz the type
+     * @return true if the type is in a {@code java}, {@code javax}, {@code jdk}, {@code sun} or {@code com.sun} package
+     */
+    public static boolean isPlatformType(Class<?> clazz) {
+        String packageName = clazz.getPackageName();
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (packageName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Select one of several candidates for a type. A single candidate is always selected, otherwise the only
+     * candidate annotated with {@link Primary}.
+     *
+     * @param candidates the distinct candidates
+     * @param implementation the function to get the implementation class of a candidate
+     * @return the selected candidate or null if the candidates are ambiguous
+     * @param <T> the type of the candidates
+     */
+    public static <T> T selectPrimary(Collection<T> candidates, Function<T, Class<?>> implementation) {
+        if (candidates.size() == 1) {
+            return candidates.iterator().next();
+        }
+        T primary = null;
+        for (T candidate : candidates) {
+            if (implementation.apply(candidate).isAnnotationPresent(Primary.class)) {
+                if (primary != null) {
+                    return null;
+                }
+                primary = candidate;
+            }
+        }
+        return primary;
+    }
+}
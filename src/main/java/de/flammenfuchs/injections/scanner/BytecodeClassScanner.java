@@ -0,0 +1,203 @@
+package de.flammenfuchs.injections.scanner;
+
+import de.flammenfuchs.javalib.reflect.scanner.DefaultClassScanner;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * A {@link DefaultClassScanner} which reads the annotations of all classes from their class files and only
+ * loads the classes, which are annotated with an accepted annotation.<br>
+ * Annotations which are annotated with an accepted annotation (meta-annotations) are accepted as well.
+ * Only directories and jar files are read. If a target contains classes from other sources,
+ * the target is scanned by the {@link DefaultClassScanner}.
+ */
+public class BytecodeClassScanner extends DefaultClassScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final String topPackage;
+    private final ClassLoader classLoader;
+    private final String[] ignoredPackages;
+    private final Predicate<String> annotationFilter;
+
+    private final Map<String, Boolean> acceptedAnnotations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new scanner
+     *
+     * @param topPackage the top package
+     * @param classLoader the {@link ClassLoader} to scan
+     * @param ignoredPackages all packages to be ignored
+     * @param annotationFilter a filter for the names of the accepted annotations
+     */
+    public BytecodeClassScanner(String topPackage, ClassLoader classLoader, String[] ignoredPackages,
+                                Predicate<String> annotationFilter) {
+        super(topPackage, classLoader);
+        super.addIgnoredPackages(ignoredPackages);
+        this.topPackage = topPackage;
+        this.classLoader = classLoader;
+        this.ignoredPackages = ignoredPackages;
+        this.annotationFilter = annotationFilter;
+    }
+
+    @Override
+    @SneakyThrows
+    public List<Class<?>> scan() {
+        String path = topPackage.replace('.', '/');
+        List<URL> roots = Collections.list(classLoader.getResources(path));
+        for (URL root : roots) {
+            if (!"file".equals(root.getProtocol()) && !"jar".equals(root.getProtocol())) {
+                return super.scan();
+            }
+        }
+
+        Set<String> classNames = new LinkedHashSet<>();
+        for (URL root : roots) {
+            if ("file".equals(root.getProtocol())) {
+                scanDirectory(Path.of(root.toURI()), path, classNames);
+            } else {
+                scanJar(root, path, classNames);
+            }
+        }
+
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            classes.add(Class.forName(className, false, classLoader));
+        }
+        return classes;
+    }
+
+    /**
+     * Read all class files in a directory
+     *
+     * @param directory the directory of the top package
+     * @param path the path of the top package
+     * @param classNames the {@link Set} to put the names of the accepted classes in
+     */
+    @SneakyThrows
+    private void scanDirectory(Path directory, String path, Set<String> classNames) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))
+                    .sorted()
+                    .forEach(file -> {
+                        String relative = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                        String entry = path.isEmpty() ? relative : path + "/" + relative;
+                        try {
+                            checkClass(entry, Files.readAllBytes(file), classNames);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Read all class files of the top package in a jar
+     *
+     * @param root the {@link URL} of the top package in the jar
+     * @param path the path of the top package
+     * @param classNames the {@link Set} to put the names of the accepted classes in
+     */
+    private void scanJar(URL root, String path, Set<String> classNames) throws IOException {
+        URLConnection connection = root.openConnection();
+        connection.setUseCaches(false);
+        try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+            String prefix = path.isEmpty() ? "" : path + "/";
+            for (JarEntry entry : Collections.list(jar.entries())) {
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix)
+                        || !entry.getName().endsWith(CLASS_SUFFIX)) {
+                    continue;
+                }
+                try (InputStream in = jar.getInputStream(entry)) {
+                    checkClass(entry.getName(), in.readAllBytes(), classNames);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a class file and add the class, if it is accepted
+     *
+     * @param entry the path of the class file
+     * @param bytes the bytes of the class file
+     * @param classNames the {@link Set} to put the name of the class in
+     */
+    private void checkClass(String entry, byte[] bytes, Set<String> classNames) throws IOException {
+        if (entry.endsWith("module-info.class") || entry.endsWith("package-info.class")) {
+            return;
+        }
+        ClassFileReader reader = ClassFileReader.read(bytes);
+        if (reader.isAnnotation() || isIgnored(reader.getClassName())) {
+            return;
+        }
+        for (String annotation : reader.getAnnotations()) {
+            if (isAccepted(annotation)) {
+                classNames.add(reader.getClassName());
+                return;
+            }
+        }
+    }
+
+    private boolean isIgnored(String className) {
+        for (String ignored : ignoredPackages) {
+            if (className.startsWith(ignored + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if an annotation is accepted directly or through one of its meta-annotations.
+     * The result is cached for each annotation.
+     *
+     * @param annotation the name of the annotation
+     * @return true if the annotation is accepted
+     */
+    private boolean isAccepted(String annotation) {
+        if (annotationFilter.test(annotation)) {
+            return true;
+        }
+        Boolean accepted = acceptedAnnotations.get(annotation);
+        if (accepted != null) {
+            return accepted;
+        }
+        acceptedAnnotations.put(annotation, false);
+        accepted = isMetaAnnotated(annotation);
+        acceptedAnnotations.put(annotation, accepted);
+        return accepted;
+    }
+
+    private boolean isMetaAnnotated(String annotation) {
+        if (annotation.startsWith("java.") || annotation.startsWith("javax.")) {
+            return false;
+        }
+        try (InputStream in = classLoader.getResourceAsStream(annotation.replace('.', '/') + CLASS_SUFFIX)) {
+            if (in == null) {
+                return false;
+            }
+            for (String metaAnnotation : ClassFileReader.read(in.readAllBytes()).getAnnotations()) {
+                if (isAccepted(metaAnnotation)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
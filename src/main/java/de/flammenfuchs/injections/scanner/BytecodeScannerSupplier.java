@@ -0,0 +1,24 @@
+package de.flammenfuchs.injections.scanner;
+
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.registry.AnnotationRegistry;
+import de.flammenfuchs.javalib.reflect.scanner.ClassScanner;
+
+/**
+ * A {@link InjectionsBuilder.ClassScannerSupplier} which creates a {@link BytecodeClassScanner} for every target.
+ * Only classes annotated with a class annotation of the {@link AnnotationRegistry} are loaded.
+ */
+public class BytecodeScannerSupplier implements InjectionsBuilder.ClassScannerSupplier {
+
+    @Override
+    public ClassScanner supply(ClassLoader loader, String topPackage, String[] ignoredPackages) {
+        return new BytecodeClassScanner(topPackage, loader, ignoredPackages, annotation -> true);
+    }
+
+    @Override
+    public ClassScanner supply(ClassLoader loader, String topPackage, String[] ignoredPackages,
+                               AnnotationRegistry annotationRegistry) {
+        return new BytecodeClassScanner(topPackage, loader, ignoredPackages,
+                annotation -> annotationRegistry.getClassAnnotationProcessor(annotation) != null);
+    }
+}
@@ -0,0 +1,161 @@
+package de.flammenfuchs.injections.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal reader for the class file format, which only reads the name of a class and the types of
+ * its runtime visible annotations from the bytes, without loading the class.
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String className;
+    private final int accessFlags;
+    private final List<String> annotations;
+
+    private ClassFileReader(String className, int accessFlags, List<String> annotations) {
+        this.className = className;
+        this.accessFlags = accessFlags;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Read a class file
+     *
+     * @param bytes the bytes of the class file
+     * @return the {@link ClassFileReader} with the read values
+     * @throws IOException if the bytes are not a valid class file
+     */
+    static ClassFileReader read(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid class file");
+        }
+        in.skipBytes(4);
+
+        int poolSize = in.readUnsignedShort();
+        String[] utf8 = new String[poolSize];
+        int[] classNames = new int[poolSize];
+        for (int i = 1; i < poolSize; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classNames[i] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.skipBytes(2);
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {
+                    in.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Invalid constant pool tag " + tag);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        String className = utf8[classNames[in.readUnsignedShort()]].replace('/', '.');
+        in.skipBytes(2);
+        in.skipBytes(in.readUnsignedShort() * 2);
+        skipMembers(in);
+        skipMembers(in);
+
+        List<String> annotations = new ArrayList<>();
+        int attributes = in.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                in.skipBytes(length);
+                continue;
+            }
+            int count = in.readUnsignedShort();
+            for (int j = 0; j < count; j++) {
+                annotations.add(toClassName(utf8[in.readUnsignedShort()]));
+                skipElementValuePairs(in);
+            }
+        }
+        return new ClassFileReader(className, accessFlags, annotations);
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int members = in.readUnsignedShort();
+        for (int i = 0; i < members; i++) {
+            in.skipBytes(6);
+            int attributes = in.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e' -> in.skipBytes(4);
+            case '@' -> {
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+            }
+            case '[' -> {
+                int values = in.readUnsignedShort();
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(in);
+                }
+            }
+            default -> in.skipBytes(2);
+        }
+    }
+
+    /**
+     * Convert a field descriptor like {@code Lde/example/Scoped;} to a class name
+     *
+     * @param descriptor the descriptor
+     * @return the class name
+     */
+    private static String toClassName(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /**
+     * Get the binary name of the class
+     *
+     * @return the class name
+     */
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * Check if the class is an annotation type
+     *
+     * @return true if the class is an annotation
+     */
+    boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    /**
+     * Get the names of all runtime visible annotations of the class
+     *
+     * @return a {@link List} with the annotation names
+     */
+    List<String> getAnnotations() {
+        return annotations;
+    }
+}
@@ -0,0 +1,494 @@
+package de.flammenfuchs.injections.shutdown;
+
+import de.flammenfuchs.injections.annon.DependsOn;
+import de.flammenfuchs.injections.annon.Inject;
+import de.flammenfuchs.injections.graph.DependencyCycleException;
+import de.flammenfuchs.injections.graph.DependencyGraph;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+import lombok.NonNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinates the shutdown of an {@link de.flammenfuchs.injections.manager.InjectionsManager}<br>
+ * Hooks of objects run in reverse dependency order: an object is shut down before the objects it depends on.
+ * Independent hooks run in parallel on the executor. The first hooks run before all other hooks and share one
+ * deadline with them, hooks still running afterwards are abandoned. The last hooks run after the other hooks
+ * completed or were abandoned and have a deadline of their own, so a slow hook can't abandon them.<br>
+ * A failing hook is logged and does not stop the other hooks.
+ */
+public class ShutdownCoordinator {
+
+    private static final ClassValue<Set<Class<?>>> INJECTED_TYPES = new ClassValue<>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            return findInjectedTypes(type);
+        }
+    };
+
+    private final Logger logger;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final boolean ownsExecutor;
+    private final Set<Hook> hooks = new LinkedHashSet<>();
+    private final Object stopLock = new Object();
+    private Thread shutdownHook;
+    private volatile ShutdownResult result;
+
+    /**
+     * Create a new coordinator
+     *
+     * @param logger the {@link Logger}
+     * @param executor the {@link Executor} to run independent hooks on in parallel or null to run them one after another
+     * @param timeoutMillis the deadline of the hooks and, separately, of the last hooks in milliseconds
+     */
+    public ShutdownCoordinator(Logger logger, Executor executor, long timeoutMillis) {
+        this(logger, executor, timeoutMillis, false);
+    }
+
+    /**
+     * Create a new coordinator
+     *
+     * @param logger the {@link Logger}
+     * @param executor the {@link Executor} to run independent hooks on in parallel or null to run them one after another
+     * @param timeoutMillis the deadline of the hooks and, separately, of the last hooks in milliseconds
+     * @param ownsExecutor true to shut down the executor, if it is an {@link ExecutorService}, after the hooks ran
+     */
+    public ShutdownCoordinator(Logger logger, Executor executor, long timeoutMillis, boolean ownsExecutor) {
+        this.logger = logger;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Register a hook, which runs before all other hooks
+     *
+     * @param name the name of the hook
+     * @param task the task
+     */
+    public synchronized void addFirst(@NonNull String name, @NonNull Runnable task) {
+        this.hooks.add(new Hook(name, Stage.FIRST, null, Set.of(), task));
+    }
+
+    /**
+     * Register a hook, which runs after all other hooks<br>
+     * The last hooks have a deadline of their own, so they run even if other hooks were abandoned.
+     *
+     * @param name the name of the hook
+     * @param task the task
+     */
+    public synchronized void addLast(@NonNull String name, @NonNull Runnable task) {
+        this.hooks.add(new Hook(name, Stage.LAST, null, Set.of(), task));
+    }
+
+    /**
+     * Register the hook of an object<br>
+     * The hook runs before the hooks of all objects, whose class is assignable to one of the dependencies.
+     * Dependencies in a cycle are ignored.
+     *
+     * @param name the name of the hook
+     * @param owner the class of the object
+     * @param dependencies the types the object depends on
+     * @param task the task
+     * @return a {@link Runnable} to remove the hook again
+     */
+    public synchronized Runnable register(@NonNull String name, @NonNull Class<?> owner,
+                                          @NonNull Collection<Class<?>> dependencies, @NonNull Runnable task) {
+        Hook hook = new Hook(name, Stage.DEFAULT, owner, Set.copyOf(dependencies), task);
+        this.hooks.add(hook);
+        return () -> remove(hook);
+    }
+
+    /**
+     * Get the number of registered hooks
+     *
+     * @return the number of hooks
+     */
+    public synchronized int getHooks() {
+        return this.hooks.size();
+    }
+
+    private synchronized void remove(Hook hook) {
+        this.hooks.remove(hook);
+    }
+
+    /**
+     * Register a single JVM shutdown hook, which calls {@link #stop()}
+     */
+    public synchronized void installShutdownHook() {
+        if (this.shutdownHook == null) {
+            this.shutdownHook = new Thread(this::stop, "injections-shutdown-hook");
+            Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+        }
+    }
+
+    /**
+     * Check if {@link #stop()} was called
+     *
+     * @return true if the shutdown completed
+     */
+    public boolean isStopped() {
+        return this.result != null;
+    }
+
+    /**
+     * Run all hooks and wait until they completed or the deadline passed<br>
+     * The hooks run only once, further calls wait for the first shutdown and return its result.
+     *
+     * @return the {@link ShutdownResult}
+     */
+    public ShutdownResult stop() {
+        synchronized (this.stopLock) {
+            if (this.result == null) {
+                removeShutdownHook();
+                this.result = runHooks();
+            }
+            return this.result;
+        }
+    }
+
+    /**
+     * Find the dependencies of an object: the types of its {@link Inject} fields and {@link Inject} constructor
+     * and the classes of the {@link DependsOn} annotation of its shutdown method<br>
+     * The injected types are looked up once per class.
+     *
+     * @param clazz the class of the object
+     * @param method the shutdown method or null
+     * @return an unmodifiable {@link Set} with the types
+     */
+    public static Set<Class<?>> findDependencies(@NonNull Class<?> clazz, Method method) {
+        Set<Class<?>> injected = INJECTED_TYPES.get(clazz);
+        if (method == null || !method.isAnnotationPresent(DependsOn.class)) {
+            return injected;
+        }
+        Set<Class<?>> dependencies = new LinkedHashSet<>(injected);
+        dependencies.addAll(Arrays.asList(method.getAnnotation(DependsOn.class).value()));
+        return Collections.unmodifiableSet(dependencies);
+    }
+
+    private static Set<Class<?>> findInjectedTypes(Class<?> clazz) {
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Inject.class)) {
+                    dependencies.add(field.getType());
+                }
+            }
+        }
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                dependencies.addAll(Arrays.asList(constructor.getParameterTypes()));
+            }
+        }
+        return Collections.unmodifiableSet(dependencies);
+    }
+
+    /**
+     * Create a bounded pool of daemon threads to run the hooks on. Idle threads are terminated.
+     *
+     * @return the new {@link Executor}
+     */
+    public static Executor createDefaultExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "injections-shutdown-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private void removeShutdownHook() {
+        Thread hook;
+        synchronized (this) {
+            hook = this.shutdownHook;
+        }
+        if (hook != null && hook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException ignored) {
+                // the JVM is already shutting down
+            }
+        }
+    }
+
+    private ShutdownResult runHooks() {
+        long start = System.nanoTime();
+        List<Hook> hooks;
+        synchronized (this) {
+            hooks = new ArrayList<>(this.hooks);
+        }
+        this.logger.info("Shutdown " + hooks.size() + " hooks...");
+        List<Hook> lastHooks = hooks.stream().filter(hook -> hook.stage == Stage.LAST).toList();
+        hooks.removeAll(lastHooks);
+
+        List<String> completed = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+        runStage(createGraph(hooks), completed, failed, timedOut);
+        if (!lastHooks.isEmpty()) {
+            DependencyGraph<Hook> lastGraph = new DependencyGraph<>();
+            lastHooks.forEach(lastGraph::addNode);
+            runStage(lastGraph, completed, failed, timedOut);
+        }
+
+        if (this.ownsExecutor && this.executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.logger.info("Shutdown done. Took " + duration + "ms");
+        return new ShutdownResult(duration, completed, failed, timedOut);
+    }
+
+    /**
+     * Run the hooks of a graph and wait until they completed or the deadline passed
+     *
+     * @param graph the graph of the hooks
+     * @param completed the names of the completed hooks
+     * @param failed the names of the failed hooks
+     * @param timedOut the names of the abandoned hooks
+     */
+    private void runStage(DependencyGraph<Hook> graph, List<String> completed, List<String> failed,
+                          List<String> timedOut) {
+        Set<Hook> remaining = ConcurrentHashMap.newKeySet();
+        graph.getNodes().stream().filter(hook -> hook.task != null).forEach(remaining::add);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread runner = new Thread(() -> {
+            try {
+                graph.execute(hook -> {
+                    if (hook.task != null) {
+                        runHook(hook, remaining, completed, failed);
+                    }
+                }, this.executor);
+                done.complete(null);
+            } catch (Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+        }, "injections-shutdown");
+        runner.setDaemon(true);
+        runner.start();
+
+        try {
+            done.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            List<String> abandoned = remaining.stream().map(hook -> hook.name).toList();
+            timedOut.addAll(abandoned);
+            this.logger.warn("Shutdown deadline of " + this.timeoutMillis + "ms passed, abandoned hooks: " + abandoned);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            remaining.forEach(hook -> timedOut.add(hook.name));
+        } catch (ExecutionException e) {
+            this.logger.err("Shutdown failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Create the graph of the first and the default hooks<br>
+     * The hook of an object depends on the hooks of all objects depending on it, so it runs after them.
+     * The default hooks are grouped by their class and dependencies. The groups are indexed by all types of their
+     * class, so the dependencies are resolved with lookups. Hooks of a group wait for a barrier node, which depends
+     * on the hooks of the groups depending on them.
+     *
+     * @param hooks the first and the default hooks
+     * @return the {@link DependencyGraph}
+     */
+    private DependencyGraph<Hook> createGraph(List<Hook> hooks) {
+        DependencyGraph<Hook> graph = new DependencyGraph<>();
+        List<Hook> firstHooks = new ArrayList<>();
+        Map<List<Object>, Group> groups = new LinkedHashMap<>();
+        for (Hook hook : hooks) {
+            graph.addNode(hook);
+            if (hook.stage == Stage.FIRST) {
+                firstHooks.add(hook);
+            } else {
+                groups.computeIfAbsent(List.of(hook.owner, hook.dependencies),
+                        key -> new Group(hook.owner, hook.dependencies)).hooks.add(hook);
+            }
+        }
+
+        if (!firstHooks.isEmpty() && !groups.isEmpty()) {
+            Hook barrier = Hook.barrier("first hooks");
+            firstHooks.forEach(hook -> graph.addDependency(barrier, hook));
+            for (Group group : groups.values()) {
+                group.hooks.forEach(hook -> graph.addDependency(hook, barrier));
+            }
+        }
+
+        DependencyGraph<Group> groupGraph = createGroupGraph(groups.values());
+        for (Group group : groupGraph.getNodes()) {
+            for (Group dependency : groupGraph.getDependencies(group)) {
+                Hook barrier = dependency.barrier();
+                dependency.hooks.forEach(hook -> graph.addDependency(barrier, hook));
+                group.hooks.forEach(hook -> graph.addDependency(hook, barrier));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Create the graph of the groups of default hooks<br>
+     * A group depends on all groups, whose hooks depend on its class. Dependencies closing a cycle are ignored:
+     * of every cycle, the dependency added last is removed.
+     *
+     * @param groups the groups
+     * @return the acyclic {@link DependencyGraph} of the groups
+     */
+    private DependencyGraph<Group> createGroupGraph(Collection<Group> groups) {
+        Map<Class<?>, List<Group>> byType = new HashMap<>();
+        Map<Class<?>, Set<Class<?>>> typesByOwner = new HashMap<>();
+        for (Group group : groups) {
+            for (Class<?> type : typesByOwner.computeIfAbsent(group.owner, ShutdownCoordinator::assignableTypes)) {
+                byType.computeIfAbsent(type, key -> new ArrayList<>()).add(group);
+            }
+        }
+
+        DependencyGraph<Group> graph = new DependencyGraph<>();
+        Map<Group, Map<Group, Integer>> order = new HashMap<>();
+        groups.forEach(graph::addNode);
+        int edges = 0;
+        for (Group group : groups) {
+            for (Class<?> dependency : group.dependencies) {
+                for (Group other : byType.getOrDefault(dependency, List.of())) {
+                    if (other.owner != group.owner
+                            && order.computeIfAbsent(other, key -> new HashMap<>()).putIfAbsent(group, edges) == null) {
+                        graph.addDependency(other, group);
+                        edges++;
+                    }
+                }
+            }
+        }
+
+        while (true) {
+            try {
+                graph.sort();
+                return graph;
+            } catch (DependencyCycleException e) {
+                List<?> cycle = e.getCycle();
+                Group node = null;
+                Group dependency = null;
+                int latest = -1;
+                for (int i = 0; i < cycle.size() - 1; i++) {
+                    Group from = (Group) cycle.get(i);
+                    Group to = (Group) cycle.get(i + 1);
+                    int index = order.get(from).get(to);
+                    if (index > latest) {
+                        latest = index;
+                        node = from;
+                        dependency = to;
+                    }
+                }
+                graph.removeDependency(node, dependency);
+                this.logger.info(LogLevel.EXTENDED, "Ignore cyclic shutdown dependency of " + node.owner.getName()
+                        + " on " + dependency.owner.getName());
+            }
+        }
+    }
+
+    /**
+     * Get a class and all of its superclasses and interfaces
+     *
+     * @param clazz the class
+     * @return a {@link Set} with the types
+     */
+    private static Set<Class<?>> assignableTypes(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>(List.of(clazz));
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.poll();
+            if (types.add(current)) {
+                if (current.getSuperclass() != null) {
+                    pending.add(current.getSuperclass());
+                }
+                pending.addAll(Arrays.asList(current.getInterfaces()));
+            }
+        }
+        return types;
+    }
+
+    private void runHook(Hook hook, Set<Hook> remaining, List<String> completed, List<String> failed) {
+        long start = System.nanoTime();
+        try {
+            hook.task.run();
+            completed.add(hook.name);
+        } catch (Throwable throwable) {
+            failed.add(hook.name);
+            this.logger.err("Shutdown hook " + hook.name + " failed: " + throwable);
+        } finally {
+            remaining.remove(hook);
+            this.logger.info(LogLevel.EXTENDED, "Shutdown hook " + hook.name + " took "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        }
+    }
+
+    private enum Stage {
+        FIRST, DEFAULT, LAST
+    }
+
+    /**
+     * A registered hook. Hooks are compared by identity, so a disposed hook is removed in constant time.
+     */
+    private static final class Hook {
+
+        private final String name;
+        private final Stage stage;
+        private final Class<?> owner;
+        private final Set<Class<?>> dependencies;
+        private final Runnable task;
+
+        private Hook(String name, Stage stage, Class<?> owner, Set<Class<?>> dependencies, Runnable task) {
+            this.name = name;
+            this.stage = stage;
+            this.owner = owner;
+            this.dependencies = dependencies;
+            this.task = task;
+        }
+
+        /**
+         * Create a barrier, which only orders other hooks and runs no task
+         *
+         * @param name the name of the barrier
+         * @return the new barrier
+         */
+        private static Hook barrier(String name) {
+            return new Hook(name, Stage.DEFAULT, null, Set.of(), null);
+        }
+    }
+
+    /**
+     * The default hooks of a class with the same dependencies
+     */
+    private static final class Group {
+
+        private final Class<?> owner;
+        private final Set<Class<?>> dependencies;
+        private final List<Hook> hooks = new ArrayList<>();
+        private Hook barrier;
+
+        private Group(Class<?> owner, Set<Class<?>> dependencies) {
+            this.owner = owner;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Get the barrier, which completes after all hooks of this group
+         *
+         * @return the barrier
+         */
+        private Hook barrier() {
+            if (this.barrier == null) {
+                this.barrier = Hook.barrier(this.owner.getName() + " hooks");
+            }
+            return this.barrier;
+        }
+    }
+}
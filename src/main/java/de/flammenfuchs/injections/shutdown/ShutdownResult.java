@@ -0,0 +1,72 @@
+package de.flammenfuchs.injections.shutdown;
+
+import java.util.List;
+
+/**
+ * The result of a shutdown by the {@link ShutdownCoordinator}
+ */
+public class ShutdownResult {
+
+    private final long durationMillis;
+    private final List<String> completed;
+    private final List<String> failed;
+    private final List<String> timedOut;
+
+    ShutdownResult(long durationMillis, List<String> completed, List<String> failed, List<String> timedOut) {
+        this.durationMillis = durationMillis;
+        this.completed = List.copyOf(completed);
+        this.failed = List.copyOf(failed);
+        this.timedOut = List.copyOf(timedOut);
+    }
+
+    /**
+     * Get the duration of the shutdown
+     *
+     * @return the time in milliseconds until all hooks completed or the deadline passed
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Get the hooks, which completed successfully
+     *
+     * @return the names of the hooks in the order of their completion
+     */
+    public List<String> getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get the hooks, which threw an exception
+     *
+     * @return the names of the hooks
+     */
+    public List<String> getFailed() {
+        return failed;
+    }
+
+    /**
+     * Get the hooks, which did not complete before the deadline
+     *
+     * @return the names of the hooks
+     */
+    public List<String> getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Check if all hooks completed successfully before the deadline
+     *
+     * @return true if no hook failed or timed out
+     */
+    public boolean isSuccessful() {
+        return failed.isEmpty() && timedOut.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownResult{duration=" + durationMillis + "ms, completed=" + completed.size()
+                + ", failed=" + failed + ", timedOut=" + timedOut + "}";
+    }
+}
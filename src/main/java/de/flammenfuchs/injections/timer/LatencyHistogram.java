@@ -0,0 +1,111 @@
+package de.flammenfuchs.injections.timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations with logarithmic buckets and a relative precision of 1/16<br>
+ * Like an HDR histogram, every power of two is split into 16 linear sub buckets, so values from nanoseconds up to
+ * centuries are recorded in a fixed array without allocations.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value. Negative values are recorded as 0.
+     *
+     * @param value the value in nanoseconds
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.counts.incrementAndGet(index(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Get the number of recorded values
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Get the highest recorded value
+     *
+     * @return the highest value in nanoseconds
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Get the mean of all recorded values
+     *
+     * @return the mean in nanoseconds or 0 if no value was recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) this.sum.sum() / count;
+    }
+
+    /**
+     * Get the value below which the given percentage of the recorded values fall
+     *
+     * @param percentile the percentile from 0 to 100
+     * @return the highest value of the bucket containing the percentile in nanoseconds or 0 if no value was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - 4;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 5) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 5;
+        int subBucket = (index - LINEAR) % SUB_BUCKETS;
+        int shift = exponent - 4;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,142 @@
+package de.flammenfuchs.injections.timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a {@link de.flammenfuchs.injections.annon.Timer} method, shared by all objects of the method<br>
+ * The latency is the duration of an invocation, the drift is the delay between the scheduled and the actual start.
+ * An overrun is an invocation, which took longer than the period of the timer.
+ */
+public class TimerMetrics {
+
+    private final String name;
+    private final long periodMillis;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram drift = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    TimerMetrics(String name, long periodMillis) {
+        this.name = name;
+        this.periodMillis = periodMillis;
+    }
+
+    /**
+     * Record an invocation
+     *
+     * @param latencyNanos the duration of the invocation
+     * @param driftNanos the delay between the scheduled and the actual start
+     * @param failed true if the invocation threw an exception
+     */
+    void record(long latencyNanos, long driftNanos, boolean failed) {
+        this.latency.record(latencyNanos);
+        this.drift.record(driftNanos);
+        if (failed) {
+            this.failures.increment();
+        }
+        if (this.periodMillis > 0 && latencyNanos > TimeUnit.MILLISECONDS.toNanos(this.periodMillis)) {
+            this.overruns.increment();
+        }
+    }
+
+    /**
+     * Record an invocation, which was skipped because the previous invocation was still running
+     */
+    void recordSkipped() {
+        this.skipped.increment();
+    }
+
+    /**
+     * Get the name of the timer method
+     *
+     * @return the name in the format {@code class#method}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the period of the timer
+     *
+     * @return the period in milliseconds or a value below 1 if the timer does not repeat
+     */
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    /**
+     * Get the number of invocations
+     *
+     * @return the number of completed invocations, including failed ones
+     */
+    public long getInvocations() {
+        return this.latency.getCount();
+    }
+
+    /**
+     * Get the number of failed invocations
+     *
+     * @return the number of invocations, which threw an exception
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Get the number of overruns
+     *
+     * @return the number of invocations, which took longer than the period
+     */
+    public long getOverruns() {
+        return this.overruns.sum();
+    }
+
+    /**
+     * Get the number of skipped invocations
+     *
+     * @return the number of invocations skipped because of {@link de.flammenfuchs.injections.annon.Timer#skipIfRunning()}
+     */
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    /**
+     * Get the histogram of the invocation durations
+     *
+     * @return the {@link LatencyHistogram} in nanoseconds
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Get the histogram of the delays between the scheduled and the actual starts
+     *
+     * @return the {@link LatencyHistogram} in nanoseconds
+     */
+    public LatencyHistogram getDrift() {
+        return drift;
+    }
+
+    /**
+     * Get the share of the period used by the slowest 1% of the invocations
+     *
+     * @return the 99th latency percentile divided by the period, 0 if the timer does not repeat
+     */
+    public double getSaturation() {
+        if (this.periodMillis <= 0) {
+            return 0;
+        }
+        return (double) this.latency.getValueAtPercentile(99) / TimeUnit.MILLISECONDS.toNanos(this.periodMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "%s: invocations=%d failures=%d overruns=%d skipped=%d p50=%.3fms p99=%.3fms max=%.3fms drift_p99=%.3fms"
+                .formatted(name, getInvocations(), getFailures(), getOverruns(), getSkipped(),
+                        this.latency.getValueAtPercentile(50) / 1e6, this.latency.getValueAtPercentile(99) / 1e6,
+                        this.latency.getMax() / 1e6, this.drift.getValueAtPercentile(99) / 1e6);
+    }
+}
@@ -0,0 +1,231 @@
+package de.flammenfuchs.injections.timer;
+
+import de.flammenfuchs.injections.annon.Timer;
+import de.flammenfuchs.javalib.logging.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A scheduler shared by all {@link Timer} methods<br>
+ * A small pool of scheduler threads only triggers the timers, the methods are invoked on the execution
+ * {@link Executor}. Exceptions and errors are logged and never cancel a repeating timer.<br>
+ * Every invocation is recorded in the {@link TimerMetrics} of its timer name.
+ */
+public class TimerScheduler {
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Executor executor;
+    private final Logger logger;
+    private final Map<String, TimerMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new scheduler
+     *
+     * @param threads the number of scheduler threads
+     * @param executor the {@link Executor} to invoke the methods on or null to use a bounded pool of daemon threads
+     * @param logger the {@link Logger}
+     */
+    public TimerScheduler(int threads, Executor executor, Logger logger) {
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, daemonThreads("injections-timer-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor != null ? executor : createDefaultExecutor();
+        this.logger = logger;
+    }
+
+    /**
+     * Schedule a task as defined by a {@link Timer} annotation<br>
+     * Like every later invocation, the first one runs on the execution {@link Executor}, even without delay.
+     *
+     * @param name the name of the task used in log messages
+     * @param timer the {@link Timer} annotation
+     * @param task the task
+     * @return the {@link ScheduledTimer} to cancel the task
+     */
+    public ScheduledTimer schedule(String name, Timer timer, Runnable task) {
+        TimerMetrics timerMetrics = this.metrics.computeIfAbsent(name, key -> new TimerMetrics(key, timer.period()));
+        ScheduledTimer scheduled = new ScheduledTimer(name, task, timer, timerMetrics);
+        long delay = Math.max(0, timer.delay());
+        scheduled.expectedStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        if (timer.period() <= 0) {
+            scheduled.future = this.scheduler.schedule(() -> dispatch(scheduled, false), delay, TimeUnit.MILLISECONDS);
+        } else if (timer.fixedRate()) {
+            scheduled.future = this.scheduler.scheduleAtFixedRate(() -> dispatch(scheduled, false), delay,
+                    timer.period(), TimeUnit.MILLISECONDS);
+        } else {
+            scheduled.future = this.scheduler.schedule(() -> dispatch(scheduled, true), delay, TimeUnit.MILLISECONDS);
+        }
+        return scheduled;
+    }
+
+    /**
+     * Stop the scheduler. Running methods are not interrupted, no timer is triggered afterwards.
+     */
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Get the metrics of all timers
+     *
+     * @return an unmodifiable {@link Map} with the timer name as key and its {@link TimerMetrics} as value
+     */
+    public Map<String, TimerMetrics> getMetrics() {
+        return Collections.unmodifiableMap(this.metrics);
+    }
+
+    /**
+     * Get the number of scheduled timers
+     *
+     * @return the number of timers waiting for their next execution
+     */
+    public int getScheduledTimers() {
+        return this.scheduler.getQueue().size();
+    }
+
+    /**
+     * Hand a triggered timer over to the execution {@link Executor}
+     *
+     * @param scheduled the triggered timer
+     * @param reschedule true if the timer has a fixed delay and has to be scheduled after it completed
+     */
+    private void dispatch(ScheduledTimer scheduled, boolean reschedule) {
+        if (scheduled.cancelled) {
+            return;
+        }
+        long expected = scheduled.fixedRate
+                ? scheduled.expectedStart + scheduled.ticks.getAndIncrement() * scheduled.periodNanos
+                : scheduled.expectedStart;
+        if (!scheduled.running.compareAndSet(false, true) && scheduled.skipIfRunning) {
+            scheduled.metrics.recordSkipped();
+            return;
+        }
+        try {
+            this.executor.execute(() -> run(scheduled, reschedule, expected));
+        } catch (RejectedExecutionException e) {
+            scheduled.running.set(false);
+            this.logger.err("Rejected execution of timer " + scheduled.name);
+        }
+    }
+
+    /**
+     * Invoke a timer and record its metrics
+     *
+     * @param scheduled the timer
+     * @param reschedule true if the timer has a fixed delay and has to be scheduled after it completed
+     * @param expected the scheduled start in nanoseconds
+     */
+    private void run(ScheduledTimer scheduled, boolean reschedule, long expected) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            scheduled.task.run();
+        } catch (Throwable throwable) {
+            failed = true;
+            this.logger.err("Error while invoking timer method " + scheduled.name + ": " + throwable);
+        } finally {
+            scheduled.running.set(false);
+            long end = System.nanoTime();
+            scheduled.metrics.record(end - start, start - expected, failed);
+            if (reschedule) {
+                reschedule(scheduled, end);
+            }
+        }
+    }
+
+    /**
+     * Schedule the next invocation of a fixed delay timer
+     *
+     * @param scheduled the timer
+     * @param end the end of the last invocation in nanoseconds
+     */
+    private void reschedule(ScheduledTimer scheduled, long end) {
+        if (scheduled.cancelled || this.scheduler.isShutdown()) {
+            return;
+        }
+        try {
+            scheduled.expectedStart = end + scheduled.periodNanos;
+            scheduled.future = this.scheduler.schedule(() -> dispatch(scheduled, true), scheduled.periodNanos,
+                    TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Executor createDefaultExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("injections-timer-worker-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * A scheduled {@link Timer} method
+     */
+    public static final class ScheduledTimer {
+
+        private final String name;
+        private final Runnable task;
+        private final long periodNanos;
+        private final boolean fixedRate;
+        private final boolean skipIfRunning;
+        private final TimerMetrics metrics;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong ticks = new AtomicLong();
+        private volatile long expectedStart;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
+
+        private ScheduledTimer(String name, Runnable task, Timer timer, TimerMetrics metrics) {
+            this.name = name;
+            this.task = task;
+            this.periodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timer.period()));
+            this.fixedRate = timer.fixedRate() && timer.period() > 0;
+            this.skipIfRunning = timer.skipIfRunning();
+            this.metrics = metrics;
+        }
+
+        /**
+         * Cancel the timer. A running invocation is not interrupted.
+         */
+        public void cancel() {
+            this.cancelled = true;
+            ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        /**
+         * Get the name of the timer
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the metrics of the timer, shared by all timers with the same name
+         *
+         * @return the {@link TimerMetrics}
+         */
+        public TimerMetrics getMetrics() {
+            return metrics;
+        }
+    }
+}
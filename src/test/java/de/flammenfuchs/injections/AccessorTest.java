@@ -0,0 +1,53 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.accessor.FieldAccessor;
+import de.flammenfuchs.injections.accessor.MethodAccessor;
+import de.flammenfuchs.injections.accessor.MethodInvoker;
+import de.flammenfuchs.injections.accessor.ParameterResolver;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessorTest {
+
+    private String value;
+    private int primitive;
+    private static int calls;
+
+    private String concat(String a, String b) {
+        return a + b;
+    }
+
+    private static void count() {
+        calls++;
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFieldAccessor() {
+        FieldAccessor accessor = FieldAccessor.of(AccessorTest.class.getDeclaredField("value"));
+        accessor.set(this, "test");
+        assertEquals("test", value);
+        assertEquals("test", accessor.get(this));
+
+        FieldAccessor primitiveAccessor = FieldAccessor.of(AccessorTest.class.getDeclaredField("primitive"));
+        primitiveAccessor.set(this, 7);
+        assertEquals(7, primitive);
+    }
+
+    @Test
+    @SneakyThrows
+    public void testMethodAccessor() {
+        MethodAccessor accessor = MethodAccessor.of(
+                AccessorTest.class.getDeclaredMethod("concat", String.class, String.class));
+        assertEquals("ab", accessor.invoke(this, new Object[]{"a", "b"}));
+
+        int before = calls;
+        MethodInvoker invoker = new MethodInvoker(MethodAccessor.of(AccessorTest.class.getDeclaredMethod("count")),
+                new ParameterResolver[0]);
+        invoker.invoke(null);
+        invoker.invoke(this);
+        assertEquals(before + 2, calls);
+    }
+}
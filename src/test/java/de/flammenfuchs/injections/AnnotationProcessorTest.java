@@ -71,7 +71,8 @@ class AnnotationProcessorTest {
         TestC test = new TestC();
         manager.processObject(test);
         assertEquals(0, test.a);
-        assertEquals(1, test.b);
+        Awaitility.await().atMost(110, TimeUnit.MILLISECONDS)
+                .until(() -> test.b >= 1);
         Awaitility.await().atMost(110, TimeUnit.MILLISECONDS)
                 .until(() -> test.a == 1 && test.b == 2);
 
@@ -0,0 +1,40 @@
+package de.flammenfuchs.injections;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates many distinct types for tests with large registries: the array types {@code Object[]}, {@code Object[][]}, ...
+ */
+final class ArrayTypes {
+
+    private ArrayTypes() {
+    }
+
+    /**
+     * Create a chain of nested array types
+     *
+     * @param count the number of types
+     * @return the types, starting with {@code Object[]}
+     */
+    static List<Class<?>> chain(int count) {
+        List<Class<?>> types = new ArrayList<>(count);
+        Class<?> type = Object.class;
+        for (int i = 0; i < count; i++) {
+            type = Array.newInstance(type, 0).getClass();
+            types.add(type);
+        }
+        return types;
+    }
+
+    /**
+     * Create an empty instance of an array type
+     *
+     * @param type the array type
+     * @return the instance
+     */
+    static Object instance(Class<?> type) {
+        return Array.newInstance(type.getComponentType(), 0);
+    }
+}
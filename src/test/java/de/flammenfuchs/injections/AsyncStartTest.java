@@ -0,0 +1,133 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.manager.StartupHandle;
+import de.flammenfuchs.injections.manager.StartupPhase;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncStartTest {
+
+    private static final String WARMUP_SOURCE = """
+            package async.sample;
+
+            import de.flammenfuchs.injections.annon.LateStartup;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+            import java.util.concurrent.CountDownLatch;
+            import java.util.concurrent.TimeUnit;
+
+            @Scoped
+            public class Warmup {
+
+                public static final CountDownLatch RELEASE = new CountDownLatch(1);
+                public volatile boolean started;
+                public volatile boolean warmed;
+
+                @Startup
+                void start() {
+                    started = true;
+                }
+
+                @LateStartup
+                void warmup() throws Exception {
+                    RELEASE.await(5, TimeUnit.SECONDS);
+                    warmed = true;
+                }
+            }
+            """;
+    private static final String FAILING_SOURCE = """
+            package async.failing;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Failing {
+
+                @Startup
+                void start() {
+                    throw new IllegalStateException("startup failed");
+                }
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "async.sample.Warmup", WARMUP_SOURCE,
+                "async.failing.Failing", FAILING_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testReadyBeforeWarmed() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "async.sample").build();
+            StartupHandle handle = manager.startAsync();
+            assertSame(handle, manager.getStartupHandle());
+            handle.getReady().get(5, TimeUnit.SECONDS);
+
+            Class<?> warmupClass = loader.loadClass("async.sample.Warmup");
+            Object warmup = manager.getDependencyRegistry().resolve(warmupClass);
+            assertTrue((boolean) warmupClass.getField("started").get(warmup));
+            assertFalse((boolean) warmupClass.getField("warmed").get(warmup));
+            assertFalse(handle.getWarmed().isDone());
+            assertEquals(StartupPhase.READY, handle.getPhase());
+            assertTrue(handle.getPhaseMillis(StartupPhase.READY) >= 0);
+            assertEquals(-1, handle.getPhaseMillis(StartupPhase.WARMED));
+
+            ((CountDownLatch) warmupClass.getField("RELEASE").get(null)).countDown();
+            handle.getWarmed().get(5, TimeUnit.SECONDS);
+            assertTrue((boolean) warmupClass.getField("warmed").get(warmup));
+            assertEquals(StartupPhase.WARMED, handle.getPhase());
+            assertTrue(handle.getPhaseMillis(StartupPhase.WARMED) >= handle.getPhaseMillis(StartupPhase.READY));
+            assertTrue(handle.getWarmUpMillis() >= 0);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFailedStart() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "async.failing").build();
+            StartupHandle handle = manager.startAsync(Runnable::run);
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> handle.getReady().get());
+            assertEquals("startup failed", exception.getCause().getMessage());
+            assertTrue(handle.getWarmed().isCompletedExceptionally());
+            assertEquals(StartupPhase.FAILED, handle.getPhase());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testSynchronousStartTimings() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "async.failing").build();
+            assertThrows(IllegalStateException.class, manager::start);
+            assertEquals(StartupPhase.FAILED, manager.getStartupHandle().getPhase());
+        }
+    }
+}
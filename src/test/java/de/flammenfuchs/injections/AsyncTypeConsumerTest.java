@@ -0,0 +1,201 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.registry.TypeConsumer;
+import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTypeConsumerTest {
+
+    @Test
+    @SneakyThrows
+    public void testAsyncDelivery() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> consumed = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        registry.register(TypeConsumer.async(String.class, value -> {
+            awaitLatch(release);
+            threads.add(Thread.currentThread().getName());
+            consumed.add(value);
+        }));
+
+        for (int i = 0; i < 100; i++) {
+            registry.consume("value" + i);
+        }
+        assertTrue(consumed.isEmpty());
+        assertEquals(100, registry.getPendingDeliveries());
+
+        release.countDown();
+        registry.awaitDeliveries();
+        assertEquals(0, registry.getPendingDeliveries());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value" + i, consumed.get(i));
+        }
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testBatchedDelivery() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TypeConsumerRegistry registry = new TypeConsumerRegistry();
+            registry.setAsyncExecutor(executor);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> awaitLatch(release));
+            List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+            registry.register(TypeConsumer.batched(Integer.class, 10, batches::add));
+
+            for (int i = 0; i < 25; i++) {
+                registry.consume(i);
+            }
+            release.countDown();
+            registry.awaitDeliveries();
+            assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+            assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), batches.get(0));
+            assertEquals(List.of(20, 21, 22, 23, 24), batches.get(2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        registry.register(TypeConsumer.async(String.class, value -> {
+            throw new IllegalStateException(value);
+        }));
+        registry.consume("failure");
+        IllegalStateException exception = assertThrows(IllegalStateException.class, registry::awaitDeliveries);
+        assertEquals("failure", exception.getMessage());
+        assertDoesNotThrow(registry::awaitDeliveries);
+    }
+
+    @Test
+    public void testBoundedAwait() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TypeConsumerRegistry registry = new TypeConsumerRegistry();
+            registry.setAsyncExecutor(executor);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> awaitLatch(release));
+            List<Integer> consumed = Collections.synchronizedList(new ArrayList<>());
+            registry.register(TypeConsumer.async(Integer.class, consumed::add));
+
+            registry.consume(1);
+            assertFalse(registry.awaitDeliveries(50));
+            assertEquals(1L, registry.getPendingDeliveries());
+            assertEquals(List.of("java.lang.Integer (1 pending)"), registry.getPendingConsumers());
+            release.countDown();
+            assertTrue(registry.awaitDeliveries(5000));
+            assertEquals(List.of(1), consumed);
+            assertTrue(registry.getPendingConsumers().isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testStartAwaitsDeliveries() {
+        Path output = TestCompiler.compile(Map.of("consumed.sample.LateService", """
+                package consumed.sample;
+
+                import de.flammenfuchs.injections.annon.LateStartup;
+                import de.flammenfuchs.injections.annon.Scoped;
+
+                @Scoped
+                public class LateService {
+
+                    public static long lateStartup;
+
+                    @LateStartup
+                    public void late() {
+                        lateStartup = System.nanoTime();
+                    }
+                }
+                """), new InjectionsIndexProcessor());
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> serviceClass = loader.loadClass("consumed.sample.LateService");
+            AtomicLong delivered = new AtomicLong();
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "consumed").build();
+            manager.getTypeConsumerRegistry().register(TypeConsumer.async(serviceClass, value -> {
+                sleep(100);
+                delivered.set(System.nanoTime());
+            }));
+            manager.start();
+
+            assertNotEquals(0, delivered.get());
+            assertTrue(delivered.get() < serviceClass.getField("lateStartup").getLong(null));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testStartStopsWaitingAfterTimeout() {
+        Path output = TestCompiler.compile(Map.of("stuck.sample.StuckService", """
+                package stuck.sample;
+
+                import de.flammenfuchs.injections.annon.LateStartup;
+                import de.flammenfuchs.injections.annon.Scoped;
+
+                @Scoped
+                public class StuckService {
+
+                    public static boolean lateStartup;
+
+                    @LateStartup
+                    public void late() {
+                        lateStartup = true;
+                    }
+                }
+                """), new InjectionsIndexProcessor());
+        CountDownLatch release = new CountDownLatch(1);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> serviceClass = loader.loadClass("stuck.sample.StuckService");
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .asyncConsumerTimeout(Duration.ofMillis(50))
+                    .addTarget(loader, "stuck").build();
+            manager.getTypeConsumerRegistry().register(TypeConsumer.async(serviceClass, value -> awaitLatch(release)));
+            manager.start();
+
+            assertTrue(serviceClass.getField("lateStartup").getBoolean(null));
+            assertEquals(1L, manager.getTypeConsumerRegistry().getPendingDeliveries());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @SneakyThrows
+    private static void awaitLatch(CountDownLatch latch) {
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+}
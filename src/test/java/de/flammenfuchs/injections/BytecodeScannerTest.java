@@ -0,0 +1,131 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Scoped;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.scanner.BytecodeClassScanner;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BytecodeScannerTest {
+
+    private static final String SERVICE_ANNOTATION_SOURCE = """
+            package scanned.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import java.lang.annotation.*;
+
+            @Scoped
+            @Retention(RetentionPolicy.RUNTIME)
+            @Target(ElementType.TYPE)
+            public @interface Service {
+            }
+            """;
+    private static final String SERVICE_SOURCE = """
+            package scanned.sample;
+
+            @Service
+            public class ScannedService {
+            }
+            """;
+    private static final String PLAIN_SOURCE = """
+            package scanned.sample;
+
+            @Deprecated
+            public class PlainClass {
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "scanned.sample.Service", SERVICE_ANNOTATION_SOURCE,
+                "scanned.sample.ScannedService", SERVICE_SOURCE,
+                "scanned.sample.PlainClass", PLAIN_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testScanDirectory() {
+        try (TrackingClassLoader loader = new TrackingClassLoader(output.toUri().toURL())) {
+            List<Class<?>> classes = new BytecodeClassScanner("scanned", loader, new String[0],
+                    Scoped.class.getName()::equals).scan();
+            assertEquals(1, classes.size());
+            assertEquals("scanned.sample.ScannedService", classes.get(0).getName());
+            assertFalse(loader.isLoaded("scanned.sample.PlainClass"));
+
+            assertTrue(new BytecodeClassScanner("scanned", loader, new String[]{"scanned.sample"},
+                    Scoped.class.getName()::equals).scan().isEmpty());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testScanJar() {
+        Path jar = Files.createTempFile("injections-scanned", ".jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(output)) {
+            for (Path file : files.filter(file -> !file.equals(output)).sorted().toList()) {
+                String name = output.relativize(file).toString().replace('\\', '/');
+                if (Files.isDirectory(file)) {
+                    out.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(file, out);
+                }
+                out.closeEntry();
+            }
+        }
+
+        try (TrackingClassLoader loader = new TrackingClassLoader(jar.toUri().toURL())) {
+            List<Class<?>> classes = new BytecodeClassScanner("scanned", loader, new String[0],
+                    Scoped.class.getName()::equals).scan();
+            assertEquals(1, classes.size());
+            assertFalse(loader.isLoaded("scanned.sample.PlainClass"));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testManagerWithMetaAnnotation() {
+        try (TrackingClassLoader loader = new TrackingClassLoader(output.toUri().toURL())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableDiscoveryIndex().useBytecodeScanner().addTarget(loader, "scanned").build();
+            manager.start();
+
+            assertNotNull(manager.getDependencyRegistry().resolve(loader.loadClass("scanned.sample.ScannedService")));
+            assertFalse(loader.isLoaded("scanned.sample.PlainClass"));
+        }
+    }
+
+    private static class TrackingClassLoader extends URLClassLoader {
+
+        TrackingClassLoader(URL url) {
+            super(new URL[]{url}, BytecodeScannerTest.class.getClassLoader());
+        }
+
+        boolean isLoaded(String name) {
+            return findLoadedClass(name) != null;
+        }
+    }
+}
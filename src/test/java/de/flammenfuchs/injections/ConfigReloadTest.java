@@ -0,0 +1,414 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.config.ConfigFieldBinder;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.injector.Injector;
+import de.flammenfuchs.injections.injector.InjectorProcessor;
+import de.flammenfuchs.injections.injector.Injectors;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.SneakyThrows;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConfigReloadTest {
+
+    private static final String SETTINGS_SOURCE = """
+            package config.sample;
+
+            import de.flammenfuchs.injections.annon.ConfigProperty;
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            import java.util.List;
+
+            @Scoped
+            public class Settings {
+
+                @ConfigProperty("app.name")
+                public String name = "default";
+
+                @ConfigProperty("app.port")
+                public int port = 8080;
+
+                @ConfigProperty("app.port")
+                public final int initialPort = Integer.parseInt("8080");
+
+                @ConfigProperty("app.debug")
+                public boolean debug;
+
+                @ConfigProperty(value = "app.counter", save = true)
+                public int counter = 1;
+
+                @ConfigProperty("app.hosts")
+                public List<String> hosts = List.of("localhost");
+
+                @ConfigProperty("app.limits")
+                public Limits limits = new Limits();
+
+                public static class Limits {
+                    public int connections = 10;
+                    public long timeout = 1000;
+                }
+            }
+            """;
+
+    private static final String GREETER_SOURCE = """
+            package config.sample;
+
+            import de.flammenfuchs.injections.annon.ConfigProperty;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            import java.util.List;
+            import java.util.concurrent.CopyOnWriteArrayList;
+
+            @Scoped
+            public class Greeter {
+
+                public final List<String> greetings = new CopyOnWriteArrayList<>();
+
+                @Startup
+                public void greet(@ConfigProperty("app.name") String name, @ConfigProperty("app.port") int port,
+                                  @ConfigProperty("app.missing") long missing, Settings settings) {
+                    greetings.add(name + ":" + port + ":" + missing + ":" + (settings != null));
+                }
+
+                public String welcomed;
+
+                @Startup
+                public void welcome(@ConfigProperty("app.name") String name, Settings settings) {
+                    welcomed = name;
+                }
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of("config.sample.Settings", SETTINGS_SOURCE,
+                "config.sample.Greeter", GREETER_SOURCE), new InjectionsIndexProcessor());
+    }
+
+    @SneakyThrows
+    private static Path writeConfig(Path directory, String name, int port, boolean debug) {
+        Path file = directory.resolve("application.json");
+        Path temp = directory.resolve("application.json.tmp");
+        Files.writeString(temp, """
+                {"properties": {"app.name": "%s", "app.port": %d, "app.debug": %s}}
+                """.formatted(name, port, debug));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    @Test
+    @SneakyThrows
+    public void testReloadChangedProperties() {
+        Path directory = Files.createTempDirectory("injections-config");
+        writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            assertEquals("first", settingsClass.getField("name").get(settings));
+            assertEquals(80, settingsClass.getField("port").get(settings));
+            assertEquals(80, settingsClass.getField("initialPort").get(settings));
+
+            List<String> changes = new CopyOnWriteArrayList<>();
+            manager.addConfigListener((key, oldValue, newValue) -> changes.add(key + "=" + newValue));
+            assertEquals(Set.of(), manager.reloadConfig());
+
+            writeConfig(directory, "first", 81, true);
+            assertEquals(Set.of("app.port", "app.debug"), manager.reloadConfig());
+            assertEquals("first", settingsClass.getField("name").get(settings));
+            assertEquals(81, settingsClass.getField("port").get(settings));
+            assertEquals(80, settingsClass.getField("initialPort").get(settings));
+            assertEquals(true, settingsClass.getField("debug").get(settings));
+            assertEquals(2, changes.size());
+            assertTrue(changes.contains("app.debug=true"));
+            assertEquals(1, manager.getConfigProcessor().getBindings("app.port"));
+            manager.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFinalFieldNotBindable() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConfigFieldBinder.of(settingsClass.getField("initialPort"), new Gson()));
+            assertEquals("app.port", ConfigFieldBinder.of(settingsClass.getField("port"), new Gson()).getKey());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testInitialInjectionUsesBinder() {
+        Path directory = Files.createTempDirectory("injections-config");
+        writeConfig(directory, "first", 82, true);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = settingsClass.getConstructor().newInstance();
+            assertTrue(manager.getConfigProcessor().injectField(settingsClass.getField("port"), settings));
+            assertTrue(manager.getConfigProcessor().injectField(settingsClass.getField("debug"), settings));
+            assertFalse(manager.getConfigProcessor().injectField(settingsClass.getField("initialPort"), settings));
+            assertEquals(82, settingsClass.getField("port").get(settings));
+            assertEquals(true, settingsClass.getField("debug").get(settings));
+            assertEquals(8080, settingsClass.getField("initialPort").get(settings));
+            assertEquals(2, manager.getConfigProcessor().getBindings("app.port"));
+            manager.stop();
+        }
+    }
+
+    @SneakyThrows
+    private static void writeRawConfig(Path directory, String properties) {
+        Path temp = directory.resolve("application.json.tmp");
+        Files.writeString(temp, "{\"properties\": {" + properties + "}}");
+        Files.move(temp, directory.resolve("application.json"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Test
+    @SneakyThrows
+    public void testTypedBindings() {
+        Path directory = Files.createTempDirectory("injections-config");
+        writeRawConfig(directory, """
+                "app.port": 90, "app.hosts": ["a", "b"], "app.limits": {"connections": 3, "timeout": 50}
+                """);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            assertEquals(90, settingsClass.getField("port").get(settings));
+            assertEquals(List.of("a", "b"), settingsClass.getField("hosts").get(settings));
+            Object limits = settingsClass.getField("limits").get(settings);
+            assertEquals(3, limits.getClass().getField("connections").get(limits));
+            assertEquals(50L, limits.getClass().getField("timeout").get(limits));
+
+            writeRawConfig(directory, """
+                    "app.port": "none", "app.hosts": ["c"], "app.limits": {"connections": 4, "timeout": 50}
+                    """);
+            assertEquals(Set.of("app.port", "app.hosts", "app.limits"), manager.reloadConfig());
+            assertEquals(90, settingsClass.getField("port").get(settings));
+            assertEquals(List.of("c"), settingsClass.getField("hosts").get(settings));
+            limits = settingsClass.getField("limits").get(settings);
+            assertEquals(4, limits.getClass().getField("connections").get(limits));
+
+            writeRawConfig(directory, "\"app.port\": 91.0");
+            assertEquals(Set.of("app.port"), manager.reloadConfig());
+            assertEquals(91, settingsClass.getField("port").get(settings));
+            manager.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testParameterProperties() {
+        Path directory = Files.createTempDirectory("injections-config");
+        writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> greeterClass = loader.loadClass("config.sample.Greeter");
+            Object greeter = manager.getDependencyRegistry().resolve(greeterClass);
+            assertEquals(List.of("first:80:0:true"), greeterClass.getField("greetings").get(greeter));
+
+            writeConfig(directory, "second", 81, false);
+            manager.reloadConfig();
+            manager.invokeMethod(greeterClass.getMethod("greet", String.class, int.class, long.class,
+                    loader.loadClass("config.sample.Settings")), greeter);
+            assertEquals(List.of("first:80:0:true", "second:81:0:true"), greeterClass.getField("greetings").get(greeter));
+            manager.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testParameterPropertiesWithInjector() {
+        Path injected = TestCompiler.compile(Map.of("config.sample.Settings", SETTINGS_SOURCE,
+                "config.sample.Greeter", GREETER_SOURCE), new InjectorProcessor(), "-A" + InjectorProcessor.OPTION + "=true");
+        Path directory = Files.createTempDirectory("injections-config");
+        writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{injected.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> greeterClass = loader.loadClass("config.sample.Greeter");
+            Injector<?> injector = Injectors.find(greeterClass);
+            assertNotNull(injector);
+            assertEquals(Set.of(), injector.getInvokedMethods());
+
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Object greeter = manager.getDependencyRegistry().resolve(greeterClass);
+            assertEquals(List.of("first:80:0:true"), greeterClass.getField("greetings").get(greeter));
+            assertEquals("first", greeterClass.getField("welcomed").get(greeter));
+            manager.stop();
+        }
+    }
+
+    @SneakyThrows
+    private static double readCounter(Path file) {
+        JsonObject json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        JsonElement counter = json.getAsJsonObject("properties").get("app.counter");
+        return counter == null ? 0 : counter.getAsDouble();
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFlushOnlyChangedValues() {
+        Path directory = Files.createTempDirectory("injections-config");
+        Path file = writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .configFlushInterval(Duration.ZERO)
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            assertTrue(manager.getConfigProcessor().flush());
+            assertEquals(1.0, readCounter(file));
+            assertFalse(manager.getConfigProcessor().flush());
+
+            settingsClass.getField("counter").set(settings, 5);
+            assertTrue(manager.getConfigProcessor().flush());
+            assertEquals(5.0, readCounter(file));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(List.of(file), files.toList());
+            }
+
+            settingsClass.getField("counter").set(settings, 6);
+            assertTrue(manager.stop().isSuccessful());
+            assertEquals(6.0, readCounter(file));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFlushKeepsExternalModification() {
+        Path directory = Files.createTempDirectory("injections-config");
+        Path file = writeConfig(directory, "first", 80, false);
+        boolean posix = Files.getFileAttributeView(file, PosixFileAttributeView.class) != null;
+        if (posix) {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r--r--"));
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .configFlushInterval(Duration.ZERO)
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            settingsClass.getField("counter").set(settings, 7);
+            writeConfig(directory, "edited", 80, false);
+            assertTrue(manager.getConfigProcessor().flush());
+
+            JsonObject properties = JsonParser.parseString(Files.readString(file)).getAsJsonObject()
+                    .getAsJsonObject("properties");
+            assertEquals("edited", properties.get("app.name").getAsString());
+            assertEquals(7.0, readCounter(file));
+            assertEquals("edited", settingsClass.getField("name").get(settings));
+            if (posix) {
+                assertEquals(PosixFilePermissions.fromString("rw-r--r--"), Files.getPosixFilePermissions(file));
+            }
+            manager.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testPeriodicFlush() {
+        Path directory = Files.createTempDirectory("injections-config");
+        Path file = writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .configFlushInterval(Duration.ofMillis(20))
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            settingsClass.getField("counter").set(settings, 7);
+            Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> readCounter(file) == 7);
+            manager.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testWatchConfigFile() {
+        Path directory = Files.createTempDirectory("injections-config");
+        writeConfig(directory, "first", 80, false);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .enableConfigFileInjection(directory.toString(), "application.json")
+                    .enableConfigWatch()
+                    .addTarget(loader, "config.sample").build();
+            manager.start();
+
+            Class<?> settingsClass = loader.loadClass("config.sample.Settings");
+            Object settings = manager.getDependencyRegistry().resolve(settingsClass);
+            writeConfig(directory, "second", 80, false);
+            Awaitility.await().atMost(10, TimeUnit.SECONDS)
+                    .until(() -> "second".equals(settingsClass.getField("name").get(settings)));
+            assertEquals(80, settingsClass.getField("port").get(settings));
+            manager.stop();
+        }
+    }
+}
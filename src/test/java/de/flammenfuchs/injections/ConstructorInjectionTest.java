@@ -0,0 +1,147 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.graph.DependencyCycleException;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConstructorInjectionTest {
+
+    private static final String SERVICE_SOURCE = """
+            package constructed.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.registry.DependencyRegistry;
+
+            @Scoped
+            public class ConstructedService {
+
+                public final ConstructedRepository repository;
+                public final DependencyRegistry registry;
+
+                @Inject
+                ConstructedService(ConstructedRepository repository, DependencyRegistry registry) {
+                    this.repository = repository;
+                    this.registry = registry;
+                }
+            }
+            """;
+    private static final String REPOSITORY_SOURCE = """
+            package constructed.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class ConstructedRepository {
+
+                public final Connection connection;
+
+                @Inject
+                public ConstructedRepository(Connection connection) {
+                    this.connection = connection;
+                }
+            }
+            """;
+    private static final String CONNECTION_SOURCE = """
+            package constructed.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class Connection {
+            }
+            """;
+    private static final String CYCLE_A_SOURCE = """
+            package constructed.cycle;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class CycleA {
+
+                @Inject
+                public CycleA(CycleB b) {
+                }
+            }
+            """;
+    private static final String CYCLE_B_SOURCE = """
+            package constructed.cycle;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class CycleB {
+
+                @Inject
+                public CycleB(CycleA a) {
+                }
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "constructed.sample.ConstructedService", SERVICE_SOURCE,
+                "constructed.sample.ConstructedRepository", REPOSITORY_SOURCE,
+                "constructed.sample.Connection", CONNECTION_SOURCE,
+                "constructed.cycle.CycleA", CYCLE_A_SOURCE,
+                "constructed.cycle.CycleB", CYCLE_B_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConstructorInjection() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .parallelInstantiation(executor)
+                    .addTarget(loader, "constructed.sample").build();
+            manager.start();
+
+            Class<?> serviceClass = loader.loadClass("constructed.sample.ConstructedService");
+            Class<?> repositoryClass = loader.loadClass("constructed.sample.ConstructedRepository");
+            Object service = manager.getDependencyRegistry().resolve(serviceClass);
+            Object repository = manager.getDependencyRegistry().resolve(repositoryClass);
+            assertNotNull(service);
+            assertSame(repository, serviceClass.getField("repository").get(service));
+            assertSame(manager.getDependencyRegistry(), serviceClass.getField("registry").get(service));
+            assertSame(manager.getDependencyRegistry().resolve(loader.loadClass("constructed.sample.Connection")),
+                    repositoryClass.getField("connection").get(repository));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConstructorCycle() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "constructed.cycle").build();
+            DependencyCycleException exception = assertThrows(DependencyCycleException.class, manager::start);
+            assertEquals(3, exception.getCycle().size());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.graph.DependencyCycleException;
+import de.flammenfuchs.injections.graph.DependencyGraph;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    @Test
+    public void testSort() {
+        DependencyGraph<String> graph = new DependencyGraph<>();
+        graph.addNode("a");
+        graph.addDependency("b", "c");
+        graph.addNode("d");
+        graph.addDependency("a", "d");
+        assertEquals(List.of("c", "d", "b", "a"), graph.sort());
+    }
+
+    @Test
+    public void testCycle() {
+        DependencyGraph<String> graph = new DependencyGraph<>();
+        graph.addNode("x");
+        graph.addDependency("a", "b");
+        graph.addDependency("b", "c");
+        graph.addDependency("c", "a");
+        DependencyCycleException exception = assertThrows(DependencyCycleException.class, graph::sort);
+        assertEquals(List.of("a", "b", "c", "a"), exception.getCycle());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testParallelExecution() {
+        DependencyGraph<String> graph = new DependencyGraph<>();
+        graph.addDependency("last", "a");
+        graph.addDependency("last", "b");
+        graph.addDependency("last", "c");
+        CountDownLatch latch = new CountDownLatch(3);
+        List<String> completed = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            graph.execute(node -> {
+                if (!node.equals("last")) {
+                    latch.countDown();
+                    try {
+                        assertTrue(latch.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                completed.add(node);
+            }, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4, completed.size());
+        assertEquals("last", completed.get(3));
+    }
+
+    @Test
+    public void testFailureSkipsDependents() {
+        DependencyGraph<String> graph = new DependencyGraph<>();
+        graph.addDependency("b", "a");
+        graph.addNode("c");
+        List<String> completed = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> graph.execute(node -> {
+                if (node.equals("a")) {
+                    throw new IllegalStateException("failed " + node);
+                }
+                completed.add(node);
+            }, executor));
+            assertEquals("failed a", exception.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+        assertFalse(completed.contains("b"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFailureIsReportedWithoutWaiting() {
+        DependencyGraph<String> graph = new DependencyGraph<>();
+        graph.addNode("slow");
+        graph.addNode("failing");
+        graph.addDependency("dependent", "slow");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> completed = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> graph.execute(node -> {
+                if (node.equals("slow")) {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                } else if (node.equals("failing")) {
+                    try {
+                        assertTrue(started.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    throw new IllegalStateException("failed " + node);
+                }
+                completed.add(node);
+            }, executor));
+            assertEquals("failed failing", exception.getMessage());
+            assertEquals(1, release.getCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of("slow"), completed);
+    }
+}
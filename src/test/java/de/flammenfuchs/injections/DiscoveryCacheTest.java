@@ -0,0 +1,117 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.reflect.scanner.ClassScanner;
+import de.flammenfuchs.javalib.reflect.scanner.DefaultClassScanner;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DiscoveryCacheTest {
+
+    private static final String SERVICE_SOURCE = """
+            package cached.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class CachedService {
+
+                @Inject
+                public CachedRepository repository;
+
+                public boolean started;
+
+                @Startup
+                public void start() {
+                    started = true;
+                }
+            }
+            """;
+    private static final String REPOSITORY_SOURCE = """
+            package cached.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class CachedRepository {
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "cached.sample.CachedService", SERVICE_SOURCE,
+                "cached.sample.CachedRepository", REPOSITORY_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testCachedDiscovery() {
+        Path cacheFile = Files.createTempDirectory("injections-cache").resolve("discovery.json");
+        AtomicInteger scans = new AtomicInteger();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            assertServiceInjected(startManager(loader, cacheFile, scans), loader);
+            assertEquals(1, scans.get());
+            assertTrue(Files.exists(cacheFile));
+            assertTrue(Files.readString(cacheFile).contains("cached.sample.CachedService"));
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            assertServiceInjected(startManager(loader, cacheFile, scans), loader);
+            assertEquals(1, scans.get());
+        }
+
+        Path repository = output.resolve("cached/sample/CachedRepository.class");
+        Files.setLastModifiedTime(repository, FileTime.fromMillis(Files.getLastModifiedTime(repository).toMillis() + 2000));
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            assertServiceInjected(startManager(loader, cacheFile, scans), loader);
+            assertEquals(2, scans.get());
+        }
+    }
+
+    private InjectionsManager startManager(ClassLoader loader, Path cacheFile, AtomicInteger scans) {
+        InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                .disableDiscoveryIndex()
+                .discoveryCache(cacheFile)
+                .setClassScannerSupplier((classLoader, topPackage, ignoredPackages) -> {
+                    scans.incrementAndGet();
+                    ClassScanner scanner = new DefaultClassScanner(topPackage, classLoader);
+                    scanner.addIgnoredPackages(ignoredPackages);
+                    return scanner;
+                })
+                .addTarget(loader, "cached").build();
+        manager.start();
+        return manager;
+    }
+
+    @SneakyThrows
+    private void assertServiceInjected(InjectionsManager manager, ClassLoader loader) {
+        Class<?> serviceClass = loader.loadClass("cached.sample.CachedService");
+        Object service = manager.getDependencyRegistry().resolve(serviceClass);
+        assertNotNull(service);
+        assertNotNull(serviceClass.getField("repository").get(service));
+        assertTrue((boolean) serviceClass.getField("started").get(service));
+    }
+}
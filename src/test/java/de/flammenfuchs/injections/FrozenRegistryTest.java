@@ -0,0 +1,84 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.registry.AmbiguousDependencyException;
+import de.flammenfuchs.injections.registry.DependencyRegistry;
+import de.flammenfuchs.injections.registry.Key;
+import de.flammenfuchs.injections.sample.TestA;
+import de.flammenfuchs.injections.sample.TestD;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenRegistryTest {
+
+    interface Store {
+    }
+
+    static class FirstStore implements Store {
+    }
+
+    static class SecondStore implements Store {
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFrozenLookup() {
+        DependencyRegistry registry = new DependencyRegistry();
+        List<Class<?>> types = ArrayTypes.chain(250);
+        for (Class<?> type : types) {
+            registry.register(ArrayTypes.instance(type), (Class<Object>) type);
+        }
+        registry.register(new FirstStore());
+        registry.register(new SecondStore());
+
+        Key<Object[]> beforeFreeze = registry.key(Object[].class);
+        registry.freeze();
+        assertTrue(registry.isFrozen());
+        assertEquals(252, registry.getSize());
+
+        for (Class<?> registered : types) {
+            assertEquals(registered, registry.resolve(registered).getClass());
+            Key<?> key = registry.key(registered);
+            assertEquals(registered, registry.resolve(key).getClass());
+        }
+        assertNotNull(registry.resolve(beforeFreeze));
+        assertNull(registry.resolve(Runnable.class));
+        assertNull(registry.resolve(registry.key(Runnable.class)));
+        assertThrows(AmbiguousDependencyException.class, () -> registry.resolve(Store.class));
+        assertThrows(AmbiguousDependencyException.class, () -> registry.resolve(registry.key(Store.class)));
+        assertThrows(IllegalStateException.class, () -> registry.register(new Object()));
+    }
+
+    @Test
+    public void testEmptyFrozenRegistry() {
+        DependencyRegistry registry = new DependencyRegistry();
+        registry.freeze();
+        registry.freeze();
+        assertNull(registry.resolve(String.class));
+        assertNull(registry.resolve(registry.key(String.class)));
+    }
+
+    @Test
+    public void testFreezeAfterStart() {
+        InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                .enableFreezeAfterStart()
+                .addTarget(getClass().getClassLoader(), "de.flammenfuchs.injections.sample").build();
+        manager.start();
+
+        DependencyRegistry registry = manager.getDependencyRegistry();
+        assertTrue(registry.isFrozen());
+        assertSame(registry, registry.resolve(registry.key(DependencyRegistry.class)));
+        TestA a = registry.resolve(registry.key(TestA.class));
+        assertNotNull(a);
+
+        TestD test = new TestD();
+        manager.processObject(test);
+        assertSame(a, test.a);
+        assertEquals(7, test.b);
+    }
+}
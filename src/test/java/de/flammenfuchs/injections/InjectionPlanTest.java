@@ -0,0 +1,94 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Inject;
+import de.flammenfuchs.injections.annon.Scoped;
+import de.flammenfuchs.injections.annon.Startup;
+import de.flammenfuchs.injections.discovery.DiscoveryResult;
+import de.flammenfuchs.injections.discovery.InjectionPlan;
+import de.flammenfuchs.injections.discovery.InjectionsDiscovery;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.registry.AnnotationRegistry;
+import de.flammenfuchs.injections.sample.TestD;
+import de.flammenfuchs.javalib.lang.triple.Triple;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+import de.flammenfuchs.javalib.reflect.scanner.ClassScanner;
+import de.flammenfuchs.javalib.reflect.scanner.DefaultClassScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InjectionPlanTest {
+
+    private final AnnotationRegistry registry = new AnnotationRegistry();
+    private final InjectionsDiscovery discovery = new InjectionsDiscovery(registry, null,
+            new Logger(InjectionsBuilder.DEFAULT_LOGGER_NAME, LogLevel.NONE, InjectionsBuilder.DEFAULT_LOGGER_FORMAT, false),
+            false, false, null);
+
+    @Test
+    public void testPlanCached() {
+        registry.registerFieldAnnotation(Inject.class, (field, instance) -> null);
+        registry.registerMethodAnnotation(Startup.class, (method, instance) -> {});
+
+        InjectionPlan plan = discovery.getPlan(TestD.class);
+        assertEquals(1, plan.getFields().length);
+        assertEquals(1, plan.getMethods().length);
+        assertEquals(0, plan.getLateMethods().length);
+        assertSame(plan, discovery.getPlan(TestD.class));
+    }
+
+    @Test
+    public void testPlanInvalidated() {
+        registry.registerFieldAnnotation(Inject.class, (field, instance) -> null);
+        InjectionPlan plan = discovery.getPlan(TestD.class);
+        assertEquals(0, plan.getMethods().length);
+
+        registry.registerMethodAnnotation(Startup.class, (method, instance) -> {});
+        InjectionPlan newPlan = discovery.getPlan(TestD.class);
+        assertNotSame(plan, newPlan);
+        assertEquals(1, newPlan.getMethods().length);
+    }
+
+    @Test
+    public void testParallelDiscoveryDeterministic() {
+        registry.registerClassAnnotation(Scoped.class, clazz -> true);
+        registry.registerFieldAnnotation(Inject.class, (field, instance) -> null);
+        registry.registerMethodAnnotation(Startup.class, (method, instance) -> {});
+        InjectionsDiscovery scanningDiscovery = new InjectionsDiscovery(registry, (loader, topPackage, ignored) -> {
+            ClassScanner scanner = new DefaultClassScanner(topPackage, loader);
+            scanner.addIgnoredPackages(ignored);
+            return scanner;
+        }, new Logger(InjectionsBuilder.DEFAULT_LOGGER_NAME, LogLevel.NONE, InjectionsBuilder.DEFAULT_LOGGER_FORMAT, false),
+                false, false, null);
+
+        ClassLoader loader = getClass().getClassLoader();
+        List<Triple<ClassLoader, String, String[]>> targets = List.of(
+                Triple.finalTriple(loader, "de.flammenfuchs.injections.sample", new String[0]),
+                Triple.finalTriple(loader, "de.flammenfuchs.injections.accessor", new String[0]));
+        List<DiscoveryResult> sequential = new ArrayList<>();
+        for (var target : targets) {
+            sequential.add(scanningDiscovery.discoverTargets(target.a(), target.b(), target.c()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<DiscoveryResult> parallel = scanningDiscovery.discoverTargets(targets, executor);
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).getClasses(), parallel.get(i).getClasses());
+                assertEquals(List.copyOf(sequential.get(i).getFields().keySet()),
+                        List.copyOf(parallel.get(i).getFields().keySet()));
+                assertEquals(List.copyOf(sequential.get(i).getMethods().keySet()),
+                        List.copyOf(parallel.get(i).getMethods().keySet()));
+            }
+            assertEquals(2, parallel.get(0).getClassesFound());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.index.InjectionsIndex;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.injector.InjectorProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.reflect.scanner.ClassScanner;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InjectionsIndexTest {
+
+    private static final String SERVICE_SOURCE = """
+            package indexed.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class IndexedService {
+
+                @Inject
+                public IndexedRepository repository;
+            }
+            """;
+    private static final String REPOSITORY_SOURCE = """
+            package indexed.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class IndexedRepository {
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "indexed.sample.IndexedService", SERVICE_SOURCE,
+                "indexed.sample.IndexedRepository", REPOSITORY_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testIndexWritten() {
+        Path indexFile = output.resolve(InjectionsIndex.INDEX_LOCATION);
+        assertTrue(Files.exists(indexFile));
+        List<String> lines = Files.readAllLines(indexFile);
+        assertTrue(lines.contains("indexed.sample.IndexedService de.flammenfuchs.injections.annon.Scoped"));
+        assertTrue(lines.contains("indexed.sample.IndexedService#repository de.flammenfuchs.injections.annon.Inject"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testDiscoveryWithIndex() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsIndex index = InjectionsIndex.load(loader);
+            assertNotNull(index);
+            assertEquals(2, index.findClasses("indexed", new String[0], name -> true).size());
+            assertEquals(0, index.findClasses("indexed", new String[]{"indexed.sample"}, name -> true).size());
+
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "indexed").build();
+            manager.start();
+
+            Class<?> serviceClass = loader.loadClass("indexed.sample.IndexedService");
+            Object service = manager.getDependencyRegistry().resolve(serviceClass);
+            assertNotNull(service);
+            assertNotNull(serviceClass.getField("repository").get(service));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testRootWithoutIndexIsScanned() {
+        Path plain = TestCompiler.compile(Map.of("indexed.plain.PlainService", """
+                package indexed.plain;
+
+                import de.flammenfuchs.injections.annon.Scoped;
+
+                @Scoped
+                public class PlainService {
+                }
+                """), new InjectorProcessor());
+        assertFalse(Files.exists(plain.resolve(InjectionsIndex.INDEX_LOCATION)));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL(), plain.toUri().toURL()},
+                getClass().getClassLoader())) {
+            InjectionsIndex index = InjectionsIndex.load(loader);
+            assertEquals(List.of(plain.toUri().toURL().toString()), index.findUnindexedRoots(loader, "indexed"));
+            assertTrue(index.findUnindexedRoots(loader, "indexed.sample").isEmpty());
+
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "indexed").build();
+            manager.start();
+
+            assertNotNull(manager.getDependencyRegistry().resolve(loader.loadClass("indexed.plain.PlainService")));
+            assertNotNull(manager.getDependencyRegistry().resolve(loader.loadClass("indexed.sample.IndexedService")));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testJarWithoutDirectoryEntriesIsScanned() {
+        Path plain = TestCompiler.compile(Map.of("indexed.flat.FlatService", """
+                package indexed.flat;
+
+                import de.flammenfuchs.injections.annon.Scoped;
+
+                @Scoped
+                public class FlatService {
+                }
+                """), new InjectorProcessor());
+        Path jar = Files.createTempFile("flat", ".jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("indexed/flat/FlatService.class"));
+            out.write(Files.readAllBytes(plain.resolve("indexed/flat/FlatService.class")));
+            out.closeEntry();
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL(), jar.toUri().toURL()},
+                getClass().getClassLoader())) {
+            InjectionsIndex index = InjectionsIndex.load(loader);
+            assertNull(index.findUnindexedRoots(loader, "indexed.flat"));
+
+            AtomicInteger scans = new AtomicInteger();
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .setClassScannerSupplier((classLoader, topPackage, ignoredPackages) -> new ClassScanner() {
+                        @Override
+                        @SneakyThrows
+                        public List<Class<?>> scan() {
+                            scans.incrementAndGet();
+                            return List.of(classLoader.loadClass("indexed.flat.FlatService"));
+                        }
+
+                        @Override
+                        public void addIgnoredPackages(String... packages) {
+                        }
+                    })
+                    .addTarget(loader, "indexed.flat").build();
+            manager.start();
+
+            assertEquals(1, scans.get());
+            assertNotNull(manager.getDependencyRegistry().resolve(loader.loadClass("indexed.flat.FlatService")));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testIncrementalCompilationKeepsEntries() {
+        Path incremental = TestCompiler.compile(Map.of(
+                "indexed.sample.IndexedService", SERVICE_SOURCE,
+                "indexed.sample.IndexedRepository", REPOSITORY_SOURCE
+        ), new InjectionsIndexProcessor());
+        TestCompiler.compileInto(incremental, Map.of("indexed.sample.IndexedService", """
+                package indexed.sample;
+
+                import de.flammenfuchs.injections.annon.Scoped;
+
+                @Scoped
+                public class IndexedService {
+                }
+                """), new InjectionsIndexProcessor());
+
+        List<String> lines = Files.readAllLines(incremental.resolve(InjectionsIndex.INDEX_LOCATION));
+        assertTrue(lines.contains("indexed.sample.IndexedRepository de.flammenfuchs.injections.annon.Scoped"));
+        assertTrue(lines.contains("indexed.sample.IndexedService de.flammenfuchs.injections.annon.Scoped"));
+        assertFalse(lines.contains("indexed.sample.IndexedService#repository de.flammenfuchs.injections.annon.Inject"));
+    }
+}
@@ -0,0 +1,217 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.injector.Injector;
+import de.flammenfuchs.injections.injector.InjectorProcessor;
+import de.flammenfuchs.injections.injector.Injectors;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InjectorProcessorTest {
+
+    private static final String SERVICE_SOURCE = """
+            package generated.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.LateStartup;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class GeneratedService {
+
+                @Inject
+                GeneratedRepository repository;
+
+                @Inject
+                private GeneratedRepository privateRepository;
+
+                public int started;
+                public GeneratedRepository lateRepository;
+
+                @Startup
+                void start() {
+                    started = privateRepository == null ? -1 : 1;
+                }
+
+                @LateStartup
+                void lateStart(GeneratedRepository repository) {
+                    lateRepository = repository;
+                }
+
+                public GeneratedRepository getRepository() {
+                    return repository;
+                }
+            }
+            """;
+    private static final String REPOSITORY_SOURCE = """
+            package generated.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+
+            @Scoped
+            public class GeneratedRepository {
+            }
+            """;
+
+    private static final String EVENTS_SOURCE = """
+            package ordered.sample;
+
+            import java.util.List;
+            import java.util.concurrent.CopyOnWriteArrayList;
+            import java.util.concurrent.CyclicBarrier;
+            import java.util.concurrent.TimeUnit;
+
+            public class Events {
+                public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+                public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+                public static void await() {
+                    try {
+                        BARRIER.await(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            """;
+    private static final String GENERATED_STARTUP_SOURCE = """
+            package ordered.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class GeneratedStartup {
+
+                @Startup
+                void start() {
+                    Events.await();
+                    Events.EVENTS.add("generated");
+                }
+            }
+            """;
+    private static final String REFLECTIVE_STARTUP_SOURCE = """
+            package ordered.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class ReflectiveStartup {
+
+                @Startup
+                private void start() {
+                    Events.await();
+                    Events.EVENTS.add("reflective");
+                }
+            }
+            """;
+    private static final String DEPENDENT_STARTUP_SOURCE = """
+            package ordered.sample;
+
+            import de.flammenfuchs.injections.annon.DependsOn;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class DependentStartup {
+
+                @Startup
+                @DependsOn({GeneratedStartup.class, ReflectiveStartup.class})
+                void start() {
+                    Events.EVENTS.add("dependent");
+                }
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "generated.sample.GeneratedService", SERVICE_SOURCE,
+                "generated.sample.GeneratedRepository", REPOSITORY_SOURCE,
+                "ordered.sample.Events", EVENTS_SOURCE,
+                "ordered.sample.GeneratedStartup", GENERATED_STARTUP_SOURCE,
+                "ordered.sample.ReflectiveStartup", REFLECTIVE_STARTUP_SOURCE,
+                "ordered.sample.DependentStartup", DEPENDENT_STARTUP_SOURCE
+        ), new InjectorProcessor(), "-A" + InjectorProcessor.OPTION + "=true");
+    }
+
+    @Test
+    public void testInjectorGenerated() {
+        assertTrue(Files.exists(output.resolve("generated/sample/GeneratedService_Injector.class")));
+        assertTrue(Files.exists(output.resolve("generated/sample/GeneratedRepository_Injector.class")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testGeneratedInjector() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> serviceClass = loader.loadClass("generated.sample.GeneratedService");
+            Injector<?> injector = Injectors.find(serviceClass);
+            assertNotNull(injector);
+            assertEquals(Set.of("repository"), injector.getInjectedFields());
+            assertEquals(Set.of("start()", "lateStart(generated.sample.GeneratedRepository)"),
+                    injector.getInvokedMethods());
+
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "generated").build();
+            manager.start();
+
+            Object service = manager.getDependencyRegistry().resolve(serviceClass);
+            Object repository = manager.getDependencyRegistry().resolve(loader.loadClass("generated.sample.GeneratedRepository"));
+            assertSame(repository, serviceClass.getMethod("getRepository").invoke(service));
+            assertEquals(1, serviceClass.getField("started").get(service));
+            assertSame(repository, serviceClass.getField("lateRepository").get(service));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public void testInjectorMethodsKeepStartupOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            assertEquals(Set.of("start()"), Injectors.find(loader.loadClass("ordered.sample.GeneratedStartup"))
+                    .getInvokedMethods());
+            assertEquals(Set.of(), Injectors.find(loader.loadClass("ordered.sample.ReflectiveStartup"))
+                    .getInvokedMethods());
+
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .parallelStartup(executor)
+                    .addTarget(loader, "ordered.sample").build();
+            manager.start();
+
+            List<String> events = (List<String>) loader.loadClass("ordered.sample.Events").getField("EVENTS").get(null);
+            assertEquals(3, events.size());
+            assertEquals(Set.of("generated", "reflective"), Set.copyOf(events.subList(0, 2)));
+            assertEquals("dependent", events.get(2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMissingInjector() {
+        assertNull(Injectors.find(InjectorProcessorTest.class));
+    }
+}
@@ -0,0 +1,65 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.instrumentation.InjectionsEvent;
+import de.flammenfuchs.injections.instrumentation.InjectionsListener;
+import de.flammenfuchs.injections.instrumentation.SlowestStepsCollector;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.sample.TestA;
+import de.flammenfuchs.injections.sample.TestB;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentationTest {
+
+    @Test
+    public void testStepsMeasured() {
+        List<InjectionsEvent> events = new CopyOnWriteArrayList<>();
+        AtomicLong started = new AtomicLong(-1);
+        SlowestStepsCollector collector = new SlowestStepsCollector(null, 3);
+        InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                .disableShutdownHook()
+                .addListener(events::add)
+                .addListener(collector)
+                .addListener(new InjectionsListener() {
+                    @Override
+                    public void onEvent(InjectionsEvent event) {
+                    }
+
+                    @Override
+                    public void onStarted(long durationNanos) {
+                        started.set(durationNanos);
+                    }
+                })
+                .addTarget(getClass().getClassLoader(), "de.flammenfuchs.injections.sample").build();
+        manager.start();
+
+        Set<InjectionsEvent.Kind> kinds = EnumSet.noneOf(InjectionsEvent.Kind.class);
+        events.forEach(event -> kinds.add(event.getKind()));
+        assertEquals(EnumSet.allOf(InjectionsEvent.Kind.class), kinds);
+        assertTrue(events.stream().allMatch(event -> event.getDurationNanos() >= 0));
+        assertTrue(events.stream().anyMatch(event -> event.getKind() == InjectionsEvent.Kind.INSTANTIATION
+                && event.getSubject() == TestA.class));
+        assertTrue(events.stream().anyMatch(event -> event.getKind() == InjectionsEvent.Kind.METHOD_INVOCATION
+                && event.getName().equals(TestB.class.getName() + "#a()")));
+        assertTrue(events.stream().anyMatch(event -> event.getKind() == InjectionsEvent.Kind.TARGET_SCAN
+                && event.getName().equals("de.flammenfuchs.injections.sample")));
+        assertTrue(started.get() >= 0);
+
+        List<InjectionsEvent> slowest = collector.getSlowest();
+        assertEquals(3, slowest.size());
+        for (int i = 1; i < slowest.size(); i++) {
+            assertTrue(slowest.get(i - 1).getDurationNanos() >= slowest.get(i).getDurationNanos());
+        }
+        assertTrue(slowest.stream().noneMatch(event -> event.getKind() == InjectionsEvent.Kind.PHASE));
+        manager.stop();
+    }
+}
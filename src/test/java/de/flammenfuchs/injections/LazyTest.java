@@ -0,0 +1,187 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.registry.DependencyRegistry;
+import de.flammenfuchs.injections.registry.Provider;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LazyTest {
+
+    private static final String LAZY_SOURCE = """
+            package lazy.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Lazy;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            @Lazy
+            public class LazyService {
+
+                @Inject
+                public EagerService eager;
+
+                public int started;
+
+                @Startup
+                public void start() {
+                    started++;
+                }
+            }
+            """;
+    private static final String EAGER_SOURCE = """
+            package lazy.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.registry.Provider;
+
+            @Scoped
+            public class EagerService {
+
+                @Inject
+                public Provider<LazyService> lazy;
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "lazy.sample.LazyService", LAZY_SOURCE,
+                "lazy.sample.EagerService", EAGER_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testLazyInstantiation() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "lazy").build();
+            manager.start();
+
+            Class<?> lazyClass = loader.loadClass("lazy.sample.LazyService");
+            Class<?> eagerClass = loader.loadClass("lazy.sample.EagerService");
+            assertFalse(manager.getDependencyRegistry().asMap().containsKey(lazyClass));
+            assertTrue(manager.getDependencyRegistry().resolveAllTypes().contains(lazyClass));
+
+            Object eager = manager.getDependencyRegistry().resolve(eagerClass);
+            Provider<?> provider = (Provider<?>) eagerClass.getField("lazy").get(eager);
+            assertNotNull(provider);
+            assertFalse(manager.getDependencyRegistry().asMap().containsKey(lazyClass));
+
+            Object lazy = provider.get();
+            assertNotNull(lazy);
+            assertSame(lazy, manager.getDependencyRegistry().resolve(lazyClass));
+            assertSame(eager, lazyClass.getField("eager").get(lazy));
+            assertEquals(1, lazyClass.getField("started").get(lazy));
+            assertTrue(manager.getDependencyRegistry().asMap().containsKey(lazyClass));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConcurrentLazyResolve() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "lazy").build();
+            manager.start();
+
+            Class<?> lazyClass = loader.loadClass("lazy.sample.LazyService");
+            int threads = 8;
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        barrier.await();
+                        return manager.getDependencyRegistry().resolve(lazyClass);
+                    }));
+                }
+                Object first = results.get(0).get(5, TimeUnit.SECONDS);
+                for (Future<Object> result : results) {
+                    assertSame(first, result.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(1, lazyClass.getField("started").get(first));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testMutualLazyResolveOnTwoThreads() {
+        DependencyRegistry registry = new DependencyRegistry();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        registry.registerLazy(First.class, First::new, first -> {
+            await(barrier);
+            first.second = registry.resolve(Second.class);
+        }, List.of());
+        registry.registerLazy(Second.class, Second::new, second -> {
+            await(barrier);
+            second.first = registry.resolve(First.class);
+        }, List.of());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<First> first = executor.submit(() -> registry.resolve(First.class));
+            Future<Second> second = executor.submit(() -> registry.resolve(Second.class));
+            assertSame(second.get(5, TimeUnit.SECONDS), first.get(5, TimeUnit.SECONDS).second);
+            assertSame(first.get(), second.get().first);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedLazyInitializationIsRethrown() {
+        DependencyRegistry registry = new DependencyRegistry();
+        AtomicInteger created = new AtomicInteger();
+        registry.registerLazy(First.class, () -> {
+            created.incrementAndGet();
+            return new First();
+        }, first -> {
+            throw new IllegalStateException("broken");
+        }, List.of());
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> registry.resolve(First.class));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> registry.resolve(First.class)));
+        assertEquals(1, created.get());
+    }
+
+    @SneakyThrows
+    private static void await(CyclicBarrier barrier) {
+        barrier.await(5, TimeUnit.SECONDS);
+    }
+
+    public static class First {
+        Second second;
+    }
+
+    public static class Second {
+        First first;
+    }
+}
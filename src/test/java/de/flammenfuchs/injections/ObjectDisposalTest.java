@@ -0,0 +1,108 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Shutdown;
+import de.flammenfuchs.injections.annon.Timer;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.manager.ObjectHandle;
+import de.flammenfuchs.injections.sample.TestD;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectDisposalTest {
+
+    InjectionsManager manager;
+
+    @BeforeEach
+    void startManager() {
+        this.manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                .disableShutdownHook().addTarget(this).build();
+        this.manager.start();
+    }
+
+    @AfterEach
+    void stopManager() {
+        this.manager.stop();
+    }
+
+    @Test
+    public void testDispose() {
+        int timers = this.manager.getTimerScheduler().getScheduledTimers();
+        int hooks = this.manager.getShutdownCoordinator().getHooks();
+        Session session = new Session();
+        ObjectHandle handle = this.manager.processObject(session);
+        assertEquals(timers + 1, this.manager.getTimerScheduler().getScheduledTimers());
+        assertEquals(hooks + 1, this.manager.getShutdownCoordinator().getHooks());
+        assertEquals(1, this.manager.getUndisposedObjects());
+        assertSame(session, handle.getObject());
+
+        assertTrue(this.manager.dispose(session));
+        assertTrue(handle.isDisposed());
+        assertFalse(this.manager.dispose(session));
+        assertEquals(timers, this.manager.getTimerScheduler().getScheduledTimers());
+        assertEquals(hooks, this.manager.getShutdownCoordinator().getHooks());
+        assertEquals(0, this.manager.getUndisposedObjects());
+
+        int ticks = session.ticks;
+        handle.close();
+        assertEquals(ticks, session.ticks);
+    }
+
+    @Test
+    public void testCloseHandle() {
+        Session session = new Session();
+        try (ObjectHandle handle = this.manager.processObject(session)) {
+            assertFalse(handle.isDisposed());
+        }
+        assertEquals(0, this.manager.getUndisposedObjects());
+        assertFalse(this.manager.dispose(session));
+    }
+
+    @Test
+    public void testObjectWithoutResources() {
+        ObjectHandle handle = this.manager.processObject(new TestD());
+        assertEquals(0, this.manager.getUndisposedObjects());
+        handle.dispose();
+        assertTrue(handle.isDisposed());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testUnreachableObjectsAreCleaned() {
+        int timers = this.manager.getTimerScheduler().getScheduledTimers();
+        int hooks = this.manager.getShutdownCoordinator().getHooks();
+        for (int i = 0; i < 100; i++) {
+            this.manager.processObject(new Session());
+        }
+        assertEquals(100, this.manager.getUndisposedObjects());
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            System.gc();
+            return this.manager.getUndisposedObjects() == 0;
+        });
+        assertEquals(timers, this.manager.getTimerScheduler().getScheduledTimers());
+        assertEquals(hooks, this.manager.getShutdownCoordinator().getHooks());
+    }
+
+    public static class Session {
+
+        public volatile int ticks;
+
+        @Timer(delay = 10, period = 10)
+        public void tick() {
+            ticks++;
+        }
+
+        @Shutdown
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Inject;
+import de.flammenfuchs.injections.annon.Scoped;
+import de.flammenfuchs.injections.annon.Startup;
+import de.flammenfuchs.injections.registry.AnnotationRegistry;
+import de.flammenfuchs.injections.registry.DependencyRegistry;
+import de.flammenfuchs.injections.registry.TypeConsumer;
+import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistryStressTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int TYPES = 200;
+
+    /**
+     * Create distinct classes to be used as keys
+     *
+     * @return array classes of Object with 1 to {@link #TYPES} dimensions
+     */
+    private static List<Class<?>> createTypes() {
+        List<Class<?>> types = new ArrayList<>();
+        Class<?> type = Object.class;
+        for (int i = 0; i < TYPES; i++) {
+            type = Array.newInstance(type, 0).getClass();
+            types.add(type);
+        }
+        return types;
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public void testConcurrentRegisterAndResolve() {
+        DependencyRegistry registry = new DependencyRegistry();
+        List<Class<?>> types = createTypes();
+        AtomicIntegerArray registered = new AtomicIntegerArray(TYPES);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger violations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CyclicBarrier barrier = new CyclicBarrier(WRITERS + READERS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int offset = writer;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int i = offset; i < TYPES; i += WRITERS) {
+                        Class<Object> type = (Class<Object>) types.get(i);
+                        registry.register(Array.newInstance(type.getComponentType(), 0), type);
+                        registered.set(i, 1);
+                    }
+                    return null;
+                }));
+            }
+            for (int reader = 0; reader < READERS; reader++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        int i = random.nextInt(TYPES);
+                        boolean wasRegistered = registered.get(i) == 1;
+                        Object value = registry.resolve(types.get(i));
+                        if (wasRegistered && value == null || value != null && value.getClass() != types.get(i)) {
+                            violations.incrementAndGet();
+                        }
+                        registry.resolveAllTypes().size();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < WRITERS; i++) {
+                futures.get(i).get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, violations.get());
+        assertEquals(TYPES, registry.getSize());
+        for (Class<?> type : types) {
+            assertNotNull(registry.resolve(type));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConcurrentLazyResolve() {
+        DependencyRegistry registry = new DependencyRegistry();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger initialized = new AtomicInteger();
+        registry.registerLazy(StringBuilder.class, () -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        }, builder -> builder.append(initialized.incrementAndGet()), List.of(CharSequence.class));
+
+        int threads = 16;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Class<?> type = i % 2 == 0 ? StringBuilder.class : CharSequence.class;
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return registry.resolve(type);
+                }));
+            }
+            Object first = results.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals("1", first.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, created.get());
+        assertEquals(1, initialized.get());
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConcurrentAnnotationRegistry() {
+        AnnotationRegistry registry = new AnnotationRegistry();
+        int threads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int j = 0; j < 100; j++) {
+                        switch ((thread + j) % 3) {
+                            case 0 -> registry.registerClassAnnotation(Scoped.class, clazz -> true);
+                            case 1 -> registry.registerFieldAnnotation(Inject.class, (field, instance) -> null);
+                            default -> registry.registerMethodAnnotation(Startup.class, (method, instance) -> {});
+                        }
+                        assertNotNull(registry.getRegisteredAnnotations());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * 100, registry.getVersion());
+        assertNotNull(registry.getClassAnnotationProcessor(Scoped.class));
+        assertNotNull(registry.getFieldAnnotationProcessor(Inject.class));
+        assertNotNull(registry.getMethodAnnotationProcessor(Startup.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testConcurrentTypeConsumers() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        AtomicInteger consumed = new AtomicInteger();
+        int threads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                boolean writer = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int j = 0; j < 200; j++) {
+                        if (writer) {
+                            registry.register(new TypeConsumer<>(String.class, value -> consumed.incrementAndGet()));
+                        } else {
+                            registry.consume("value");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        consumed.set(0);
+        registry.consume("value");
+        assertEquals(threads / 2 * 200, consumed.get());
+    }
+}
@@ -0,0 +1,252 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.DependsOn;
+import de.flammenfuchs.injections.annon.Inject;
+import de.flammenfuchs.injections.annon.Shutdown;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.shutdown.ShutdownCoordinator;
+import de.flammenfuchs.injections.shutdown.ShutdownResult;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShutdownCoordinatorTest {
+
+    private static final Logger LOGGER = new Logger("Test", LogLevel.NONE, InjectionsBuilder.DEFAULT_LOGGER_FORMAT, false);
+
+    private static final String DATABASE_SOURCE = """
+            package shutdown.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Shutdown;
+            import java.util.List;
+            import java.util.concurrent.CopyOnWriteArrayList;
+
+            @Scoped
+            public class Database {
+
+                public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+                @Shutdown
+                void close() {
+                    EVENTS.add("database");
+                }
+            }
+            """;
+    private static final String SERVICE_SOURCE = """
+            package shutdown.sample;
+
+            import de.flammenfuchs.injections.annon.Inject;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Shutdown;
+
+            @Scoped
+            public class Service {
+
+                @Inject
+                Database database;
+
+                @Shutdown
+                void stop() throws Exception {
+                    Thread.sleep(50);
+                    Database.EVENTS.add("service");
+                }
+            }
+            """;
+
+    @Test
+    public void testReverseDependencyOrder() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, ShutdownCoordinator.createDefaultExecutor(), 5000);
+        List<String> events = new CopyOnWriteArrayList<>();
+        coordinator.addLast("last", () -> events.add("last"));
+        coordinator.register("database", CharSequence.class, Set.of(), () -> events.add("database"));
+        coordinator.register("service", String.class, Set.of(CharSequence.class), () -> {
+            sleep(50);
+            events.add("service");
+        });
+        coordinator.addFirst("first", () -> events.add("first"));
+
+        ShutdownResult result = coordinator.stop();
+        assertTrue(result.isSuccessful());
+        assertEquals(List.of("first", "service", "database", "last"), events);
+        assertEquals(events, result.getCompleted());
+    }
+
+    @Test
+    public void testParallelHooks() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, ShutdownCoordinator.createDefaultExecutor(), 5000);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        coordinator.register("a", String.class, Set.of(), () -> await(barrier));
+        coordinator.register("b", Integer.class, Set.of(), () -> await(barrier));
+        assertTrue(coordinator.stop().isSuccessful());
+    }
+
+    @Test
+    public void testCyclicDependenciesAreIgnored() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, null, 5000);
+        coordinator.register("a", String.class, Set.of(Integer.class), () -> {});
+        coordinator.register("b", Integer.class, Set.of(String.class), () -> {});
+        ShutdownResult result = coordinator.stop();
+        assertTrue(result.isSuccessful());
+        assertEquals(2, result.getCompleted().size());
+    }
+
+    @Test
+    public void testLastHooksRunAfterDeadline() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, ShutdownCoordinator.createDefaultExecutor(), 100);
+        CountDownLatch release = new CountDownLatch(1);
+        coordinator.register("hanging", String.class, Set.of(), () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        coordinator.addLast("config", () -> {});
+        try {
+            ShutdownResult result = coordinator.stop();
+            assertEquals(List.of("hanging"), result.getTimedOut());
+            assertEquals(List.of("config"), result.getCompleted());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testManyHooks() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, null, 5000);
+        List<String> events = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            coordinator.register("database", CharSequence.class, Set.of(), () -> events.add("database"));
+            coordinator.register("service", String.class, Set.of(CharSequence.class), () -> events.add("service"));
+        }
+        ShutdownResult result = coordinator.stop();
+        assertTrue(result.isSuccessful());
+        assertEquals(10_000, result.getCompleted().size());
+        assertEquals("service", events.get(4999));
+        assertEquals("database", events.get(5000));
+    }
+
+    @Test
+    public void testOwnedExecutorShutdown() {
+        ExecutorService owned = (ExecutorService) ShutdownCoordinator.createDefaultExecutor();
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, owned, 5000, true);
+        coordinator.register("a", String.class, Set.of(), () -> {});
+        assertTrue(coordinator.stop().isSuccessful());
+        assertTrue(owned.isShutdown());
+
+        ExecutorService shared = (ExecutorService) ShutdownCoordinator.createDefaultExecutor();
+        try {
+            ShutdownCoordinator other = new ShutdownCoordinator(LOGGER, shared, 5000);
+            other.register("b", String.class, Set.of(), () -> {});
+            assertTrue(other.stop().isSuccessful());
+            assertFalse(shared.isShutdown());
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeadlineAndFailure() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, ShutdownCoordinator.createDefaultExecutor(), 200);
+        CountDownLatch release = new CountDownLatch(1);
+        coordinator.register("hanging", String.class, Set.of(), () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        coordinator.register("failing", Integer.class, Set.of(), () -> {
+            throw new IllegalStateException("failed");
+        });
+        coordinator.register("working", Long.class, Set.of(), () -> {});
+        try {
+            ShutdownResult result = coordinator.stop();
+            assertFalse(result.isSuccessful());
+            assertEquals(List.of("hanging"), result.getTimedOut());
+            assertEquals(List.of("failing"), result.getFailed());
+            assertEquals(List.of("working"), result.getCompleted());
+            assertTrue(result.getDurationMillis() < 5000);
+            assertSame(result, coordinator.stop());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public void testManagerStop() {
+        Path output = TestCompiler.compile(Map.of(
+                "shutdown.sample.Database", DATABASE_SOURCE,
+                "shutdown.sample.Service", SERVICE_SOURCE
+        ), new InjectionsIndexProcessor());
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .disableShutdownHook()
+                    .addTarget(loader, "shutdown.sample").build();
+            assertNull(manager.stop());
+            manager.start();
+
+            ShutdownResult result = manager.stop();
+            assertTrue(result.isSuccessful());
+            List<String> events = (List<String>) loader.loadClass("shutdown.sample.Database").getField("EVENTS").get(null);
+            assertEquals(List.of("service", "database"), events);
+            assertSame(result, manager.stop());
+        }
+    }
+
+    static class Injected {
+
+        @Inject
+        CharSequence text;
+
+        @Shutdown
+        @DependsOn(Integer.class)
+        void stop() {
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testDependenciesAreCached() {
+        Set<Class<?>> injected = ShutdownCoordinator.findDependencies(Injected.class, null);
+        assertEquals(Set.of(CharSequence.class), injected);
+        assertSame(injected, ShutdownCoordinator.findDependencies(Injected.class, null));
+        assertEquals(Set.of(CharSequence.class, Integer.class),
+                ShutdownCoordinator.findDependencies(Injected.class, Injected.class.getDeclaredMethod("stop")));
+
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(LOGGER, null, 5000);
+        Runnable first = coordinator.register("first", String.class, injected, () -> {});
+        coordinator.register("second", String.class, injected, () -> {});
+        first.run();
+        first.run();
+        assertEquals(1, coordinator.getHooks());
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+
+    @SneakyThrows
+    private static void await(CyclicBarrier barrier) {
+        barrier.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,216 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.graph.DependencyCycleException;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StartupOrderTest {
+
+    private static final String EVENTS_SOURCE = """
+            package startup.sample;
+
+            import java.util.List;
+            import java.util.concurrent.CopyOnWriteArrayList;
+            import java.util.concurrent.CyclicBarrier;
+
+            public class Events {
+                public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+                public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+            }
+            """;
+    private static final String SCHEMA_SOURCE = """
+            package startup.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+            import java.util.concurrent.TimeUnit;
+
+            @Scoped
+            public class SchemaCheck {
+
+                @Startup
+                void check() throws Exception {
+                    Events.BARRIER.await(5, TimeUnit.SECONDS);
+                    Events.EVENTS.add("schema");
+                }
+            }
+            """;
+    private static final String WARMUP_SOURCE = """
+            package startup.sample;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+            import java.util.concurrent.TimeUnit;
+
+            @Scoped
+            public class CacheWarmup {
+
+                @Startup
+                void warmup() throws Exception {
+                    Events.BARRIER.await(5, TimeUnit.SECONDS);
+                    Events.EVENTS.add("warmup");
+                }
+            }
+            """;
+    private static final String SERVICE_SOURCE = """
+            package startup.sample;
+
+            import de.flammenfuchs.injections.annon.DependsOn;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Service {
+
+                @Startup
+                @DependsOn({SchemaCheck.class, CacheWarmup.class})
+                void start() {
+                    Events.EVENTS.add("service");
+                }
+            }
+            """;
+    private static final String FAILING_SOURCE = """
+            package startup.failing;
+
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Failing {
+
+                @Startup
+                void fail() {
+                    throw new IllegalStateException("startup failed");
+                }
+            }
+            """;
+    private static final String DEPENDENT_SOURCE = """
+            package startup.failing;
+
+            import de.flammenfuchs.injections.annon.DependsOn;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Dependent {
+
+                public static boolean started;
+
+                @Startup
+                @DependsOn(Failing.class)
+                void start() {
+                    started = true;
+                }
+            }
+            """;
+    private static final String CYCLE_SOURCE = """
+            package startup.cycle;
+
+            import de.flammenfuchs.injections.annon.DependsOn;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Cycle {
+
+                @Startup
+                @DependsOn(Other.class)
+                void start() {
+                }
+            }
+            """;
+    private static final String OTHER_SOURCE = """
+            package startup.cycle;
+
+            import de.flammenfuchs.injections.annon.DependsOn;
+            import de.flammenfuchs.injections.annon.Scoped;
+            import de.flammenfuchs.injections.annon.Startup;
+
+            @Scoped
+            public class Other {
+
+                @Startup
+                @DependsOn(Cycle.class)
+                void start() {
+                }
+            }
+            """;
+
+    Path output;
+
+    @BeforeAll
+    void compileSamples() {
+        this.output = TestCompiler.compile(Map.of(
+                "startup.sample.Events", EVENTS_SOURCE,
+                "startup.sample.SchemaCheck", SCHEMA_SOURCE,
+                "startup.sample.CacheWarmup", WARMUP_SOURCE,
+                "startup.sample.Service", SERVICE_SOURCE,
+                "startup.failing.Failing", FAILING_SOURCE,
+                "startup.failing.Dependent", DEPENDENT_SOURCE,
+                "startup.cycle.Cycle", CYCLE_SOURCE,
+                "startup.cycle.Other", OTHER_SOURCE
+        ), new InjectionsIndexProcessor());
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public void testParallelStartupOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .parallelStartup(executor)
+                    .addTarget(loader, "startup.sample").build();
+            manager.start();
+
+            List<String> events = (List<String>) loader.loadClass("startup.sample.Events").getField("EVENTS").get(null);
+            assertEquals(3, events.size());
+            assertEquals("service", events.get(2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testFailFast() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .parallelStartup(executor)
+                    .addTarget(loader, "startup.failing").build();
+            IllegalStateException exception = assertThrows(IllegalStateException.class, manager::start);
+            assertEquals("startup failed", exception.getMessage());
+            assertFalse(loader.loadClass("startup.failing.Dependent").getField("started").getBoolean(null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testCycle() {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "startup.cycle").build();
+            assertThrows(DependencyCycleException.class, manager::start);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Primary;
+import de.flammenfuchs.injections.index.InjectionsIndexProcessor;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.manager.InjectionsManager;
+import de.flammenfuchs.injections.registry.AmbiguousDependencyException;
+import de.flammenfuchs.injections.registry.DependencyRegistry;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupertypeResolutionTest {
+
+    interface Repository {
+    }
+
+    interface UserRepository extends Repository {
+    }
+
+    static abstract class AbstractRepository implements UserRepository {
+    }
+
+    static class MemoryRepository extends AbstractRepository {
+    }
+
+    @Primary
+    static class DatabaseRepository implements Repository {
+    }
+
+    static class FileRepository implements Repository {
+    }
+
+    @Test
+    public void testResolveSupertypes() {
+        DependencyRegistry registry = new DependencyRegistry();
+        MemoryRepository repository = new MemoryRepository();
+        registry.register(repository);
+
+        assertSame(repository, registry.resolve(MemoryRepository.class));
+        assertSame(repository, registry.resolve(AbstractRepository.class));
+        assertSame(repository, registry.resolve(UserRepository.class));
+        assertSame(repository, registry.resolve(Repository.class));
+        assertNull(registry.resolve(Runnable.class));
+        assertEquals(1, registry.getSize());
+    }
+
+    static class RunnableRepository extends MemoryRepository implements Runnable, Comparable<RunnableRepository> {
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public int compareTo(RunnableRepository other) {
+            return 0;
+        }
+    }
+
+    static class Task implements Runnable, AutoCloseable {
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void testPlatformTypesAreNotIndexed() {
+        DependencyRegistry registry = new DependencyRegistry();
+        RunnableRepository repository = new RunnableRepository();
+        registry.register(repository);
+        registry.register(new Task());
+
+        assertNull(registry.resolve(Runnable.class));
+        assertNull(registry.resolve(Comparable.class));
+        assertNull(registry.resolve(AutoCloseable.class));
+        assertSame(repository, registry.resolve(UserRepository.class));
+
+        Task task = new Task();
+        registry.register(task, Runnable.class);
+        assertSame(task, registry.resolve(Runnable.class));
+    }
+
+    @Test
+    public void testAmbiguousSupertype() {
+        DependencyRegistry registry = new DependencyRegistry();
+        MemoryRepository memory = new MemoryRepository();
+        FileRepository file = new FileRepository();
+        registry.register(memory);
+        registry.register(file);
+
+        AmbiguousDependencyException exception = assertThrows(AmbiguousDependencyException.class,
+                () -> registry.resolve(Repository.class));
+        assertEquals(Repository.class, exception.getType());
+        assertEquals(List.of(MemoryRepository.class, FileRepository.class), exception.getCandidates());
+        assertSame(memory, registry.resolve(UserRepository.class));
+
+        registry.register(memory, Repository.class);
+        assertSame(memory, registry.resolve(Repository.class));
+    }
+
+    @Test
+    public void testPrimarySupertype() {
+        DependencyRegistry registry = new DependencyRegistry();
+        FileRepository file = new FileRepository();
+        DatabaseRepository database = new DatabaseRepository();
+        registry.register(file);
+        registry.register(database);
+        registry.register(new MemoryRepository());
+
+        assertSame(database, registry.resolve(Repository.class));
+        assertSame(file, registry.resolve(FileRepository.class));
+    }
+
+    @Test
+    public void testRegisterAll() {
+        DependencyRegistry registry = new DependencyRegistry();
+        MemoryRepository memory = new MemoryRepository();
+        FileRepository file = new FileRepository();
+        DatabaseRepository database = new DatabaseRepository();
+        registry.register(file);
+        registry.registerAll(registrations -> {
+            registrations.register(database).register(memory).register(memory, UserRepository.class);
+            assertNull(registry.resolve(MemoryRepository.class));
+        });
+
+        assertSame(database, registry.resolve(Repository.class));
+        assertSame(memory, registry.resolve(UserRepository.class));
+        assertSame(memory, registry.resolve(AbstractRepository.class));
+        assertSame(file, registry.resolve(FileRepository.class));
+        assertEquals(4, registry.getSize());
+    }
+
+    @Test
+    public void testSameInstanceIsNotAmbiguous() {
+        DependencyRegistry registry = new DependencyRegistry();
+        MemoryRepository repository = new MemoryRepository();
+        registry.register(repository);
+        registry.register(repository, UserRepository.class);
+
+        assertSame(repository, registry.resolve(Repository.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testInjectInterface() {
+        Path output = TestCompiler.compile(Map.of(
+                "supertype.sample.Greeter", """
+                        package supertype.sample;
+
+                        public interface Greeter {
+                            String greet();
+                        }
+                        """,
+                "supertype.sample.EnglishGreeter", """
+                        package supertype.sample;
+
+                        import de.flammenfuchs.injections.annon.Primary;
+                        import de.flammenfuchs.injections.annon.Scoped;
+
+                        @Scoped
+                        @Primary
+                        public class EnglishGreeter implements Greeter {
+                            public String greet() {
+                                return "Hello";
+                            }
+                        }
+                        """,
+                "supertype.sample.GermanGreeter", """
+                        package supertype.sample;
+
+                        import de.flammenfuchs.injections.annon.Scoped;
+
+                        @Scoped
+                        public class GermanGreeter implements Greeter {
+                            public String greet() {
+                                return "Hallo";
+                            }
+                        }
+                        """,
+                "supertype.sample.GreetingService", """
+                        package supertype.sample;
+
+                        import de.flammenfuchs.injections.annon.Inject;
+                        import de.flammenfuchs.injections.annon.Scoped;
+
+                        @Scoped
+                        public class GreetingService {
+
+                            public final Greeter greeter;
+
+                            @Inject
+                            public Greeter fieldGreeter;
+
+                            @Inject
+                            public GreetingService(Greeter greeter) {
+                                this.greeter = greeter;
+                            }
+                        }
+                        """
+        ), new InjectionsIndexProcessor());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            InjectionsManager manager = InjectionsBuilder.create().setLoggerWithLogLevel(LogLevel.NONE)
+                    .addTarget(loader, "supertype").build();
+            manager.start();
+
+            Class<?> serviceClass = loader.loadClass("supertype.sample.GreetingService");
+            Class<?> englishClass = loader.loadClass("supertype.sample.EnglishGreeter");
+            Object service = manager.getDependencyRegistry().resolve(serviceClass);
+            Object english = manager.getDependencyRegistry().resolve(englishClass);
+            assertSame(english, serviceClass.getField("greeter").get(service));
+            assertSame(english, serviceClass.getField("fieldGreeter").get(service));
+        }
+    }
+}
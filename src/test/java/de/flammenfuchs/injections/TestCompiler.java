@@ -0,0 +1,74 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Scoped;
+import lombok.SneakyThrows;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles sample sources against the library classes with the given annotation processors
+ */
+final class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    /**
+     * Compile sources into a new temporary directory
+     *
+     * @param sources the sources with the binary class name as key and the source code as value
+     * @param processor the annotation processor to use
+     * @param options additional compiler options
+     * @return the output directory
+     */
+    @SneakyThrows
+    static Path compile(Map<String, String> sources, Processor processor, String... options) {
+        return compileInto(Files.createTempDirectory("injections-out"), sources, processor, options);
+    }
+
+    /**
+     * Compile sources into an existing directory, which is on the classpath too, like an incremental compilation
+     *
+     * @param output the output directory
+     * @param sources the sources with the binary class name as key and the source code as value
+     * @param processor the annotation processor to use
+     * @param options additional compiler options
+     * @return the output directory
+     */
+    @SneakyThrows
+    static Path compileInto(Path output, Map<String, String> sources, Processor processor, String... options) {
+        Path sourceDir = Files.createTempDirectory("injections-src");
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            files.add(file.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            String classPath = new File(Scoped.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .getAbsolutePath() + File.pathSeparator + output.toAbsolutePath();
+            List<String> arguments = new ArrayList<>(List.of("-d", output.toString(), "-classpath", classPath,
+                    "-s", sourceDir.toString()));
+            arguments.addAll(List.of(options));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, arguments,
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(List.of(processor));
+            if (!task.call()) {
+                throw new IllegalStateException("Compilation of test sources failed");
+            }
+        }
+        return output;
+    }
+}
@@ -0,0 +1,196 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.annon.Timer;
+import de.flammenfuchs.injections.manager.InjectionsBuilder;
+import de.flammenfuchs.injections.timer.LatencyHistogram;
+import de.flammenfuchs.injections.timer.TimerMetrics;
+import de.flammenfuchs.injections.timer.TimerScheduler;
+import de.flammenfuchs.javalib.logging.LogLevel;
+import de.flammenfuchs.javalib.logging.Logger;
+import lombok.SneakyThrows;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerSchedulerTest {
+
+    TimerScheduler scheduler;
+
+    @BeforeEach
+    void createScheduler() {
+        this.scheduler = new TimerScheduler(1, null, new Logger("test", LogLevel.NONE, InjectionsBuilder.DEFAULT_LOGGER_FORMAT, false));
+    }
+
+    @AfterEach
+    void shutdownScheduler() {
+        this.scheduler.shutdown();
+    }
+
+    @Timer(delay = 1, period = 10, fixedRate = true, skipIfRunning = true)
+    void skipping() {
+    }
+
+    @Timer(delay = 0, period = 10)
+    void fixedDelay() {
+    }
+
+    @Timer(delay = 10)
+    void once() {
+    }
+
+    @SneakyThrows
+    private static Timer timer(String method) {
+        return TimerSchedulerTest.class.getDeclaredMethod(method).getAnnotation(Timer.class);
+    }
+
+    @Test
+    @SneakyThrows
+    public void testSharedThreads() {
+        AtomicInteger invocations = new AtomicInteger();
+        long before = countSchedulerThreads();
+        for (int i = 0; i < 200; i++) {
+            this.scheduler.schedule("timer" + i, timer("fixedDelay"), invocations::incrementAndGet);
+        }
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> invocations.get() >= 1000);
+        long threads = countSchedulerThreads() - before;
+        assertTrue(threads <= 1, "scheduler threads: " + threads);
+    }
+
+    private static long countSchedulerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("injections-timer-") && thread.isAlive())
+                .filter(thread -> !thread.getName().startsWith("injections-timer-worker-"))
+                .count();
+    }
+
+    @Test
+    @SneakyThrows
+    public void testSkipIfRunning() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger invocations = new AtomicInteger();
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule("skipping", timer("skipping"), () -> {
+            invocations.incrementAndGet();
+            awaitLatch(release);
+        });
+        Awaitility.await().during(100, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS)
+                .until(() -> invocations.get() == 1);
+        release.countDown();
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> invocations.get() > 1);
+        timer.cancel();
+    }
+
+    @Test
+    @SneakyThrows
+    public void testExceptionKeepsTimer() {
+        AtomicInteger invocations = new AtomicInteger();
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule("failing", timer("fixedDelay"), () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("failure");
+        });
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> invocations.get() >= 3);
+        timer.cancel();
+        assertStopped(invocations);
+    }
+
+    @Test
+    @SneakyThrows
+    public void testErrorKeepsTimer() {
+        AtomicInteger invocations = new AtomicInteger();
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule("error", timer("fixedDelay"), () -> {
+            invocations.incrementAndGet();
+            throw new AssertionError("failure");
+        });
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> invocations.get() >= 3);
+        timer.cancel();
+        assertTrue(timer.getMetrics().getFailures() >= 3);
+    }
+
+    @Test
+    @SneakyThrows
+    public void testZeroDelayRunsOnWorker() {
+        CountDownLatch invoked = new CountDownLatch(1);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule("zero", timer("fixedDelay"), () -> {
+            thread.compareAndSet(null, Thread.currentThread());
+            invoked.countDown();
+        });
+        assertTrue(invoked.await(1, TimeUnit.SECONDS));
+        timer.cancel();
+        assertNotSame(Thread.currentThread(), thread.get());
+        assertTrue(thread.get().getName().startsWith("injections-timer-worker-"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void testOnce() {
+        AtomicInteger invocations = new AtomicInteger();
+        this.scheduler.schedule("once", timer("once"), invocations::incrementAndGet);
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> invocations.get() == 1);
+        assertStopped(invocations);
+        assertEquals(0, this.scheduler.getScheduledTimers());
+    }
+
+    @SneakyThrows
+    private static void assertStopped(AtomicInteger invocations) {
+        AtomicInteger last = new AtomicInteger(-1);
+        Awaitility.await().during(50, TimeUnit.MILLISECONDS).atMost(2, TimeUnit.SECONDS)
+                .until(() -> last.getAndSet(invocations.get()) == invocations.get());
+    }
+
+    @Timer(delay = 1, period = 5, fixedRate = true)
+    void slow() {
+    }
+
+    @Test
+    @SneakyThrows
+    public void testMetrics() {
+        TimerScheduler.ScheduledTimer timer = this.scheduler.schedule("slow", timer("slow"), () -> sleep(20));
+        TimerMetrics metrics = timer.getMetrics();
+        Awaitility.await().atMost(2, TimeUnit.SECONDS).until(() -> metrics.getInvocations() >= 5);
+        timer.cancel();
+
+        assertSame(metrics, this.scheduler.getMetrics().get("slow"));
+        assertEquals(5, metrics.getPeriodMillis());
+        assertTrue(metrics.getOverruns() >= 5);
+        assertTrue(metrics.getLatency().getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(19));
+        assertTrue(metrics.getLatency().getMax() >= metrics.getLatency().getValueAtPercentile(99));
+        assertTrue(metrics.getSaturation() > 1);
+        assertTrue(metrics.getDrift().getMax() > 0);
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+        histogram.record(-5);
+        assertEquals(1001, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(Math.abs(median - 500_000) <= 500_000 / 16, "median: " + median);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(Math.abs(p99 - 990_000) <= 990_000 / 16, "p99: " + p99);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+
+    @SneakyThrows
+    private static void awaitLatch(CountDownLatch latch) {
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+}
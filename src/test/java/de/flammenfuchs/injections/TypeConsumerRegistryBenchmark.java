@@ -0,0 +1,64 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.registry.TypeConsumer;
+import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the indexed dispatch of the {@link TypeConsumerRegistry} with a linear scan over all consumers.<br>
+ * Only runs with the {@code benchmark} profile: {@code mvn test -P benchmark}
+ */
+@Tag("benchmark")
+class TypeConsumerRegistryBenchmark {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void benchmarkManyConsumers() {
+        int consumerCount = 250;
+        int typeCount = 200;
+        int objectCount = 20_000;
+
+        List<Class<?>> types = ArrayTypes.chain(typeCount);
+        Object[] objects = new Object[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = ArrayTypes.instance(types.get(i % typeCount));
+        }
+
+        AtomicLong indexedDeliveries = new AtomicLong();
+        AtomicLong linearDeliveries = new AtomicLong();
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        List<TypeConsumer<?>> linear = new ArrayList<>();
+        for (int i = 0; i < consumerCount; i++) {
+            Class<Object> consumed = (Class<Object>) (i % 25 == 0 ? Object[].class : types.get(i % typeCount));
+            registry.register(new TypeConsumer<>(consumed, value -> indexedDeliveries.incrementAndGet()));
+            linear.add(new TypeConsumer<>(consumed, value -> linearDeliveries.incrementAndGet()));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            indexedDeliveries.set(0);
+            linearDeliveries.set(0);
+            long start = System.nanoTime();
+            for (Object object : objects) {
+                registry.consume(object);
+            }
+            long indexed = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (Object object : objects) {
+                for (TypeConsumer<?> consumer : linear) {
+                    consumer.consume(object);
+                }
+            }
+            long scanned = System.nanoTime() - start;
+            assertEquals(linearDeliveries.get(), indexedDeliveries.get());
+            System.out.printf("TypeConsumerRegistry %d consumers x %d objects: indexed %.2fms, linear %.2fms%n",
+                    consumerCount, objectCount, indexed / 1e6, scanned / 1e6);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.flammenfuchs.injections;
+
+import de.flammenfuchs.injections.registry.TypeConsumer;
+import de.flammenfuchs.injections.registry.TypeConsumerRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeConsumerRegistryTest {
+
+    @Test
+    public void testDispatchOrderAndSupertypes() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        List<String> calls = new ArrayList<>();
+        registry.register(new TypeConsumer<>(CharSequence.class, value -> calls.add("sequence:" + value)));
+        registry.register(new TypeConsumer<>(Integer.class, value -> calls.add("integer:" + value)));
+        registry.register(new TypeConsumer<>(String.class, value -> calls.add("string:" + value)));
+        registry.register(new TypeConsumer<>(Serializable.class, value -> calls.add("serializable:" + value)));
+
+        registry.consume("a");
+        registry.consume(1);
+        registry.consume(new Object());
+        registry.consume(null);
+        assertEquals(List.of("sequence:a", "string:a", "serializable:a", "integer:1", "serializable:1"), calls);
+    }
+
+    @Test
+    public void testRegisterInvalidatesDispatch() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        List<Object> consumed = new ArrayList<>();
+        registry.consume("before");
+        registry.register(new TypeConsumer<>(String.class, consumed::add));
+        registry.consume("after");
+        registry.register(new TypeConsumer<>(Object.class, consumed::add));
+        registry.consume("both");
+        assertEquals(List.of("after", "both", "both"), consumed);
+    }
+
+    @Test
+    public void testIndexedDispatchMatchesLinearScan() {
+        TypeConsumerRegistry registry = new TypeConsumerRegistry();
+        List<TypeConsumer<?>> linear = new ArrayList<>();
+        List<String> indexedCalls = new ArrayList<>();
+        List<String> linearCalls = new ArrayList<>();
+        for (Class<?> type : List.of(Marker.class, Object.class, Leaf.class, Base.class, Other.class, Middle.class,
+                Marker.class)) {
+            register(registry, type, indexedCalls);
+            linear.add(consumer(type, linearCalls));
+        }
+
+        List<Object> objects = List.of(new Leaf(), new Base(), new Other(), new Middle(), "text", new Leaf(), new Other());
+        for (int round = 0; round < 2; round++) {
+            for (Object object : objects) {
+                registry.consume(object);
+                for (TypeConsumer<?> consumer : linear) {
+                    consumer.consume(object);
+                }
+            }
+        }
+        assertEquals(linearCalls, indexedCalls);
+        assertEquals(List.of("Marker:Leaf", "Object:Leaf", "Leaf:Leaf", "Base:Leaf", "Middle:Leaf", "Marker:Leaf"),
+                indexedCalls.subList(0, 6));
+    }
+
+    private static <T> void register(TypeConsumerRegistry registry, Class<T> type, List<String> calls) {
+        registry.register(consumer(type, calls));
+    }
+
+    private static <T> TypeConsumer<T> consumer(Class<T> type, List<String> calls) {
+        return new TypeConsumer<>(type, value -> calls.add(type.getSimpleName() + ":" + value.getClass().getSimpleName()));
+    }
+
+    interface Marker {
+    }
+
+    static class Base {
+    }
+
+    static class Middle extends Base implements Marker {
+    }
+
+    static class Leaf extends Middle {
+    }
+
+    static class Other implements Marker {
+    }
+}